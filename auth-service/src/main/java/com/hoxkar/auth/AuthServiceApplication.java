@@ -5,17 +5,14 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.ComponentScan;
-import org.springframework.context.annotation.FilterType;
 
 /**
  * 认证授权服务启动类
  */
 @SpringBootApplication
 @EnableDiscoveryClient
-@EnableFeignClients
-@ComponentScan(basePackages = {"com.hoxkar"}, 
-               excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, 
-                                                    classes = {com.hoxkar.common.aspect.PermissionAspect.class}))
+@EnableFeignClients(basePackages = {"com.hoxkar.auth", "com.hoxkar.common.client"})
+@ComponentScan(basePackages = {"com.hoxkar"})
 public class AuthServiceApplication {
     
     public static void main(String[] args) {
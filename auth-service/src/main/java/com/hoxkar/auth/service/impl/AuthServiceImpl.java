@@ -7,12 +7,15 @@ import com.hoxkar.auth.pojo.vo.LoginResponse;
 import com.hoxkar.auth.pojo.vo.UserInfoVO;
 import com.hoxkar.auth.repository.UserRepository;
 import com.hoxkar.auth.service.AuthService;
+import com.hoxkar.common.client.PermissionServiceClient;
 import com.hoxkar.common.exception.BusinessException;
 import com.hoxkar.common.pojo.vo.ApiResponse;
+import com.hoxkar.common.policy.PermissionClaim;
 import com.hoxkar.common.util.JwtTokenUtil;
 import com.hoxkar.common.util.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -38,6 +41,13 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenUtil jwtTokenUtil;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final PermissionServiceClient permissionServiceClient;
+    
+    /**
+     * 访问令牌是否携带权限声明 // Whether access tokens carry the permission claim
+     */
+    @Value("${jwt.permission-claim.enabled:true}")
+    private boolean permissionClaimEnabled;
     
     @Override
     public ApiResponse<LoginResponse> login(LoginRequest loginRequest) {
@@ -69,7 +79,7 @@ public class AuthServiceImpl implements AuthService {
             SecurityContextHolder.getContext().setAuthentication(authentication);
             
             // Generate access token and refresh token // 生成访问令牌和刷新令牌
-            String accessToken = jwtTokenUtil.generateToken(user, user.getTenantId().toString());
+            String accessToken = jwtTokenUtil.generateToken(user, user.getTenantId().toString(), user.getId(), loadPermissionClaim(user));
             String refreshToken = jwtTokenUtil.generateRefreshToken(user, user.getTenantId().toString());
             
             // Update last login time // 更新最后登录时间
@@ -128,7 +138,7 @@ public class AuthServiceImpl implements AuthService {
             }
             
             // Generate new access token // 生成新的访问令牌
-            String newAccessToken = jwtTokenUtil.generateToken(user, user.getTenantId().toString());
+            String newAccessToken = jwtTokenUtil.generateToken(user, user.getTenantId().toString(), user.getId(), loadPermissionClaim(user));
             String newRefreshToken = jwtTokenUtil.generateRefreshToken(user, user.getTenantId().toString());
             
             // Update refresh token in Redis // 更新Redis中的刷新令牌
@@ -342,4 +352,29 @@ public class AuthServiceImpl implements AuthService {
             throw BusinessException.of("Check if email exists failed"); // 检查邮箱是否存在失败
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Load the permission claim of the access token, null when disabled or unavailable so the token is still issued
+     * and services check remotely // 加载访问令牌的权限声明，关闭或不可用时为null，令牌照常签发，由各服务远程判定
+     */
+    private PermissionClaim loadPermissionClaim(User user) {
+        if (!permissionClaimEnabled) {
+            return null;
+        }
+        String previousTenantId = TenantContext.getTenantId();
+        try {
+            TenantContext.setTenantId(user.getTenantId().toString());
+            ApiResponse<PermissionClaim> response = permissionServiceClient.getUserPermissionClaim(user.getId());
+            return response != null ? response.getData() : null;
+        } catch (Exception e) {
+            log.warn("Failed to load permission claim of user {}: {}", user.getId(), e.getMessage()); // 加载用户权限声明失败
+            return null;
+        } finally {
+            if (previousTenantId != null) {
+                TenantContext.setTenantId(previousTenantId);
+            } else {
+                TenantContext.clear();
+            }
+        }
+    }
+}
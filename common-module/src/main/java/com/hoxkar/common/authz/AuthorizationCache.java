@@ -0,0 +1,281 @@
+package com.hoxkar.common.authz;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hoxkar.common.client.PermissionServiceClient;
+import com.hoxkar.common.config.AuthorizationCacheConfig;
+import com.hoxkar.common.exception.BusinessException;
+import com.hoxkar.common.pojo.vo.ApiResponse;
+import com.hoxkar.common.policy.PermissionBitSet;
+import com.hoxkar.common.policy.PermissionClaim;
+import com.hoxkar.common.policy.PermissionDictionary;
+import com.hoxkar.common.policy.PermissionSnapshot;
+import com.hoxkar.common.policy.UserAuthorities;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Authorization Cache
+/**
+ * Two-level cache of the effective authorities of (tenant, user) // (租户, 用户) 有效权限集合的两级缓存
+ * L1 is Caffeine: concurrent misses of the same key wait for a single load instead of each calling permission-service;
+ * L2 is an optional Redis cache keyed by the tenant snapshot version, so a change makes old entries unreachable.
+ * Permission change events published by permission-service invalidate all L1 entries of the tenant; an entry loaded
+ * before the event arrived carries an older version and is reloaded on next read. Tenant permission dictionaries are
+ * cached the same way so that bitmaps carried by access tokens can be decided locally
+ * // L1为Caffeine：同一键的并发未命中只等待一次加载，不会各自调用permission-service；
+ * L2为可选的Redis缓存，键中带租户快照版本号，变更后旧条目自然不可达。
+ * permission-service发布的权限变更事件使该租户的全部L1条目失效；事件到达前加载的条目版本号较旧，下次读取时重新加载。
+ * 租户权限字典以同样方式缓存，使访问令牌携带的位图可在本地判定
+ */
+@Slf4j
+@Component
+public class AuthorizationCache implements InitializingBean, DisposableBean {
+    /**
+     * Redis key prefix of L2 entries: prefix + tenantId:version:userId // L2条目的Redis键前缀：前缀 + 租户ID:版本号:用户ID
+     */
+    public static final String L2_KEY_PREFIX = "authz:authorities:";
+
+    private final AuthorizationCacheConfig config;
+    private final ObjectProvider<UserAuthoritiesLoader> localLoaderProvider;
+    private final ObjectProvider<PermissionServiceClient> permissionServiceClientProvider;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, UserAuthorities> cache;
+    /**
+     * Tenant ID -> permission dictionary, for bitmaps carried by access tokens // 租户ID -> 权限字典，用于解释访问令牌携带的位图
+     */
+    private final Cache<Long, PermissionDictionary> dictionaries;
+    /**
+     * Reference -> bitmap too large for the token; immutable once issued // 引用 -> 令牌放不下的位图；签发后不再变化
+     */
+    private final Cache<String, PermissionBitSet> referencedPermissions;
+    /**
+     * Latest version announced per tenant // 各租户已通知的最新版本号
+     */
+    private final Map<Long, Long> tenantVersions = new ConcurrentHashMap<>();
+    private RedisMessageListenerContainer listenerContainer;
+
+    public AuthorizationCache(AuthorizationCacheConfig config,
+                              ObjectProvider<UserAuthoritiesLoader> localLoaderProvider,
+                              ObjectProvider<PermissionServiceClient> permissionServiceClientProvider,
+                              StringRedisTemplate stringRedisTemplate,
+                              ObjectMapper objectMapper) {
+        this.config = config;
+        this.localLoaderProvider = localLoaderProvider;
+        this.permissionServiceClientProvider = permissionServiceClientProvider;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getL1MaxSize())
+                .expireAfterWrite(config.getL1Ttl())
+                .build();
+        this.dictionaries = Caffeine.newBuilder()
+                .maximumSize(config.getL1MaxSize())
+                .expireAfterWrite(config.getL1Ttl())
+                .build();
+        this.referencedPermissions = Caffeine.newBuilder()
+                .maximumSize(config.getL1MaxSize())
+                .expireAfterWrite(config.getL1Ttl())
+                .build();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(stringRedisTemplate.getRequiredConnectionFactory());
+        listenerContainer.addMessageListener((message, pattern) -> onPermissionChanged(message),
+                new ChannelTopic(PermissionSnapshot.CHANGE_CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    /**
+     * Whether decisions are made from cached authorities // 是否基于缓存的权限集合判定
+     */
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Get the effective authorities of a user in a tenant // 获取用户在租户内的有效权限集合
+     */
+    public UserAuthorities get(Long tenantId, Long userId) {
+        String key = tenantId + ":" + userId;
+        UserAuthorities authorities = cache.get(key, k -> load(tenantId, userId));
+        if (authorities.getVersion() < tenantVersions.getOrDefault(tenantId, 0L)) {
+            // Loaded before the change event arrived // 在变更事件到达前加载
+            cache.asMap().remove(key, authorities);
+            authorities = cache.get(key, k -> load(tenantId, userId));
+        }
+        return authorities;
+    }
+
+    /**
+     * Get the permission dictionary of a tenant if it has exactly the given version, null otherwise; a cached dictionary
+     * older than the version is reloaded once. Unconfirmed (negative) versions never match
+     * // 获取租户指定版本的权限字典，版本不完全一致时为null；缓存的字典比该版本旧时重新加载一次。未确认（负数）的版本号一律不匹配
+     */
+    public PermissionDictionary getDictionary(Long tenantId, long version) {
+        if (version < 0) {
+            return null;
+        }
+        PermissionDictionary dictionary = dictionaries.get(tenantId, k -> loadDictionary());
+        if (dictionary != null && (dictionary.getVersion() < version
+                || dictionary.getVersion() < tenantVersions.getOrDefault(tenantId, 0L))) {
+            dictionaries.asMap().remove(tenantId, dictionary);
+            dictionary = dictionaries.get(tenantId, k -> loadDictionary());
+        }
+        return dictionary != null && dictionary.getVersion() == version && tenantId.equals(dictionary.getTenantId())
+                ? dictionary : null;
+    }
+
+    /**
+     * Get a bitmap referenced by an access token, null if it has expired // 获取访问令牌引用的位图，已过期时为null
+     */
+    public PermissionBitSet getReferencedPermissions(String reference) {
+        return referencedPermissions.get(reference, k -> {
+            String value = stringRedisTemplate.opsForValue().get(PermissionClaim.REFERENCE_KEY_PREFIX + k);
+            return value != null ? PermissionBitSet.fromBase64(value) : null;
+        });
+    }
+
+    /**
+     * Invalidate all entries of a tenant // 使租户的全部条目失效
+     */
+    public void invalidateTenant(Long tenantId) {
+        String prefix = tenantId + ":";
+        cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        dictionaries.invalidate(tenantId);
+    }
+
+    /**
+     * Load from L2, then from permission-service // 先从L2加载，再从permission-service加载
+     */
+    private UserAuthorities load(Long tenantId, Long userId) {
+        String l2Key = null;
+        if (config.isL2Enabled()) {
+            l2Key = currentL2Key(tenantId, userId);
+            UserAuthorities cached = readL2(l2Key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        UserAuthorities authorities = loadFromSource(userId);
+        if (authorities == null) {
+            throw new BusinessException("Failed to load user authorities"); // 加载用户权限失败
+        }
+        if (l2Key != null) {
+            // Stored under the version the data was read at // 按读取数据时的版本号存储
+            writeL2(L2_KEY_PREFIX + tenantId + ":" + authorities.getVersion() + ":" + userId, authorities);
+        }
+        return authorities;
+    }
+
+    /**
+     * Load from the local loader if present, otherwise from permission-service // 有本地加载器时本地加载，否则从permission-service加载
+     */
+    private UserAuthorities loadFromSource(Long userId) {
+        UserAuthoritiesLoader localLoader = localLoaderProvider.getIfAvailable();
+        if (localLoader != null) {
+            return localLoader.load(userId);
+        }
+        PermissionServiceClient client = permissionServiceClientProvider.getIfAvailable();
+        if (client == null) {
+            throw new BusinessException("No source of user authorities"); // 没有用户权限来源
+        }
+        ApiResponse<UserAuthorities> response = client.getUserAuthorities(userId);
+        return response != null ? response.getData() : null;
+    }
+
+    /**
+     * Load the dictionary of the current tenant context, same sources as the authorities
+     * // 加载当前租户上下文的字典，来源与权限集合相同
+     */
+    private PermissionDictionary loadDictionary() {
+        UserAuthoritiesLoader localLoader = localLoaderProvider.getIfAvailable();
+        if (localLoader != null) {
+            return localLoader.loadDictionary();
+        }
+        PermissionServiceClient client = permissionServiceClientProvider.getIfAvailable();
+        if (client == null) {
+            return null;
+        }
+        ApiResponse<PermissionDictionary> response = client.getPermissionDictionary();
+        return response != null ? response.getData() : null;
+    }
+
+    /**
+     * L2 key of the current tenant version, null if Redis is unavailable or the version counter is missing
+     * // 当前租户版本的L2键，Redis不可用或版本计数器缺失时为null
+     */
+    private String currentL2Key(Long tenantId, Long userId) {
+        try {
+            String version = stringRedisTemplate.opsForValue().get(PermissionSnapshot.VERSION_KEY_PREFIX + tenantId);
+            return version != null ? L2_KEY_PREFIX + tenantId + ":" + version + ":" + userId : null;
+        } catch (Exception e) {
+            log.warn("Failed to read permission version of tenant {}: {}", tenantId, e.getMessage()); // 读取租户权限版本失败
+            return null;
+        }
+    }
+
+    private UserAuthorities readL2(String key) {
+        if (key == null) {
+            return null;
+        }
+        try {
+            String value = stringRedisTemplate.opsForValue().get(key);
+            return value != null ? objectMapper.readValue(value, UserAuthorities.class) : null;
+        } catch (Exception e) {
+            log.warn("Failed to read authorization cache {}: {}", key, e.getMessage()); // 读取授权缓存失败
+            return null;
+        }
+    }
+
+    private void writeL2(String key, UserAuthorities authorities) {
+        try {
+            stringRedisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(authorities), config.getL2Ttl());
+        } catch (Exception e) {
+            log.warn("Failed to write authorization cache {}: {}", key, e.getMessage()); // 写入授权缓存失败
+        }
+    }
+
+    /**
+     * Handle a permission change event, message format: tenantId:version // 处理权限变更事件，消息格式：租户ID:版本号
+     */
+    private void onPermissionChanged(Message message) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        try {
+            Long tenantId = Long.valueOf(separator > 0 ? body.substring(0, separator) : body);
+            if (separator > 0) {
+                tenantVersions.merge(tenantId, Long.parseLong(body.substring(separator + 1)), Math::max);
+            }
+            invalidateTenant(tenantId);
+            log.debug("Authorization cache invalidated for tenant: {}", tenantId); // 租户授权缓存已失效
+        } catch (NumberFormatException e) {
+            log.warn("Invalid permission change event: {}", body); // 无效的权限变更事件
+        }
+    }
+}
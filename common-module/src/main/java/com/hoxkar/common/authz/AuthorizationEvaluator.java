@@ -0,0 +1,205 @@
+package com.hoxkar.common.authz;
+
+import com.hoxkar.common.client.PermissionServiceClient;
+import com.hoxkar.common.exception.BusinessException;
+import com.hoxkar.common.policy.AuthorizationCheckRequest;
+import com.hoxkar.common.policy.AuthorizationCheckResult;
+import com.hoxkar.common.policy.PermissionBitSet;
+import com.hoxkar.common.policy.PermissionClaim;
+import com.hoxkar.common.policy.PermissionDictionary;
+import com.hoxkar.common.policy.PermissionSnapshot;
+import com.hoxkar.common.policy.UserAuthorities;
+import com.hoxkar.common.util.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+// Authorization Evaluator
+/**
+ * Evaluates compiled authorization policies for the current request // 针对当前请求判定已编译的授权策略
+ * Checks already verified by the gateway are skipped; permission checks are decided from the bitmap carried by the
+ * access token while its dictionary version is current; the remaining checks share one lookup of the user's authorities
+ * from AuthorizationCache, or fall back to one batch call per check when the cache is unavailable
+ * // 网关已验证的检查直接跳过；访问令牌携带的位图字典版本仍为最新时，权限检查据此本地判定；
+ * 其余检查共用一次从AuthorizationCache获取的用户权限集合，缓存不可用时每项检查一次批量调用
+ */
+@Slf4j
+@Component
+public class AuthorizationEvaluator {
+
+    private final ObjectProvider<AuthorizationCache> authorizationCacheProvider;
+    private final ObjectProvider<PermissionServiceClient> permissionServiceClientProvider;
+
+    public AuthorizationEvaluator(ObjectProvider<AuthorizationCache> authorizationCacheProvider,
+                                  ObjectProvider<PermissionServiceClient> permissionServiceClientProvider) {
+        this.authorizationCacheProvider = authorizationCacheProvider;
+        this.permissionServiceClientProvider = permissionServiceClientProvider;
+    }
+
+    /**
+     * Enforce a policy, throws BusinessException when denied // 执行策略，拒绝时抛出BusinessException
+     */
+    public void authorize(HttpServletRequest request, AuthorizationPolicy policy) {
+        authorize(request, List.of(), policy);
+    }
+
+    /**
+     * Enforce route permissions (all required) and a handler policy, throws BusinessException when denied
+     * // 执行路由权限（需全部满足）与处理器策略，拒绝时抛出BusinessException
+     */
+    public void authorize(HttpServletRequest request, List<String> routePermissions, AuthorizationPolicy policy) {
+        if (policy.isTenantRequired()) {
+            String tenantId = TenantContext.getTenantId();
+            if (tenantId == null || tenantId.trim().isEmpty()) {
+                throw new BusinessException(policy.getTenantMessage());
+            }
+        }
+        Set<String> verified = verifiedPermissions(request);
+        boolean routePending = !verified.containsAll(routePermissions);
+        AuthorizationCheckRequest permissionCheck = policy.getPermissionCheck();
+        boolean permissionPending = permissionCheck != null && !isVerified(permissionCheck, verified);
+        AuthorizationCheckRequest roleCheck = policy.getRoleCheck();
+        if (!routePending && !permissionPending && roleCheck == null) {
+            log.debug("Authorization verified by gateway"); // 网关已验证授权
+            return;
+        }
+        Predicate<String> tokenPermissions = routePending || permissionPending ? tokenPermissions(request) : null;
+        if (tokenPermissions != null) {
+            if (routePending && !routePermissions.stream().allMatch(tokenPermissions)) {
+                throw new BusinessException("Insufficient permission: " + String.join(",", routePermissions)); // 权限不足
+            }
+            if (permissionPending && !AuthorizationCheckResult.evaluate(permissionCheck, tokenPermissions, code -> false).isGranted()) {
+                throw new BusinessException(policy.getPermissionMessage());
+            }
+            if (roleCheck == null) {
+                log.debug("Authorization decided from token permissions"); // 基于令牌权限判定授权
+                return;
+            }
+            routePending = false;
+            permissionPending = false;
+        }
+        Long userId = getCurrentUserId(request);
+        if (userId == null) {
+            throw new BusinessException("User not logged in"); // 用户未登录
+        }
+        UserAuthorities authorities = getAuthorities(userId);
+        if (routePending && !isGranted(userId, authorities,
+                new AuthorizationCheckRequest(routePermissions, List.of(), AuthorizationCheckRequest.Logic.AND))) {
+            throw new BusinessException("Insufficient permission: " + String.join(",", routePermissions)); // 权限不足
+        }
+        if (permissionPending && !isGranted(userId, authorities, permissionCheck)) {
+            throw new BusinessException(policy.getPermissionMessage());
+        }
+        if (roleCheck != null && !isGranted(userId, authorities, roleCheck)) {
+            throw new BusinessException(policy.getRoleMessage());
+        }
+        log.debug("Authorization passed - User: {}", userId); // 授权通过
+    }
+
+    /**
+     * Permission test over the bitmap carried by the access token, null when there is none or its dictionary version is
+     * no longer current // 基于访问令牌携带位图的权限判断，未携带或其字典版本已不是最新时为null
+     */
+    private Predicate<String> tokenPermissions(HttpServletRequest request) {
+        String version = request != null ? request.getHeader(PermissionClaim.VERSION_HEADER) : null;
+        String tenantId = TenantContext.getTenantId();
+        AuthorizationCache cache = authorizationCacheProvider.getIfAvailable();
+        if (version == null || tenantId == null || tenantId.trim().isEmpty() || cache == null || !cache.isEnabled()) {
+            return null;
+        }
+        try {
+            PermissionDictionary dictionary = cache.getDictionary(Long.valueOf(tenantId), Long.parseLong(version));
+            if (dictionary == null) {
+                log.debug("Token permission version {} is stale, checking remotely", version); // 令牌权限版本已过期，远程检查
+                return null;
+            }
+            String bits = request.getHeader(PermissionClaim.BITS_HEADER);
+            String reference = request.getHeader(PermissionClaim.REFERENCE_HEADER);
+            PermissionBitSet permissions = bits != null ? PermissionBitSet.fromBase64(bits)
+                    : reference != null ? cache.getReferencedPermissions(reference) : null;
+            if (permissions == null) {
+                return null;
+            }
+            return code -> dictionary.contains(permissions, code);
+        } catch (Exception e) {
+            log.warn("Failed to read token permissions, checking remotely: {}", e.getMessage()); // 读取令牌权限失败，远程检查
+            return null;
+        }
+    }
+
+    /**
+     * Cached authorities of the user, null when the cache is unavailable // 用户的缓存权限集合，缓存不可用时为null
+     */
+    private UserAuthorities getAuthorities(Long userId) {
+        AuthorizationCache cache = authorizationCacheProvider.getIfAvailable();
+        if (cache == null || !cache.isEnabled()) {
+            return null;
+        }
+        String tenantId = TenantContext.getTenantId();
+        if (tenantId == null || tenantId.trim().isEmpty()) {
+            throw new BusinessException("Tenant context missing"); // 租户上下文缺失
+        }
+        return cache.get(Long.valueOf(tenantId), userId);
+    }
+
+    /**
+     * Evaluate a check from the cached authorities, or with one batch call // 基于缓存的权限集合判定检查，或一次批量调用
+     */
+    private boolean isGranted(Long userId, UserAuthorities authorities, AuthorizationCheckRequest check) {
+        if (authorities != null) {
+            return AuthorizationCheckResult.evaluate(check, authorities.getPermissions(), authorities.getRoles()).isGranted();
+        }
+        PermissionServiceClient client = permissionServiceClientProvider.getIfAvailable();
+        if (client == null) {
+            log.warn("No authorization source available, denying - User: {}", userId); // 没有可用的授权来源，拒绝
+            return false;
+        }
+        var response = client.checkUserAuthorities(userId, check);
+        return response != null && response.getData() != null && response.getData().isGranted();
+    }
+
+    /**
+     * Whether the gateway has verified the permission check // 网关是否已验证该权限检查
+     */
+    private static boolean isVerified(AuthorizationCheckRequest check, Set<String> verified) {
+        if (verified.isEmpty()) {
+            return false;
+        }
+        if (check.getLogic() == AuthorizationCheckRequest.Logic.AND) {
+            return verified.containsAll(check.getPermissions());
+        }
+        return check.getPermissions().stream().anyMatch(verified::contains);
+    }
+
+    /**
+     * Permissions verified by the gateway // 网关已验证的权限
+     */
+    private static Set<String> verifiedPermissions(HttpServletRequest request) {
+        String header = request != null ? request.getHeader(PermissionSnapshot.VERIFIED_PERMISSIONS_HEADER) : null;
+        if (header == null || header.isEmpty()) {
+            return Set.of();
+        }
+        return Set.copyOf(Arrays.asList(header.split(",")));
+    }
+
+    /**
+     * Get current user ID // 获取当前用户ID
+     */
+    private static Long getCurrentUserId(HttpServletRequest request) {
+        String userIdStr = request != null ? request.getHeader("X-User-ID") : null;
+        if (userIdStr != null && !userIdStr.trim().isEmpty()) {
+            try {
+                return Long.valueOf(userIdStr);
+            } catch (NumberFormatException e) {
+                log.warn("Invalid user ID: {}", userIdStr); // 无效的用户ID
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,110 @@
+package com.hoxkar.common.authz;
+
+import com.hoxkar.common.annotation.RequiresPermission;
+import com.hoxkar.common.annotation.RequiresRole;
+import com.hoxkar.common.annotation.RequiresTenant;
+import com.hoxkar.common.policy.AuthorizationCheckRequest;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Authorization Policy
+/**
+ * Compiled authorization policy of a handler method // 处理器方法的已编译授权策略
+ * Resolved once from @RequiresTenant, @RequiresPermission and @RequiresRole (method level overrides class level),
+ * so requests are evaluated without reflection // 由方法级或类级注解一次性解析（方法级覆盖类级），请求时无需反射
+ */
+@Getter
+public class AuthorizationPolicy {
+    /**
+     * Policy of handlers without authorization annotations // 无授权注解的处理器策略
+     */
+    public static final AuthorizationPolicy NONE = new AuthorizationPolicy(false, null, null, null, null, null);
+
+    /**
+     * Whether a tenant context is required // 是否需要租户上下文
+     */
+    private final boolean tenantRequired;
+    /**
+     * Message when the tenant context is missing // 租户上下文缺失时的消息
+     */
+    private final String tenantMessage;
+    /**
+     * Permission check, null if none // 权限检查，无则为null
+     */
+    private final AuthorizationCheckRequest permissionCheck;
+    /**
+     * Message when the permission check fails // 权限检查失败时的消息
+     */
+    private final String permissionMessage;
+    /**
+     * Role check, null if none // 角色检查，无则为null
+     */
+    private final AuthorizationCheckRequest roleCheck;
+    /**
+     * Message when the role check fails // 角色检查失败时的消息
+     */
+    private final String roleMessage;
+
+    private AuthorizationPolicy(boolean tenantRequired, String tenantMessage,
+                                AuthorizationCheckRequest permissionCheck, String permissionMessage,
+                                AuthorizationCheckRequest roleCheck, String roleMessage) {
+        this.tenantRequired = tenantRequired;
+        this.tenantMessage = tenantMessage;
+        this.permissionCheck = permissionCheck;
+        this.permissionMessage = permissionMessage;
+        this.roleCheck = roleCheck;
+        this.roleMessage = roleMessage;
+    }
+
+    /**
+     * Compile a policy from resolved annotations, any of which may be null // 由解析出的注解编译策略，注解均可为null
+     */
+    public static AuthorizationPolicy compile(RequiresTenant requiresTenant,
+                                              RequiresPermission requiresPermission,
+                                              RequiresRole requiresRole) {
+        AuthorizationCheckRequest permissionCheck = null;
+        if (requiresPermission != null) {
+            List<String> codes = codes(requiresPermission.permissions(), requiresPermission.value());
+            if (!codes.isEmpty()) {
+                permissionCheck = new AuthorizationCheckRequest(codes, List.of(),
+                        requiresPermission.logic() == RequiresPermission.LogicType.AND
+                                ? AuthorizationCheckRequest.Logic.AND : AuthorizationCheckRequest.Logic.OR);
+            }
+        }
+        AuthorizationCheckRequest roleCheck = null;
+        if (requiresRole != null) {
+            List<String> codes = codes(requiresRole.roles(), requiresRole.value());
+            if (!codes.isEmpty()) {
+                roleCheck = new AuthorizationCheckRequest(List.of(), codes,
+                        requiresRole.logic() == RequiresRole.LogicType.AND
+                                ? AuthorizationCheckRequest.Logic.AND : AuthorizationCheckRequest.Logic.OR);
+            }
+        }
+        boolean tenantRequired = requiresTenant != null && requiresTenant.required();
+        if (!tenantRequired && permissionCheck == null && roleCheck == null) {
+            return NONE;
+        }
+        return new AuthorizationPolicy(tenantRequired, requiresTenant != null ? requiresTenant.message() : null,
+                permissionCheck, requiresPermission != null ? requiresPermission.message() : null,
+                roleCheck, requiresRole != null ? requiresRole.message() : null);
+    }
+
+    /**
+     * Whether the policy requires nothing // 策略是否无任何要求
+     */
+    public boolean isEmpty() {
+        return this == NONE;
+    }
+
+    /**
+     * Codes of the array attribute, or the single value attribute // 数组属性中的代码，为空时取单值属性
+     */
+    private static List<String> codes(String[] codes, String value) {
+        if (codes.length > 0) {
+            return List.copyOf(Arrays.asList(codes));
+        }
+        return value == null || value.isEmpty() ? List.of() : List.of(value);
+    }
+}
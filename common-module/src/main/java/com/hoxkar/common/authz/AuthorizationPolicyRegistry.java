@@ -0,0 +1,73 @@
+package com.hoxkar.common.authz;
+
+import com.hoxkar.common.annotation.RequiresPermission;
+import com.hoxkar.common.annotation.RequiresRole;
+import com.hoxkar.common.annotation.RequiresTenant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Authorization Policy Registry
+/**
+ * Registry of compiled authorization policies by handler method // 按处理器方法登记的已编译授权策略
+ * All request mappings are compiled when the context is refreshed; a handler registered later is compiled once on first use
+ * // 上下文刷新时编译全部请求映射；之后注册的处理器在首次使用时编译一次
+ */
+@Slf4j
+@Component
+public class AuthorizationPolicyRegistry implements ApplicationListener<ContextRefreshedEvent> {
+    private final Map<Method, AuthorizationPolicy> policies = new ConcurrentHashMap<>();
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        Map<String, RequestMappingHandlerMapping> mappings =
+                event.getApplicationContext().getBeansOfType(RequestMappingHandlerMapping.class);
+        int restricted = 0;
+        for (RequestMappingHandlerMapping mapping : mappings.values()) {
+            for (HandlerMethod handlerMethod : mapping.getHandlerMethods().values()) {
+                AuthorizationPolicy policy = compile(handlerMethod.getMethod(), handlerMethod.getBeanType());
+                if (policies.put(handlerMethod.getMethod(), policy) == null && !policy.isEmpty()) {
+                    restricted++;
+                }
+            }
+        }
+        log.info("Authorization policy registry compiled {} handlers, {} with authorization annotations",
+                policies.size(), restricted);
+    }
+
+    /**
+     * Policy of a handler method // 获取处理器方法的策略
+     */
+    public AuthorizationPolicy get(HandlerMethod handlerMethod) {
+        AuthorizationPolicy policy = policies.get(handlerMethod.getMethod());
+        if (policy == null) {
+            policy = policies.computeIfAbsent(handlerMethod.getMethod(),
+                    method -> compile(method, handlerMethod.getBeanType()));
+        }
+        return policy;
+    }
+
+    /**
+     * Resolve the annotations of a handler method, method level first // 解析处理器方法的注解，方法级优先
+     */
+    private static AuthorizationPolicy compile(Method method, Class<?> beanType) {
+        return AuthorizationPolicy.compile(
+                find(method, beanType, RequiresTenant.class),
+                find(method, beanType, RequiresPermission.class),
+                find(method, beanType, RequiresRole.class));
+    }
+
+    private static <A extends Annotation> A find(Method method, Class<?> beanType, Class<A> type) {
+        A annotation = AnnotatedElementUtils.findMergedAnnotation(method, type);
+        return annotation != null ? annotation : AnnotatedElementUtils.findMergedAnnotation(beanType, type);
+    }
+}
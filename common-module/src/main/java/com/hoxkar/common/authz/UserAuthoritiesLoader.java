@@ -0,0 +1,23 @@
+package com.hoxkar.common.authz;
+
+import com.hoxkar.common.policy.PermissionDictionary;
+import com.hoxkar.common.policy.UserAuthorities;
+
+// User Authorities Loader
+/**
+ * Local source of user authorities // 用户权限集合的本地来源
+ * Implemented by permission-service so its own authorization does not call itself through Feign;
+ * other services load through PermissionServiceClient
+ * // 由permission-service实现，使其自身的授权不经Feign调用自己；其他服务通过PermissionServiceClient加载
+ */
+public interface UserAuthoritiesLoader {
+    /**
+     * Load the effective authorities of a user in the current tenant context // 加载用户在当前租户上下文中的有效权限集合
+     */
+    UserAuthorities load(Long userId);
+
+    /**
+     * Load the permission dictionary of the current tenant context // 加载当前租户上下文的权限字典
+     */
+    PermissionDictionary loadDictionary();
+}
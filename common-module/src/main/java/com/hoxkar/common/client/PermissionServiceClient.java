@@ -1,17 +1,24 @@
 package com.hoxkar.common.client;
 
 import com.hoxkar.common.pojo.vo.ApiResponse;
+import com.hoxkar.common.policy.AuthorizationCheckRequest;
+import com.hoxkar.common.policy.AuthorizationCheckResult;
+import com.hoxkar.common.policy.PermissionClaim;
+import com.hoxkar.common.policy.PermissionDictionary;
+import com.hoxkar.common.policy.UserAuthorities;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 import java.util.List;
 
 /**
  * 权限服务Feign客户端
- * 用于权限验证切面调用权限服务
+ * 用于授权判定调用权限服务；contextId 避免与各服务自有的同名客户端冲突
  */
-@FeignClient(name = "permission-service", path = "/api/permissions")
+@FeignClient(name = "permission-service", contextId = "commonPermissionServiceClient", path = "/api/permissions")
 public interface PermissionServiceClient {
     
     /**
@@ -37,4 +44,28 @@ public interface PermissionServiceClient {
      */
     @GetMapping("/users/{userId}/roles")
     ApiResponse<List<Object>> getUserRoles(@PathVariable Long userId);
+    
+    /**
+     * 获取用户的有效权限集合（启用的权限代码与角色代码）
+     */
+    @GetMapping("/users/{userId}/authorities")
+    ApiResponse<UserAuthorities> getUserAuthorities(@PathVariable Long userId);
+    
+    /**
+     * 批量检查用户的权限与角色，一次往返给出总体判定与逐项结果
+     */
+    @PostMapping("/users/{userId}/check-authorities")
+    ApiResponse<AuthorizationCheckResult> checkUserAuthorities(@PathVariable Long userId, @RequestBody AuthorizationCheckRequest request);
+    
+    /**
+     * 获取当前租户的权限字典（权限代码 -> 稠密ID）
+     */
+    @GetMapping("/dictionary")
+    ApiResponse<PermissionDictionary> getPermissionDictionary();
+    
+    /**
+     * 获取用户的访问令牌权限声明（有效权限位图与字典版本号）
+     */
+    @GetMapping("/users/{userId}/permission-claim")
+    ApiResponse<PermissionClaim> getUserPermissionClaim(@PathVariable Long userId);
 } 
\ No newline at end of file
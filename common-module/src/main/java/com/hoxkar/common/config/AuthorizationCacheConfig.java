@@ -0,0 +1,42 @@
+package com.hoxkar.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Authorization Cache Configuration
+/**
+ * Authorization cache configuration // 授权缓存配置
+ * L1 is an in-process cache of (tenant, user) -> effective authorities, L2 is an optional Redis cache shared by instances;
+ * entries are invalidated by permission change events, the TTLs only bound staleness when an event is lost
+ * // L1为进程内 (租户, 用户) -> 有效权限集合 的缓存，L2为实例间共享的可选Redis缓存；
+ * 条目由权限变更事件失效，TTL只用于限制事件丢失时的过期时长
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "authz.cache")
+public class AuthorizationCacheConfig {
+    /**
+     * Whether decisions are made from cached authorities; when disabled every check is one batch call to permission-service
+     * // 是否基于缓存的权限集合判定；关闭时每次检查为一次对permission-service的批量调用
+     */
+    private boolean enabled = true;
+    /**
+     * Maximum number of L1 entries // L1最大条目数
+     */
+    private long l1MaxSize = 10000;
+    /**
+     * L1 time to live after write // L1写入后存活时间
+     */
+    private Duration l1Ttl = Duration.ofMinutes(5);
+    /**
+     * Whether the Redis L2 is enabled // 是否启用Redis L2
+     */
+    private boolean l2Enabled = false;
+    /**
+     * L2 time to live // L2存活时间
+     */
+    private Duration l2Ttl = Duration.ofMinutes(30);
+}
@@ -1,9 +1,11 @@
 package com.hoxkar.common.config;
 
+import com.hoxkar.common.trace.RequestIdGenerator;
 import com.hoxkar.common.util.TenantContext;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
@@ -28,6 +30,9 @@ public class FeignRequestInterceptor implements RequestInterceptor {
                 log.debug("Feign request - Tenant ID: {}", tenantId);
             }
             
+            // 请求ID优先取MDC（包含本服务生成的ID，异步线程复制MDC后同样可用）
+            String requestId = MDC.get(RequestIdGenerator.MDC_KEY);
+            
             // 从当前请求中获取用户信息并传递
             ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
             if (attributes != null) {
@@ -45,16 +50,19 @@ public class FeignRequestInterceptor implements RequestInterceptor {
                     template.header("X-Username", username);
                 }
                 
-                // 传递请求ID
-                String requestId = request.getHeader("X-Request-ID");
-                if (requestId != null) {
-                    template.header("X-Request-ID", requestId);
+                if (requestId == null) {
+                    requestId = request.getHeader(RequestIdGenerator.HEADER);
                 }
                 
                 log.debug("Feign request - User ID: {}, Username: {}, Request ID: {}", 
                         userId, username, requestId);
             }
             
+            // 传递请求ID
+            if (requestId != null) {
+                template.header(RequestIdGenerator.HEADER, requestId);
+            }
+            
         } catch (Exception e) {
             log.warn("Failed to apply Feign request interceptor", e);
         }
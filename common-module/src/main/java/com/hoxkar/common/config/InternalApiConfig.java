@@ -0,0 +1,32 @@
+package com.hoxkar.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+// Internal API Configuration
+/**
+ * Service-to-service internal API configuration // 服务间内部接口配置
+ * Endpoints under /internal/** require the shared service credential in TOKEN_HEADER; the gateway never routes them
+ * and drops the header from client requests
+ * // /internal/** 下的接口须在TOKEN_HEADER中携带共享的服务凭证；网关不路由这些路径，且丢弃客户端传入的该请求头
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "internal.api")
+public class InternalApiConfig {
+    /**
+     * Header carrying the service credential // 携带服务凭证的请求头
+     */
+    public static final String TOKEN_HEADER = "X-Internal-Token";
+    /**
+     * Path pattern of internal endpoints // 内部接口的路径模式
+     */
+    public static final String PATH_PATTERN = "/internal/**";
+
+    /**
+     * Shared service credential; when empty every internal request is rejected
+     * // 共享的服务凭证；为空时拒绝所有内部请求
+     */
+    private String token;
+}
@@ -0,0 +1,48 @@
+package com.hoxkar.common.config;
+
+import com.hoxkar.common.policy.RoutePolicy;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Route Policy Configuration
+/**
+ * Route policy configuration // 路由策略配置
+ * Rules are added on top of the built-in defaults of RoutePolicyRegistry; the same pattern overrides the default
+ * // 规则叠加在RoutePolicyRegistry内置默认规则之上，相同模式覆盖默认规则
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "route-policy")
+public class RoutePolicyConfig {
+    /**
+     * Route policy rules // 路由策略规则
+     */
+    private List<Rule> rules = new ArrayList<>();
+
+    /**
+     * Route policy rule // 路由策略规则
+     */
+    @Data
+    public static class Rule {
+        /**
+         * Path pattern: exact path, "*" for one segment, trailing "/**" for a subtree // 路径模式：精确路径，"*"匹配单个路径段，末尾"/**"匹配整棵子树
+         */
+        private String pattern;
+        /**
+         * Access level // 访问级别
+         */
+        private RoutePolicy.Access access = RoutePolicy.Access.AUTHENTICATED;
+        /**
+         * Required permission codes // 需要的权限代码
+         */
+        private List<String> permissions = new ArrayList<>();
+        /**
+         * Rate limit class // 限流类别
+         */
+        private String rateLimitClass;
+    }
+}
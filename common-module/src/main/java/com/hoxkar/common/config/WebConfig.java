@@ -1,5 +1,6 @@
 package com.hoxkar.common.config;
 
+import com.hoxkar.common.interceptor.InternalApiInterceptor;
 import com.hoxkar.common.interceptor.PermissionInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
@@ -14,19 +15,15 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebConfig implements WebMvcConfigurer {
     
     private final PermissionInterceptor permissionInterceptor;
+    private final InternalApiInterceptor internalApiInterceptor;
     
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        // 注册权限验证拦截器
+        // 注册权限验证拦截器；公开路径由RoutePolicyRegistry统一判定，不再单独维护排除列表
         registry.addInterceptor(permissionInterceptor)
-                .addPathPatterns("/api/**")  // 拦截所有API请求
-                .excludePathPatterns(        // 排除不需要权限验证的路径
-                        "/api/auth/login",
-                        "/api/auth/refresh",
-                        "/api/auth/health",
-                        "/actuator/**",
-                        "/swagger-ui/**",
-                        "/v3/api-docs/**"
-                );
+                .addPathPatterns("/api/**");  // 拦截所有API请求
+        // 服务间内部接口须携带服务凭证
+        registry.addInterceptor(internalApiInterceptor)
+                .addPathPatterns(InternalApiConfig.PATH_PATTERN);
     }
 } 
\ No newline at end of file
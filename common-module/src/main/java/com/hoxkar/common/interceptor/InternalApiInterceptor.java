@@ -0,0 +1,48 @@
+package com.hoxkar.common.interceptor;
+
+import com.hoxkar.common.config.InternalApiConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+// Internal API Interceptor
+/**
+ * Internal API interceptor // 内部接口拦截器
+ * Rejects requests to /internal/** without the shared service credential; compared in constant time
+ * // 拒绝未携带共享服务凭证的 /internal/** 请求；凭证按常量时间比较
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InternalApiInterceptor implements HandlerInterceptor {
+    private final InternalApiConfig internalApiConfig;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (isValid(request.getHeader(InternalApiConfig.TOKEN_HEADER))) {
+            return true;
+        }
+        log.warn("Internal API request rejected: {} from {}", request.getRequestURI(), request.getRemoteAddr()); // 内部接口请求被拒绝
+        response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+        response.setContentType("application/json;charset=UTF-8");
+        response.getWriter().write(String.format(
+            "{\"code\":403,\"message\":\"Internal API credential required\",\"data\":null,\"timestamp\":%d}",
+            System.currentTimeMillis()
+        ));
+        return false;
+    }
+
+    private boolean isValid(String credential) {
+        String token = internalApiConfig.getToken();
+        if (token == null || token.isEmpty() || credential == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), credential.getBytes(StandardCharsets.UTF_8));
+    }
+}
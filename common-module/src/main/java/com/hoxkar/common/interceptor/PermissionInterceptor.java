@@ -1,10 +1,12 @@
 package com.hoxkar.common.interceptor;
 
-import com.hoxkar.common.annotation.RequiresPermission;
-import com.hoxkar.common.annotation.RequiresRole;
-import com.hoxkar.common.annotation.RequiresTenant;
+import com.hoxkar.common.authz.AuthorizationEvaluator;
+import com.hoxkar.common.authz.AuthorizationPolicy;
+import com.hoxkar.common.authz.AuthorizationPolicyRegistry;
 import com.hoxkar.common.exception.BusinessException;
-import com.hoxkar.common.util.TenantContext;
+import com.hoxkar.common.policy.RoutePolicy;
+import com.hoxkar.common.policy.RoutePolicyRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
@@ -12,7 +14,6 @@ import org.springframework.web.servlet.HandlerInterceptor;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.lang.reflect.Method;
 
 // Permission Validation Interceptor
 /**
@@ -21,31 +22,31 @@ import java.lang.reflect.Method;
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class PermissionInterceptor implements HandlerInterceptor {
+    private final RoutePolicyRegistry routePolicyRegistry;
+    private final AuthorizationPolicyRegistry authorizationPolicyRegistry;
+    private final AuthorizationEvaluator authorizationEvaluator;
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         // Only handle method handlers // 只处理方法处理器
         if (!(handler instanceof HandlerMethod)) {
             return true;
         }
+        // Public paths skip permission validation // 公开路径跳过权限验证
+        RoutePolicy policy = routePolicyRegistry.match(request.getRequestURI().substring(request.getContextPath().length()));
+        if (policy.isPublic()) {
+            return true;
+        }
+        // Compiled policy of the handler, no reflection per request // 处理器的已编译策略，请求时无反射
         HandlerMethod handlerMethod = (HandlerMethod) handler;
-        Method method = handlerMethod.getMethod();
+        AuthorizationPolicy handlerPolicy = authorizationPolicyRegistry.get(handlerMethod);
+        if (policy.getPermissions().isEmpty() && handlerPolicy.isEmpty()) {
+            return true;
+        }
         try {
-            // Check tenant annotation // 检查租户注解
-            RequiresTenant requiresTenant = method.getAnnotation(RequiresTenant.class);
-            if (requiresTenant != null) {
-                checkTenant(requiresTenant);
-            }
-            // Check permission annotation // 检查权限注解
-            RequiresPermission requiresPermission = method.getAnnotation(RequiresPermission.class);
-            if (requiresPermission != null) {
-                checkPermission(request, requiresPermission);
-            }
-            // Check role annotation // 检查角色注解
-            RequiresRole requiresRole = method.getAnnotation(RequiresRole.class);
-            if (requiresRole != null) {
-                checkRole(request, requiresRole);
-            }
+            // Route policy permissions and handler annotations are evaluated once, together // 路由策略权限与处理器注解一次性合并判定
+            authorizationEvaluator.authorize(request, policy.getPermissions(), handlerPolicy);
             return true;
         } catch (BusinessException e) {
             log.warn("Permission validation failed: {}", e.getMessage()); // 权限验证失败
@@ -67,26 +68,4 @@ public class PermissionInterceptor implements HandlerInterceptor {
             return false;
         }
     }
-    /**
-     * Check tenant context // 检查租户上下文
-     */
-    private void checkTenant(RequiresTenant requiresTenant) {
-        String tenantId = TenantContext.getTenantId();
-        if (requiresTenant.required() && (tenantId == null || tenantId.trim().isEmpty())) {
-            throw new BusinessException(requiresTenant.message());
-        }
-        log.debug("Tenant validation passed - Tenant: {}", tenantId); // 租户验证通过
-    }
-    /**
-     * Check permission // 检查权限
-     */
-    private void checkPermission(HttpServletRequest request, RequiresPermission requiresPermission) {
-        com.hoxkar.common.util.PermissionChecker.checkPermission(request, requiresPermission);
-    }
-    /**
-     * Check role // 检查角色
-     */
-    private void checkRole(HttpServletRequest request, RequiresRole requiresRole) {
-        com.hoxkar.common.util.PermissionChecker.checkRole(request, requiresRole);
-    }
-} 
\ No newline at end of file
+}
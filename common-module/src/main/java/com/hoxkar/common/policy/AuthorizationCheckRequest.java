@@ -0,0 +1,46 @@
+package com.hoxkar.common.policy;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Authorization Check Request
+/**
+ * Batch permission and role check request // 批量权限与角色检查请求
+ * AND requires every listed permission and role, OR requires any one of them
+ * // AND需要列出的全部权限与角色，OR需要其中任意一个
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorizationCheckRequest {
+    /**
+     * Permission codes to check // 待检查的权限代码
+     */
+    private List<String> permissions = new ArrayList<>();
+    /**
+     * Role codes to check // 待检查的角色代码
+     */
+    private List<String> roles = new ArrayList<>();
+    /**
+     * Combination logic // 组合逻辑
+     */
+    private Logic logic = Logic.OR;
+
+    /**
+     * Combination logic enum // 组合逻辑枚举
+     */
+    public enum Logic {
+        /**
+         * All codes required // 需要全部代码
+         */
+        AND,
+        /**
+         * Any code required // 需要任一代码
+         */
+        OR
+    }
+}
@@ -0,0 +1,79 @@
+package com.hoxkar.common.policy;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+// Authorization Check Result
+/**
+ * Batch permission and role check result // 批量权限与角色检查结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorizationCheckResult {
+    /**
+     * Overall decision // 总体判定
+     */
+    private boolean granted;
+    /**
+     * Permission code -> whether the user has it // 权限代码 -> 用户是否拥有
+     */
+    private Map<String, Boolean> permissionResults;
+    /**
+     * Role code -> whether the user has it // 角色代码 -> 用户是否拥有
+     */
+    private Map<String, Boolean> roleResults;
+
+    /**
+     * Evaluate a check request against the codes the user holds; shared by permission-service and the local cache path
+     * so both give the same decision // 根据用户持有的代码判定检查请求；permission-service与本地缓存路径共用，保证判定一致
+     */
+    public static AuthorizationCheckResult evaluate(AuthorizationCheckRequest request,
+                                                    Set<String> heldPermissions, Set<String> heldRoles) {
+        return evaluate(request, heldPermissions::contains, heldRoles::contains);
+    }
+
+    /**
+     * Evaluate a check request with membership tests, e.g. bit tests over a PermissionBitSet; a request listing no
+     * codes is denied under either logic // 以成员判断函数判定检查请求，如基于PermissionBitSet的位测试；未列出任何代码的请求在两种逻辑下均拒绝
+     */
+    public static AuthorizationCheckResult evaluate(AuthorizationCheckRequest request,
+                                                    Predicate<String> hasPermission, Predicate<String> hasRole) {
+        Map<String, Boolean> permissionResults = check(request.getPermissions(), hasPermission);
+        Map<String, Boolean> roleResults = check(request.getRoles(), hasRole);
+        boolean granted;
+        if (permissionResults.isEmpty() && roleResults.isEmpty()) {
+            granted = false;
+        } else if (request.getLogic() == AuthorizationCheckRequest.Logic.AND) {
+            granted = !permissionResults.containsValue(false) && !roleResults.containsValue(false);
+        } else {
+            granted = permissionResults.containsValue(true) || roleResults.containsValue(true);
+        }
+        return new AuthorizationCheckResult(granted, permissionResults, roleResults);
+    }
+
+    /**
+     * Whether a check request lists no permission or role codes // 检查请求是否未列出任何权限或角色代码
+     */
+    public static boolean isEmpty(AuthorizationCheckRequest request) {
+        return (request.getPermissions() == null || request.getPermissions().isEmpty())
+                && (request.getRoles() == null || request.getRoles().isEmpty());
+    }
+
+    private static Map<String, Boolean> check(List<String> codes, Predicate<String> held) {
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        if (codes != null) {
+            for (String code : codes) {
+                results.put(code, held.test(code));
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,179 @@
+package com.hoxkar.common.policy;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.stream.IntStream;
+
+// Permission Bit Set
+/**
+ * Immutable bitmap of dense permission IDs assigned by a PermissionDictionary // 由PermissionDictionary分配的稠密权限ID位图，不可变
+ * A check is a single bit test and a user's effective set is the OR of the role bitmaps; serialized as URL-safe base64
+ * of the little-endian words with trailing zero bytes trimmed
+ * // 检查为一次位测试，用户的有效权限集合为角色位图的按位或；序列化为去掉末尾零字节的小端字序列的URL安全base64
+ */
+public final class PermissionBitSet {
+    /**
+     * Empty bitmap // 空位图
+     */
+    public static final PermissionBitSet EMPTY = new PermissionBitSet(new long[0]);
+
+    private final long[] words;
+
+    private PermissionBitSet(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Bitmap of the given IDs, negative IDs are ignored // 由给定ID构建位图，忽略负数ID
+     */
+    public static PermissionBitSet of(Collection<Integer> ids) {
+        int max = -1;
+        for (Integer id : ids) {
+            if (id != null && id > max) {
+                max = id;
+            }
+        }
+        if (max < 0) {
+            return EMPTY;
+        }
+        long[] words = new long[(max >> 6) + 1];
+        for (Integer id : ids) {
+            if (id != null && id >= 0) {
+                words[id >> 6] |= 1L << id;
+            }
+        }
+        return new PermissionBitSet(words);
+    }
+
+    /**
+     * Whether the ID is set // 是否包含该ID
+     */
+    public boolean contains(int id) {
+        int index = id >> 6;
+        return id >= 0 && index < words.length && (words[index] & (1L << id)) != 0;
+    }
+
+    /**
+     * Union of two bitmaps // 两个位图的并集
+     */
+    public PermissionBitSet or(PermissionBitSet other) {
+        if (other.words.length == 0) {
+            return this;
+        }
+        if (words.length == 0) {
+            return other;
+        }
+        long[] longer = words.length >= other.words.length ? words : other.words;
+        long[] shorter = longer == words ? other.words : words;
+        long[] result = longer.clone();
+        for (int i = 0; i < shorter.length; i++) {
+            result[i] |= shorter[i];
+        }
+        return new PermissionBitSet(result);
+    }
+
+    /**
+     * Whether every ID of the other bitmap is set // 是否包含另一个位图的全部ID
+     */
+    public boolean containsAll(PermissionBitSet other) {
+        for (int i = 0; i < other.words.length; i++) {
+            long word = i < words.length ? words[i] : 0L;
+            if ((other.words[i] & ~word) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether any ID of the other bitmap is set // 是否包含另一个位图的任一ID
+     */
+    public boolean intersects(PermissionBitSet other) {
+        int length = Math.min(words.length, other.words.length);
+        for (int i = 0; i < length; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of IDs set // 已设置的ID数量
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * IDs set, ascending // 已设置的ID，升序
+     */
+    public IntStream ids() {
+        return IntStream.range(0, words.length << 6).filter(this::contains);
+    }
+
+    /**
+     * Encode as URL-safe base64 without padding // 编码为无填充的URL安全base64
+     */
+    @JsonValue
+    public String toBase64() {
+        byte[] bytes = new byte[words.length << 3];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[i >> 3] >>> ((i & 7) << 3));
+        }
+        int length = bytes.length;
+        while (length > 0 && bytes[length - 1] == 0) {
+            length--;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(bytes, length));
+    }
+
+    /**
+     * Decode from toBase64 output // 从toBase64的输出解码
+     */
+    @JsonCreator
+    public static PermissionBitSet fromBase64(String value) {
+        if (value == null || value.isEmpty()) {
+            return EMPTY;
+        }
+        byte[] bytes = Base64.getUrlDecoder().decode(value);
+        long[] words = new long[(bytes.length + 7) >> 3];
+        for (int i = 0; i < bytes.length; i++) {
+            words[i >> 3] |= (bytes[i] & 0xFFL) << ((i & 7) << 3);
+        }
+        return new PermissionBitSet(words);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PermissionBitSet other)) {
+            return false;
+        }
+        return containsAll(other) && other.containsAll(this);
+    }
+
+    @Override
+    public int hashCode() {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.hashCode(Arrays.copyOf(words, length));
+    }
+
+    @Override
+    public String toString() {
+        return "PermissionBitSet" + Arrays.toString(ids().toArray());
+    }
+}
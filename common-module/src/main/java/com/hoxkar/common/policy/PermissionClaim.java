@@ -0,0 +1,52 @@
+package com.hoxkar.common.policy;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Permission Claim
+/**
+ * Effective permissions of a user carried by the access token // 访问令牌携带的用户有效权限
+ * The bitmap is only meaningful with the tenant dictionary of the same version; services decide locally while the
+ * version matches and fall back to a remote check once the tenant has changed
+ * // 位图只能与同版本的租户字典一起解释；版本一致时各服务本地判定，租户变更后回退到远程检查
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PermissionClaim {
+    /**
+     * JWT claim of the permission bitmap (PermissionBitSet base64) // 权限位图的JWT声明（PermissionBitSet的base64）
+     */
+    public static final String BITS_CLAIM = "perms";
+    /**
+     * JWT claim of the dictionary version // 字典版本号的JWT声明
+     */
+    public static final String VERSION_CLAIM = "pv";
+    /**
+     * JWT claim referencing a bitmap too large for the token, stored in Redis under REFERENCE_KEY_PREFIX
+     * // 引用过大位图的JWT声明，位图存储在Redis的REFERENCE_KEY_PREFIX键下
+     */
+    public static final String REFERENCE_CLAIM = "pref";
+    /**
+     * Redis key prefix of referenced bitmaps // 被引用位图的Redis键前缀
+     */
+    public static final String REFERENCE_KEY_PREFIX = "authz:token-permissions:";
+    /**
+     * Headers forwarding the claims from the gateway; the gateway's EdgeGuardFilter strips client-supplied values on
+     * every route and JwtAuthenticationFilter sets them only from a verified token
+     * // 网关转发声明的请求头；网关的EdgeGuardFilter在所有路由上丢弃客户端传入的值，JwtAuthenticationFilter只根据已验证的令牌设置
+     */
+    public static final String BITS_HEADER = "X-Token-Permissions";
+    public static final String VERSION_HEADER = "X-Token-Permission-Version";
+    public static final String REFERENCE_HEADER = "X-Token-Permission-Ref";
+
+    /**
+     * Dictionary version, equal to the tenant snapshot version // 字典版本号，等于租户快照版本号
+     */
+    private long version;
+    /**
+     * Effective permission bitmap over the dictionary // 基于字典的有效权限位图
+     */
+    private PermissionBitSet permissions;
+}
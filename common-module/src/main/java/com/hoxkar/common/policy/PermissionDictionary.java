@@ -0,0 +1,90 @@
+package com.hoxkar.common.policy;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Permission Dictionary
+/**
+ * Versioned per-tenant dictionary of permission codes to dense IDs // 租户权限代码到稠密ID的版本化字典
+ * The ID of a code is its index in codes; the version is the tenant snapshot version, so a PermissionBitSet is only
+ * meaningful together with the dictionary of the same version and both can be cached until the version changes
+ * // 代码的ID为其在codes中的下标；版本号即租户快照版本号，PermissionBitSet只能与同版本的字典一起解释，二者均可缓存到版本变化
+ */
+@Getter
+public class PermissionDictionary {
+    /**
+     * Tenant ID // 租户ID
+     */
+    private final Long tenantId;
+    /**
+     * Dictionary version, equal to the tenant snapshot version // 字典版本号，等于租户快照版本号
+     */
+    private final long version;
+    /**
+     * Permission codes, the index is the dense ID // 权限代码，下标即稠密ID
+     */
+    private final List<String> codes;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Integer> ids;
+
+    @JsonCreator
+    public PermissionDictionary(@JsonProperty("tenantId") Long tenantId,
+                                @JsonProperty("version") long version,
+                                @JsonProperty("codes") List<String> codes) {
+        this.tenantId = tenantId;
+        this.version = version;
+        this.codes = codes != null ? List.copyOf(codes) : List.of();
+        Map<String, Integer> ids = new HashMap<>();
+        for (int i = 0; i < this.codes.size(); i++) {
+            ids.putIfAbsent(this.codes.get(i), i);
+        }
+        this.ids = Map.copyOf(ids);
+    }
+
+    /**
+     * Dense ID of a code, -1 if unknown // 代码的稠密ID，未知时为-1
+     */
+    public int idOf(String code) {
+        Integer id = ids.get(code);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Whether the bitmap contains the code // 位图是否包含该代码
+     */
+    public boolean contains(PermissionBitSet bits, String code) {
+        return bits.contains(idOf(code));
+    }
+
+    /**
+     * Encode codes as a bitmap, unknown codes are ignored // 将代码编码为位图，忽略未知代码
+     */
+    public PermissionBitSet encode(Collection<String> codes) {
+        List<Integer> encoded = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            encoded.add(idOf(code));
+        }
+        return PermissionBitSet.of(encoded);
+    }
+
+    /**
+     * Decode a bitmap into codes // 将位图解码为代码
+     */
+    public Set<String> decode(PermissionBitSet bits) {
+        return bits.ids()
+                .filter(id -> id < codes.size())
+                .mapToObj(codes::get)
+                .collect(Collectors.toSet());
+    }
+}
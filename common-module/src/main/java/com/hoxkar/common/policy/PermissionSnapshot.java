@@ -0,0 +1,59 @@
+package com.hoxkar.common.policy;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+// Permission Snapshot
+/**
+ * Per-tenant permission snapshot // 租户权限快照
+ * Published by permission-service and kept in memory by the gateway for route-level authorization;
+ * only ACTIVE roles and permissions are included
+ * // 由permission-service发布、网关常驻内存用于路由级授权；只包含ACTIVE状态的角色与权限
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PermissionSnapshot {
+    /**
+     * Redis pub/sub channel of permission change events, message format: tenantId:version
+     * // 权限变更事件的Redis pub/sub频道，消息格式：租户ID:版本号
+     */
+    public static final String CHANGE_CHANNEL = "permission:snapshot:changed";
+    /**
+     * Redis key prefix of the per-tenant snapshot version counter, seeded with the Redis time in microseconds when
+     * missing so that versions are never reused after the key is lost
+     * // 租户快照版本计数器的Redis键前缀，缺失时以Redis时间的微秒数为起点，键丢失后版本号也不会重复
+     */
+    public static final String VERSION_KEY_PREFIX = "permission:snapshot:version:";
+    /**
+     * Header carrying the route permissions already verified by the gateway, comma separated;
+     * the gateway always strips the client-supplied value
+     * // 携带网关已验证的路由权限的请求头，逗号分隔；网关总是丢弃客户端传入的值
+     */
+    public static final String VERIFIED_PERMISSIONS_HEADER = "X-Verified-Permissions";
+
+    /**
+     * Tenant ID // 租户ID
+     */
+    private Long tenantId;
+    /**
+     * Snapshot version, increases with every change of the tenant // 快照版本号，租户每次变更递增
+     */
+    private long version;
+    /**
+     * Dictionary of the active permission codes, same version as the snapshot // 启用权限代码的字典，版本与快照相同
+     */
+    private PermissionDictionary dictionary;
+    /**
+     * Role code -> permission bitmap over the dictionary // 角色代码 -> 基于字典的权限位图
+     */
+    private Map<String, PermissionBitSet> rolePermissions;
+    /**
+     * User ID -> role codes // 用户ID -> 角色代码
+     */
+    private Map<Long, List<String>> userRoles;
+}
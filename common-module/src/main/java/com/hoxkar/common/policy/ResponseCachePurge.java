@@ -0,0 +1,28 @@
+package com.hoxkar.common.policy;
+
+// Response Cache Purge
+/**
+ * Purge events of the gateway response cache // 网关响应缓存的清除事件
+ * Services publish to the channel after committing a change that cached GET responses depend on; every gateway node
+ * drops the matching entries // 各服务提交影响已缓存GET响应的变更后发布到该频道，所有网关节点清除匹配的条目
+ */
+public final class ResponseCachePurge {
+    /**
+     * Redis pub/sub channel, message format: routeId:tenantId // Redis pub/sub频道，消息格式：路由ID:租户ID
+     */
+    public static final String CHANNEL = "gateway:response-cache:purge";
+    /**
+     * Wildcard matching every route or tenant // 匹配全部路由或租户的通配符
+     */
+    public static final String ANY = "*";
+
+    private ResponseCachePurge() {
+    }
+
+    /**
+     * Build a purge message, a null part matches everything // 构造清除消息，为null的部分匹配全部
+     */
+    public static String message(String routeId, String tenantId) {
+        return (routeId != null ? routeId : ANY) + ":" + (tenantId != null ? tenantId : ANY);
+    }
+}
@@ -0,0 +1,61 @@
+package com.hoxkar.common.policy;
+
+import lombok.Getter;
+
+import java.util.List;
+
+// Route Policy
+/**
+ * Route policy // 路由策略
+ * Immutable access policy of a path, shared by the gateway filter chain and servlet interceptors // 路径的不可变访问策略，网关过滤器链与服务端拦截器共用
+ */
+@Getter
+public class RoutePolicy {
+    /**
+     * Policy for paths without an explicit rule: authentication required, no extra permission // 未配置规则的路径：需要认证，无额外权限要求
+     */
+    public static final RoutePolicy AUTHENTICATED = new RoutePolicy(Access.AUTHENTICATED, List.of(), null);
+    /**
+     * Public policy // 公开访问策略
+     */
+    public static final RoutePolicy PUBLIC = new RoutePolicy(Access.PUBLIC, List.of(), null);
+    /**
+     * Access level // 访问级别
+     */
+    private final Access access;
+    /**
+     * Required permission codes (all required) // 需要的权限代码（需全部满足）
+     */
+    private final List<String> permissions;
+    /**
+     * Rate limit class, e.g. batch / upload / search; null for ordinary requests // 限流类别，如 batch / upload / search；普通请求为null
+     */
+    private final String rateLimitClass;
+
+    public RoutePolicy(Access access, List<String> permissions, String rateLimitClass) {
+        this.access = access;
+        this.permissions = permissions != null ? List.copyOf(permissions) : List.of();
+        this.rateLimitClass = rateLimitClass;
+    }
+
+    /**
+     * Whether the path is public // 是否公开路径
+     */
+    public boolean isPublic() {
+        return access == Access.PUBLIC;
+    }
+
+    /**
+     * Access level enum // 访问级别枚举
+     */
+    public enum Access {
+        /**
+         * No authentication required // 无需认证
+         */
+        PUBLIC,
+        /**
+         * Authentication required // 需要认证
+         */
+        AUTHENTICATED
+    }
+}
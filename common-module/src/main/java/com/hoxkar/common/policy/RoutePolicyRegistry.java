@@ -0,0 +1,176 @@
+package com.hoxkar.common.policy;
+
+import com.hoxkar.common.config.RoutePolicyConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Route Policy Registry
+/**
+ * Route policy registry // 路由策略注册表
+ * Compiles all rules into a character prefix tree once at startup; a lookup walks the path once,
+ * costs O(path length) and allocates nothing
+ * // 启动时把所有规则编译为字符前缀树；查找只遍历一次路径，复杂度O(路径长度)，不产生任何分配
+ * Match priority: literal > "*" segment > deeper "/**" > shallower "/**" // 匹配优先级：字面量 > "*"路径段 > 较深的"/**" > 较浅的"/**"
+ */
+@Slf4j
+@Component
+public class RoutePolicyRegistry {
+    /**
+     * Built-in public paths, the single list previously duplicated in the gateway and WebConfig
+     * // 内置公开路径，原先分别维护在网关与WebConfig中
+     */
+    private static final List<String> DEFAULT_PUBLIC_PATTERNS = List.of(
+        "/api/auth/login",
+        "/api/auth/refresh",
+        "/api/auth/health",
+        "/api/gateway/health",
+        "/api/gateway/info",
+        "/actuator/health/**",
+        "/actuator/info",
+        "/swagger-ui/**",
+        "/swagger-ui.html",
+        "/v3/api-docs/**"
+    );
+
+    private static final String SUBTREE_SUFFIX = "/**";
+    private static final String SEGMENT_WILDCARD = "*";
+
+    private final Node root = new Node();
+
+    public RoutePolicyRegistry(RoutePolicyConfig config) {
+        for (String pattern : DEFAULT_PUBLIC_PATTERNS) {
+            register(pattern, RoutePolicy.PUBLIC);
+        }
+        for (RoutePolicyConfig.Rule rule : config.getRules()) {
+            if (rule.getPattern() == null || rule.getPattern().isBlank()) {
+                continue;
+            }
+            register(rule.getPattern().trim(),
+                new RoutePolicy(rule.getAccess(), rule.getPermissions(), rule.getRateLimitClass()));
+        }
+        log.info("Route policy registry compiled with {} default and {} configured rules",
+            DEFAULT_PUBLIC_PATTERNS.size(), config.getRules().size());
+    }
+
+    /**
+     * Find the policy of a path // 查找路径对应的策略
+     * @param path Request path without query string // 不含查询串的请求路径
+     * @return Matched policy, RoutePolicy.AUTHENTICATED if none // 匹配的策略，未匹配时返回RoutePolicy.AUTHENTICATED
+     */
+    public RoutePolicy match(String path) {
+        if (path == null || path.isEmpty()) {
+            return RoutePolicy.AUTHENTICATED;
+        }
+        RoutePolicy policy = match(root, path, 0);
+        return policy != null ? policy : RoutePolicy.AUTHENTICATED;
+    }
+
+    /**
+     * Register a rule; a later rule with the same pattern replaces the earlier one // 注册规则，相同模式的后注册规则覆盖先前规则
+     */
+    private void register(String pattern, RoutePolicy policy) {
+        boolean subtree = pattern.endsWith(SUBTREE_SUFFIX);
+        String body = subtree ? pattern.substring(0, pattern.length() - SUBTREE_SUFFIX.length()) : pattern;
+        Node node = root;
+        int i = 0;
+        while (i < body.length()) {
+            char c = body.charAt(i);
+            if (c == '*' && i > 0 && body.charAt(i - 1) == '/') {
+                int end = segmentEnd(body, i);
+                if (!SEGMENT_WILDCARD.equals(body.substring(i, end))) {
+                    throw new IllegalArgumentException("Unsupported route policy pattern: " + pattern);
+                }
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+                i = end;
+                continue;
+            }
+            node = node.childOrCreate(c);
+            i++;
+        }
+        if (subtree) {
+            node.subtree = policy;
+        } else {
+            node.exact = policy;
+        }
+    }
+
+    /**
+     * Recursive only at "*" branches, so the depth is bounded by the number of path segments // 仅在"*"分支处递归，深度不超过路径段数
+     */
+    private static RoutePolicy match(Node node, String path, int i) {
+        RoutePolicy fallback = null;
+        int length = path.length();
+        while (true) {
+            if (i == length) {
+                if (node.exact != null) {
+                    return node.exact;
+                }
+                return node.subtree != null ? node.subtree : fallback;
+            }
+            char c = path.charAt(i);
+            if (c == '/' && node.subtree != null) {
+                fallback = node.subtree;
+            }
+            Node next = node.child(c);
+            if (node.wildcard != null) {
+                RoutePolicy literal = next != null ? match(next, path, i + 1) : null;
+                if (literal != null) {
+                    return literal;
+                }
+                int end = segmentEnd(path, i);
+                RoutePolicy wildcard = end > i ? match(node.wildcard, path, end) : null;
+                return wildcard != null ? wildcard : fallback;
+            }
+            if (next == null) {
+                return fallback;
+            }
+            node = next;
+            i++;
+        }
+    }
+
+    private static int segmentEnd(String path, int start) {
+        int end = path.indexOf('/', start);
+        return end < 0 ? path.length() : end;
+    }
+
+    /**
+     * Prefix tree node; children are kept in small parallel arrays scanned linearly // 前缀树节点，子节点保存在线性扫描的小数组中
+     */
+    private static final class Node {
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private Node wildcard;
+        private RoutePolicy exact;
+        private RoutePolicy subtree;
+
+        Node child(char c) {
+            char[] l = labels;
+            for (int i = 0; i < l.length; i++) {
+                if (l[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node childOrCreate(char c) {
+            Node existing = child(c);
+            if (existing != null) {
+                return existing;
+            }
+            Node created = new Node();
+            labels = Arrays.copyOf(labels, labels.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            labels[labels.length - 1] = c;
+            children[children.length - 1] = created;
+            return created;
+        }
+    }
+}
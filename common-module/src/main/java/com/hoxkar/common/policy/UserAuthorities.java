@@ -0,0 +1,41 @@
+package com.hoxkar.common.policy;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+// User Authorities
+/**
+ * Effective authorities of a user within a tenant // 用户在租户内的有效权限集合
+ * Built by permission-service and cached by services for method-level authorization;
+ * only ACTIVE roles and permissions are included
+ * // 由permission-service构建、各服务缓存用于方法级授权；只包含ACTIVE状态的角色与权限
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserAuthorities {
+    /**
+     * Tenant ID // 租户ID
+     */
+    private Long tenantId;
+    /**
+     * User ID // 用户ID
+     */
+    private Long userId;
+    /**
+     * Tenant snapshot version the authorities were read at, see PermissionSnapshot#VERSION_KEY_PREFIX
+     * // 读取时的租户快照版本号，见PermissionSnapshot#VERSION_KEY_PREFIX
+     */
+    private long version;
+    /**
+     * Permission codes // 权限代码
+     */
+    private Set<String> permissions;
+    /**
+     * Role codes // 角色代码
+     */
+    private Set<String> roles;
+}
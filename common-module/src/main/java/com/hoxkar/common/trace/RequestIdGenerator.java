@@ -0,0 +1,22 @@
+package com.hoxkar.common.trace;
+
+// Request ID Generator
+/**
+ * Request ID generator // 请求ID生成器
+ * Provide a @Primary bean to replace the default snowflake implementation // 提供@Primary Bean即可替换默认的雪花算法实现
+ */
+public interface RequestIdGenerator {
+    /**
+     * Request header carrying the request ID // 传递请求ID的请求头
+     */
+    String HEADER = "X-Request-ID";
+    /**
+     * MDC key of the request ID // 请求ID的MDC键
+     */
+    String MDC_KEY = "requestId";
+
+    /**
+     * Generate the next request ID // 生成下一个请求ID
+     */
+    String nextId();
+}
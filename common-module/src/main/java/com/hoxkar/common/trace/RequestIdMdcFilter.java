@@ -0,0 +1,44 @@
+package com.hoxkar.common.trace;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Request ID MDC Filter
+/**
+ * Request ID MDC filter // 请求ID MDC过滤器
+ * Puts the request ID forwarded by the gateway (or a new one) into the MDC for the whole request, so every log line
+ * of a servlet service can be correlated; FeignRequestInterceptor forwards it downstream
+ * // 把网关传入的请求ID（缺失时新生成）放入MDC，覆盖整个请求，使服务的每行日志都可关联；FeignRequestInterceptor负责向下游传递
+ */
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestIdMdcFilter extends OncePerRequestFilter {
+    private final RequestIdGenerator requestIdGenerator;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(RequestIdGenerator.HEADER);
+        if (requestId == null || requestId.isEmpty()) {
+            requestId = requestIdGenerator.nextId();
+        }
+        MDC.put(RequestIdGenerator.MDC_KEY, requestId);
+        response.setHeader(RequestIdGenerator.HEADER, requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(RequestIdGenerator.MDC_KEY);
+        }
+    }
+}
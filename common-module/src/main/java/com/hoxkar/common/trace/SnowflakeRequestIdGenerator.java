@@ -0,0 +1,82 @@
+package com.hoxkar.common.trace;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Snowflake Request ID Generator
+/**
+ * Snowflake-style request ID generator // 雪花算法请求ID生成器
+ * 41-bit milliseconds since 2024-01-01 | 10-bit node ID | 12-bit sequence, encoded as 13 Crockford base32 chars,
+ * so IDs sort by time and are monotonic per node. Generation is one CAS on an AtomicLong, with no SecureRandom
+ * // 41位毫秒时间戳（自2024-01-01起）| 10位节点ID | 12位序列号，编码为13位Crockford base32字符，按时间有序且单节点单调递增；
+ * 生成只需一次AtomicLong CAS，不使用SecureRandom
+ */
+@Slf4j
+@Component
+public class SnowflakeRequestIdGenerator implements RequestIdGenerator {
+    private static final long EPOCH = 1704067200000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long nodeId;
+    /**
+     * (timestamp << SEQUENCE_BITS) | sequence of the last issued ID // 最近一次发放ID的 (时间戳 << 序列位数) | 序列号
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * @param configuredNodeId Explicit node ID, negative to derive from the Eureka instance // 显式节点ID，为负数时由Eureka实例信息推导
+     * @param instanceId Eureka instance ID // Eureka实例ID
+     * @param ipAddress Local IP address resolved by Spring Cloud // Spring Cloud解析的本机IP
+     */
+    public SnowflakeRequestIdGenerator(@Value("${request-id.node-id:-1}") long configuredNodeId,
+                                       @Value("${eureka.instance.instance-id:${spring.application.name:application}}") String instanceId,
+                                       @Value("${spring.cloud.client.ip-address:}") String ipAddress) {
+        if (configuredNodeId >= 0) {
+            this.nodeId = configuredNodeId & MAX_NODE_ID;
+        } else {
+            this.nodeId = Math.floorMod((instanceId + "@" + ipAddress).hashCode(), (int) MAX_NODE_ID + 1);
+        }
+        log.info("Request ID generator node ID: {} (instance: {}, ip: {})", nodeId, instanceId, ipAddress);
+    }
+
+    @Override
+    public String nextId() {
+        return encode(nextLong());
+    }
+
+    /**
+     * Generate the next numeric ID // 生成下一个数值ID
+     */
+    public long nextLong() {
+        while (true) {
+            long current = state.get();
+            long now = System.currentTimeMillis() - EPOCH;
+            // New millisecond resets the sequence; within the same millisecond (or if the clock moves back) the
+            // sequence increments and overflow carries into the timestamp, keeping IDs monotonic
+            // 进入新的毫秒时序列号归零；同一毫秒内（或时钟回拨时）序列号递增，溢出时进位到时间戳，保证单调
+            long next = now > (current >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : current + 1;
+            if (state.compareAndSet(current, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                long sequence = next & SEQUENCE_MASK;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+            }
+        }
+    }
+
+    private static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
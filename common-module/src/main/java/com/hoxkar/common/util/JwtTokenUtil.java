@@ -1,18 +1,29 @@
 package com.hoxkar.common.util;
 
+import com.hoxkar.common.policy.PermissionBitSet;
+import com.hoxkar.common.policy.PermissionClaim;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -32,18 +43,73 @@ public class JwtTokenUtil {
     @Value("${jwt.refresh-expiration}")
     private Long refreshExpiration;
     
+    /**
+     * 令牌内权限位图的最大长度（base64字符数），超过时改为引用声明
+     */
+    @Value("${jwt.permission-claim.max-length:512}")
+    private int permissionClaimMaxLength;
+    
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
     
-    private static final String TOKEN_BLACKLIST_PREFIX = "token_blacklist:";
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+    
+    /**
+     * 黑名单键前缀，键格式为 token_blacklist:{吊销ID}，值为令牌过期时间（毫秒时间戳）
+     */
+    public static final String TOKEN_BLACKLIST_PREFIX = "token_blacklist:";
+    
+    /**
+     * 吊销事件频道，消息格式为 {吊销ID}:{过期时间毫秒}，过期时间为0表示撤销吊销
+     */
+    public static final String TOKEN_REVOCATION_CHANNEL = "token_revocations";
+    
+    /**
+     * JWT声明：用户数值ID，网关据此设置X-User-ID请求头（subject为用户名）
+     */
+    public static final String USER_ID_CLAIM = "userId";
+    
     private static final String REFRESH_TOKEN_PREFIX = "refresh_token:";
     
+    /**
+     * 签名密钥与解析器只依赖secret，启动时构建一次即可复用（二者均线程安全）
+     */
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+    
     /**
      * 生成JWT Token
      */
     public String generateToken(UserDetails userDetails, String tenantId) {
+        return generateToken(userDetails, tenantId, null, null);
+    }
+    
+    /**
+     * 生成携带用户ID与权限声明的JWT Token
+     * 权限位图不超过长度上限时直接写入令牌，各服务在字典版本一致时无需调用权限服务即可判定；
+     * 超过上限时位图存入Redis（与令牌同TTL），令牌只携带引用，避免令牌大小随权限数量增长
+     *
+     * @param userId 用户数值ID，null表示不携带
+     * @param permissionClaim 用户的权限声明，null表示不携带
+     */
+    public String generateToken(UserDetails userDetails, String tenantId, Long userId, PermissionClaim permissionClaim) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("tenantId", tenantId);
+        if (userId != null) {
+            claims.put(USER_ID_CLAIM, userId);
+        }
+        if (permissionClaim != null) {
+            putPermissionClaim(claims, permissionClaim);
+        }
         return createToken(claims, userDetails.getUsername(), expiration);
     }
     
@@ -57,18 +123,44 @@ public class JwtTokenUtil {
         return createToken(claims, userDetails.getUsername(), refreshExpiration);
     }
     
+    /**
+     * 写入权限声明，过大的位图改为引用；Redis不可用或版本号未确认时不携带权限声明，由各服务远程判定
+     */
+    private void putPermissionClaim(Map<String, Object> claims, PermissionClaim permissionClaim) {
+        if (permissionClaim.getVersion() < 0) {
+            // 版本号未确认（permission-service读取版本失败）的位图无法与字典对应，不写入令牌
+            return;
+        }
+        PermissionBitSet permissions = permissionClaim.getPermissions() != null
+                ? permissionClaim.getPermissions() : PermissionBitSet.EMPTY;
+        String bits = permissions.toBase64();
+        if (bits.length() <= permissionClaimMaxLength) {
+            claims.put(PermissionClaim.BITS_CLAIM, bits);
+        } else {
+            String reference = newTokenId();
+            try {
+                stringRedisTemplate.opsForValue().set(PermissionClaim.REFERENCE_KEY_PREFIX + reference, bits,
+                        expiration, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                log.warn("存储令牌权限位图失败，令牌不携带权限声明: {}", e.getMessage());
+                return;
+            }
+            claims.put(PermissionClaim.REFERENCE_CLAIM, reference);
+        }
+        claims.put(PermissionClaim.VERSION_CLAIM, permissionClaim.getVersion());
+    }
+    
     /**
      * 创建Token
      */
     private String createToken(Map<String, Object> claims, String subject, long expiration) {
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes());
-        
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(newTokenId())
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(key, SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
@@ -105,13 +197,7 @@ public class JwtTokenUtil {
      * 从Token中提取所有声明
      */
     private Claims extractAllClaims(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes());
-        
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
     
     /**
@@ -153,18 +239,13 @@ public class JwtTokenUtil {
     }
     
     /**
-     * 解析Token（不验证签名，用于调试）
+     * 解析Token（验证签名与过期时间，一次解析即可获取全部声明）
      */
     public Claims parseToken(String token) {
         try {
-            SecretKey key = Keys.hmacShaKeyFor(secret.getBytes());
-            return Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (JwtException e) {
-            log.error("Token解析失败: {}", e.getMessage());
+            log.debug("Token解析失败: {}", e.getMessage());
             throw e;
         }
     }
@@ -181,13 +262,42 @@ public class JwtTokenUtil {
         }
     }
     
+    /**
+     * 获取Token的吊销ID
+     * 优先使用jti；没有jti的旧令牌使用令牌SHA-256摘要的前16字节，保证黑名单键长度固定
+     */
+    public String getRevocationId(String token) {
+        Claims claims;
+        try {
+            claims = extractAllClaims(token);
+        } catch (ExpiredJwtException e) {
+            claims = e.getClaims();
+        }
+        return getRevocationId(claims, token);
+    }
+    
+    /**
+     * 根据已解析的声明获取Token的吊销ID
+     */
+    public String getRevocationId(Claims claims, String token) {
+        if (claims != null && claims.getId() != null && !claims.getId().isEmpty()) {
+            return claims.getId();
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
     /**
      * 检查Token是否在黑名单中
      */
     public Boolean isTokenBlacklisted(String token) {
         try {
-            String blacklistKey = TOKEN_BLACKLIST_PREFIX + token;
-            return Boolean.TRUE.equals(redisTemplate.hasKey(blacklistKey));
+            String blacklistKey = TOKEN_BLACKLIST_PREFIX + getRevocationId(token);
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(blacklistKey));
         } catch (Exception e) {
             log.error("检查Token黑名单失败: {}", e.getMessage());
             return false;
@@ -195,16 +305,19 @@ public class JwtTokenUtil {
     }
     
     /**
-     * 将Token加入黑名单
+     * 将Token加入黑名单，并通过pub/sub通知各网关节点
      */
     public void addToBlacklist(String token) {
         try {
-            String blacklistKey = TOKEN_BLACKLIST_PREFIX + token;
-            Date expiration = extractExpiration(token);
-            long ttl = Math.max(0, expiration.getTime() - System.currentTimeMillis());
+            Claims claims = extractAllClaims(token);
+            String revocationId = getRevocationId(claims, token);
+            long expiresAt = claims.getExpiration().getTime();
+            long ttl = Math.max(0, expiresAt - System.currentTimeMillis());
             
             if (ttl > 0) {
-                redisTemplate.opsForValue().set(blacklistKey, "blacklisted", ttl, TimeUnit.MILLISECONDS);
+                stringRedisTemplate.opsForValue().set(TOKEN_BLACKLIST_PREFIX + revocationId,
+                        String.valueOf(expiresAt), ttl, TimeUnit.MILLISECONDS);
+                stringRedisTemplate.convertAndSend(TOKEN_REVOCATION_CHANNEL, revocationId + ":" + expiresAt);
                 log.debug("Token已加入黑名单，TTL: {}ms", ttl);
             }
         } catch (Exception e) {
@@ -217,8 +330,9 @@ public class JwtTokenUtil {
      */
     public void removeFromBlacklist(String token) {
         try {
-            String blacklistKey = TOKEN_BLACKLIST_PREFIX + token;
-            redisTemplate.delete(blacklistKey);
+            String revocationId = getRevocationId(token);
+            stringRedisTemplate.delete(TOKEN_BLACKLIST_PREFIX + revocationId);
+            stringRedisTemplate.convertAndSend(TOKEN_REVOCATION_CHANNEL, revocationId + ":0");
             log.debug("Token已从黑名单中移除");
         } catch (Exception e) {
             log.error("从黑名单中移除Token失败: {}", e.getMessage());
@@ -301,10 +415,13 @@ public class JwtTokenUtil {
     }
     
     /**
-     * 从Token中获取用户ID（从subject中提取）
+     * 从Token中获取用户数值ID，未携带用户ID声明的令牌返回null（subject为用户名）
      */
     public String getUserIdFromToken(String token) {
-        return extractUsername(token);
+        return extractClaim(token, claims -> {
+            Object userId = claims.get(USER_ID_CLAIM);
+            return userId != null ? userId.toString() : null;
+        });
     }
     
     /**
@@ -314,6 +431,17 @@ public class JwtTokenUtil {
         return extractUsername(token);
     }
     
+    /**
+     * 生成令牌ID（jti）：16字节随机数的Base64URL编码
+     */
+    private static String newTokenId() {
+        UUID uuid = UUID.randomUUID();
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+    
     /**
      * 获取Token剩余有效时间（毫秒）
      */
@@ -0,0 +1,127 @@
+package com.hoxkar.common.authz;
+
+import com.hoxkar.common.annotation.RequiresPermission;
+import com.hoxkar.common.client.PermissionServiceClient;
+import com.hoxkar.common.exception.BusinessException;
+import com.hoxkar.common.policy.PermissionClaim;
+import com.hoxkar.common.policy.PermissionDictionary;
+import com.hoxkar.common.policy.UserAuthorities;
+import com.hoxkar.common.util.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthorizationEvaluatorTest {
+
+    private static final long TENANT_ID = 1L;
+    private static final long USER_ID = 42L;
+    private static final long VERSION = 7L;
+
+    private final PermissionDictionary dictionary =
+            new PermissionDictionary(TENANT_ID, VERSION, List.of("user:read", "user:write", "role:read"));
+
+    private AuthorizationCache cache;
+    private PermissionServiceClient client;
+    private AuthorizationEvaluator evaluator;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        cache = mock(AuthorizationCache.class);
+        when(cache.isEnabled()).thenReturn(true);
+        when(cache.getDictionary(TENANT_ID, VERSION)).thenReturn(dictionary);
+        client = mock(PermissionServiceClient.class);
+        ObjectProvider<AuthorizationCache> cacheProvider = mock(ObjectProvider.class);
+        when(cacheProvider.getIfAvailable()).thenReturn(cache);
+        ObjectProvider<PermissionServiceClient> clientProvider = mock(ObjectProvider.class);
+        when(clientProvider.getIfAvailable()).thenReturn(client);
+        evaluator = new AuthorizationEvaluator(cacheProvider, clientProvider);
+        TenantContext.setTenantId(String.valueOf(TENANT_ID));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void currentTokenBitmapGrantsLocally() {
+        MockHttpServletRequest request = tokenRequest(VERSION, "user:read");
+
+        assertDoesNotThrow(() -> evaluator.authorize(request, policy("readUser")));
+
+        verify(cache, never()).get(anyLong(), anyLong());
+    }
+
+    @Test
+    void currentTokenBitmapDeniesLocally() {
+        MockHttpServletRequest request = tokenRequest(VERSION, "user:read");
+
+        assertThrows(BusinessException.class, () -> evaluator.authorize(request, policy("writeUser")));
+
+        verify(cache, never()).get(anyLong(), anyLong());
+    }
+
+    @Test
+    void staleTokenVersionFallsBackToCachedAuthorities() {
+        // 令牌携带的位图授予user:write，但其字典版本已过期，不能据此判定
+        MockHttpServletRequest request = tokenRequest(VERSION - 1, "user:write");
+        when(cache.getDictionary(TENANT_ID, VERSION - 1)).thenReturn(null);
+        when(cache.get(TENANT_ID, USER_ID)).thenReturn(
+                new UserAuthorities(TENANT_ID, USER_ID, VERSION, Set.of("user:read"), Set.of()));
+
+        assertThrows(BusinessException.class, () -> evaluator.authorize(request, policy("writeUser")));
+        assertDoesNotThrow(() -> evaluator.authorize(request, policy("readUser")));
+
+        verify(cache, times(2)).get(TENANT_ID, USER_ID);
+    }
+
+    @Test
+    void routePermissionsAreCheckedAgainstTokenBitmap() {
+        MockHttpServletRequest request = tokenRequest(VERSION, "user:read", "role:read");
+
+        assertDoesNotThrow(() -> evaluator.authorize(request, List.of("role:read"), policy("readUser")));
+        assertThrows(BusinessException.class,
+                () -> evaluator.authorize(request, List.of("user:write"), policy("readUser")));
+    }
+
+    private MockHttpServletRequest tokenRequest(long version, String... permissions) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-User-ID", String.valueOf(USER_ID));
+        request.addHeader(PermissionClaim.VERSION_HEADER, String.valueOf(version));
+        request.addHeader(PermissionClaim.BITS_HEADER, dictionary.encode(List.of(permissions)).toBase64());
+        return request;
+    }
+
+    private static AuthorizationPolicy policy(String handler) {
+        try {
+            RequiresPermission annotation = AuthorizationEvaluatorTest.class.getDeclaredMethod(handler)
+                    .getAnnotation(RequiresPermission.class);
+            return AuthorizationPolicy.compile(null, annotation, null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @RequiresPermission("user:read")
+    private void readUser() {
+    }
+
+    @RequiresPermission("user:write")
+    private void writeUser() {
+    }
+}
@@ -0,0 +1,86 @@
+package com.hoxkar.common.authz;
+
+import com.hoxkar.common.annotation.RequiresPermission;
+import com.hoxkar.common.annotation.RequiresRole;
+import com.hoxkar.common.annotation.RequiresTenant;
+import com.hoxkar.common.policy.AuthorizationCheckRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthorizationPolicyRegistryTest {
+
+    private final AuthorizationPolicyRegistry registry = new AuthorizationPolicyRegistry();
+
+    @Test
+    void unannotatedHandlerHasEmptyPolicy() {
+        AuthorizationPolicy policy = registry.get(handler(new PlainController(), "list"));
+        assertTrue(policy.isEmpty());
+        assertSame(AuthorizationPolicy.NONE, policy);
+    }
+
+    @Test
+    void classLevelAnnotationsApplyToEveryMethod() {
+        AuthorizationPolicy policy = registry.get(handler(new TenantController(), "list"));
+        assertTrue(policy.isTenantRequired());
+        assertEquals(List.of("ADMIN"), policy.getRoleCheck().getRoles());
+        assertNull(policy.getPermissionCheck());
+    }
+
+    @Test
+    void methodLevelAnnotationOverridesClassLevel() {
+        AuthorizationPolicy policy = registry.get(handler(new TenantController(), "delete"));
+        assertEquals(List.of("SUPER_ADMIN", "OWNER"), policy.getRoleCheck().getRoles());
+        assertEquals(AuthorizationCheckRequest.Logic.AND, policy.getRoleCheck().getLogic());
+        assertEquals("Owner only", policy.getRoleMessage());
+    }
+
+    @Test
+    void permissionsArrayTakesPrecedenceOverValue() {
+        AuthorizationPolicy policy = registry.get(handler(new TenantController(), "update"));
+        assertEquals(List.of("tenant:write", "tenant:admin"), policy.getPermissionCheck().getPermissions());
+        assertEquals(AuthorizationCheckRequest.Logic.OR, policy.getPermissionCheck().getLogic());
+        assertFalse(policy.isEmpty());
+    }
+
+    @Test
+    void policyIsCompiledOncePerMethod() {
+        HandlerMethod handler = handler(new TenantController(), "update");
+        assertSame(registry.get(handler), registry.get(handler(new TenantController(), "update")));
+    }
+
+    private static HandlerMethod handler(Object bean, String method) {
+        try {
+            return new HandlerMethod(bean, bean.getClass().getDeclaredMethod(method));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static class PlainController {
+        public void list() {
+        }
+    }
+
+    @RequiresTenant
+    @RequiresRole("ADMIN")
+    static class TenantController {
+        public void list() {
+        }
+
+        @RequiresRole(roles = {"SUPER_ADMIN", "OWNER"}, logic = RequiresRole.LogicType.AND, message = "Owner only")
+        public void delete() {
+        }
+
+        @RequiresPermission(value = "ignored", permissions = {"tenant:write", "tenant:admin"})
+        public void update() {
+        }
+    }
+}
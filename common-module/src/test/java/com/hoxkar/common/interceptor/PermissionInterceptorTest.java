@@ -0,0 +1,118 @@
+package com.hoxkar.common.interceptor;
+
+import com.hoxkar.common.annotation.RequiresPermission;
+import com.hoxkar.common.authz.AuthorizationEvaluator;
+import com.hoxkar.common.authz.AuthorizationPolicy;
+import com.hoxkar.common.authz.AuthorizationPolicyRegistry;
+import com.hoxkar.common.config.RoutePolicyConfig;
+import com.hoxkar.common.exception.BusinessException;
+import com.hoxkar.common.policy.RoutePolicyRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class PermissionInterceptorTest {
+
+    private AuthorizationEvaluator evaluator;
+    private PermissionInterceptor interceptor;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        RoutePolicyConfig.Rule rule = new RoutePolicyConfig.Rule();
+        rule.setPattern("/api/reports/**");
+        rule.setPermissions(List.of("report:read"));
+        RoutePolicyConfig config = new RoutePolicyConfig();
+        config.setRules(List.of(rule));
+        evaluator = mock(AuthorizationEvaluator.class);
+        interceptor = new PermissionInterceptor(new RoutePolicyRegistry(config), new AuthorizationPolicyRegistry(),
+                evaluator);
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void skipsNonHandlerMethods() throws Exception {
+        assertTrue(interceptor.preHandle(request("/api/users/1"), response, new Object()));
+        verify(evaluator, never()).authorize(any(), anyList(), any());
+    }
+
+    @Test
+    void skipsPublicPaths() throws Exception {
+        assertTrue(interceptor.preHandle(request("/api/auth/login"), response, handler("restricted")));
+        verify(evaluator, never()).authorize(any(), anyList(), any());
+    }
+
+    @Test
+    void skipsHandlerWithoutRequirements() throws Exception {
+        assertTrue(interceptor.preHandle(request("/api/users/1"), response, handler("open")));
+        verify(evaluator, never()).authorize(any(), anyList(), any());
+    }
+
+    @Test
+    void evaluatesRoutePermissionsAndHandlerPolicyTogether() throws Exception {
+        MockHttpServletRequest request = request("/api/reports/2024");
+        assertTrue(interceptor.preHandle(request, response, handler("restricted")));
+        verify(evaluator).authorize(eq(request), eq(List.of("report:read")), any(AuthorizationPolicy.class));
+    }
+
+    @Test
+    void routePermissionsAloneAreEnforced() throws Exception {
+        MockHttpServletRequest request = request("/api/reports/2024");
+        assertTrue(interceptor.preHandle(request, response, handler("open")));
+        verify(evaluator).authorize(eq(request), eq(List.of("report:read")), eq(AuthorizationPolicy.NONE));
+    }
+
+    @Test
+    void deniedRequestGets403() throws Exception {
+        doThrow(BusinessException.of("Insufficient permission"))
+                .when(evaluator).authorize(any(), anyList(), any());
+
+        assertFalse(interceptor.preHandle(request("/api/users/1"), response, handler("restricted")));
+        assertEquals(403, response.getStatus());
+        assertTrue(response.getContentAsString().contains("Insufficient permission"));
+    }
+
+    @Test
+    void evaluatorFailureGets500() throws Exception {
+        doThrow(new IllegalStateException("redis down")).when(evaluator).authorize(any(), anyList(), any());
+
+        assertFalse(interceptor.preHandle(request("/api/users/1"), response, handler("restricted")));
+        assertEquals(500, response.getStatus());
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    private static HandlerMethod handler(String method) {
+        try {
+            return new HandlerMethod(new SampleController(), SampleController.class.getDeclaredMethod(method));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static class SampleController {
+        public void open() {
+        }
+
+        @RequiresPermission("user:read")
+        public void restricted() {
+        }
+    }
+}
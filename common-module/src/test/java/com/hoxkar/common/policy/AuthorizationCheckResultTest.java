@@ -0,0 +1,45 @@
+package com.hoxkar.common.policy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthorizationCheckResultTest {
+
+    private static final Set<String> PERMISSIONS = Set.of("user:read", "user:write");
+    private static final Set<String> ROLES = Set.of("ADMIN");
+
+    @Test
+    void andRequiresEveryCode() {
+        assertTrue(evaluate(List.of("user:read", "user:write"), List.of("ADMIN"), AuthorizationCheckRequest.Logic.AND).isGranted());
+        AuthorizationCheckResult result = evaluate(List.of("user:read", "role:read"), List.of(), AuthorizationCheckRequest.Logic.AND);
+        assertFalse(result.isGranted());
+        assertEquals(Boolean.TRUE, result.getPermissionResults().get("user:read"));
+        assertEquals(Boolean.FALSE, result.getPermissionResults().get("role:read"));
+    }
+
+    @Test
+    void orRequiresAnyCode() {
+        assertTrue(evaluate(List.of("role:read"), List.of("ADMIN"), AuthorizationCheckRequest.Logic.OR).isGranted());
+        assertFalse(evaluate(List.of("role:read"), List.of("AUDITOR"), AuthorizationCheckRequest.Logic.OR).isGranted());
+    }
+
+    @Test
+    void emptyRequestIsDenied() {
+        assertFalse(evaluate(List.of(), List.of(), AuthorizationCheckRequest.Logic.AND).isGranted());
+        assertFalse(evaluate(List.of(), List.of(), AuthorizationCheckRequest.Logic.OR).isGranted());
+        assertFalse(evaluate(null, null, AuthorizationCheckRequest.Logic.AND).isGranted());
+        assertTrue(AuthorizationCheckResult.isEmpty(new AuthorizationCheckRequest(null, List.of(), AuthorizationCheckRequest.Logic.AND)));
+        assertFalse(AuthorizationCheckResult.isEmpty(new AuthorizationCheckRequest(List.of(), List.of("ADMIN"), AuthorizationCheckRequest.Logic.AND)));
+    }
+
+    private static AuthorizationCheckResult evaluate(List<String> permissions, List<String> roles,
+                                                     AuthorizationCheckRequest.Logic logic) {
+        return AuthorizationCheckResult.evaluate(new AuthorizationCheckRequest(permissions, roles, logic), PERMISSIONS, ROLES);
+    }
+}
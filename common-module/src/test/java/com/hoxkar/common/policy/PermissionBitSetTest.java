@@ -0,0 +1,85 @@
+package com.hoxkar.common.policy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PermissionBitSetTest {
+
+    @Test
+    void containsOnlyGivenIds() {
+        PermissionBitSet bits = PermissionBitSet.of(List.of(0, 63, 64, 130));
+        assertTrue(bits.contains(0));
+        assertTrue(bits.contains(63));
+        assertTrue(bits.contains(64));
+        assertTrue(bits.contains(130));
+        assertFalse(bits.contains(1));
+        assertFalse(bits.contains(129));
+        assertFalse(bits.contains(1000));
+        assertFalse(bits.contains(-1));
+        assertEquals(4, bits.cardinality());
+    }
+
+    @Test
+    void ignoresNegativeAndNullIds() {
+        PermissionBitSet bits = PermissionBitSet.of(Arrays.asList(-1, null, 5));
+        assertEquals(1, bits.cardinality());
+        assertTrue(bits.contains(5));
+        assertSame(PermissionBitSet.EMPTY, PermissionBitSet.of(List.of(-3)));
+    }
+
+    @Test
+    void orIsUnionOfDifferentLengths() {
+        PermissionBitSet small = PermissionBitSet.of(List.of(1));
+        PermissionBitSet large = PermissionBitSet.of(List.of(200));
+        PermissionBitSet union = small.or(large);
+        assertEquals(PermissionBitSet.of(List.of(1, 200)), union);
+        assertEquals(union, large.or(small));
+        // 原位图不被修改
+        assertFalse(small.contains(200));
+        assertFalse(large.contains(1));
+        assertSame(small, small.or(PermissionBitSet.EMPTY));
+    }
+
+    @Test
+    void containsAllAndIntersects() {
+        PermissionBitSet granted = PermissionBitSet.of(List.of(1, 2, 70));
+        assertTrue(granted.containsAll(PermissionBitSet.of(List.of(2, 70))));
+        assertFalse(granted.containsAll(PermissionBitSet.of(List.of(2, 300))));
+        assertTrue(granted.containsAll(PermissionBitSet.EMPTY));
+        assertTrue(granted.intersects(PermissionBitSet.of(List.of(70, 300))));
+        assertFalse(granted.intersects(PermissionBitSet.of(List.of(3, 300))));
+        assertFalse(granted.intersects(PermissionBitSet.EMPTY));
+    }
+
+    @Test
+    void base64RoundTripTrimsTrailingZeroBytes() {
+        PermissionBitSet bits = PermissionBitSet.of(List.of(0, 9, 64, 127));
+        assertEquals(bits, PermissionBitSet.fromBase64(bits.toBase64()));
+        assertEquals("AQ", PermissionBitSet.of(List.of(0)).toBase64());
+        assertEquals("", PermissionBitSet.EMPTY.toBase64());
+        assertSame(PermissionBitSet.EMPTY, PermissionBitSet.fromBase64(""));
+        assertSame(PermissionBitSet.EMPTY, PermissionBitSet.fromBase64(null));
+    }
+
+    @Test
+    void equalityIgnoresTrailingZeroWords() {
+        // 9个字节解码为两个字，第二个字全为0
+        PermissionBitSet padded = PermissionBitSet.fromBase64("AQAAAAAAAAAA");
+        PermissionBitSet plain = PermissionBitSet.of(List.of(0));
+        assertEquals(plain, padded);
+        assertEquals(plain.hashCode(), padded.hashCode());
+    }
+
+    @Test
+    void idsAreAscending() {
+        int[] ids = PermissionBitSet.of(List.of(130, 3, 64)).ids().toArray();
+        assertEquals(List.of(3, 64, 130), Arrays.stream(ids).boxed().toList());
+    }
+}
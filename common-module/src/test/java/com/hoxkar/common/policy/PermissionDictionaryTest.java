@@ -0,0 +1,53 @@
+package com.hoxkar.common.policy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PermissionDictionaryTest {
+
+    private final PermissionDictionary dictionary =
+            new PermissionDictionary(1L, 7L, List.of("user:read", "user:write", "role:read", "user:read"));
+
+    @Test
+    void idIsIndexOfFirstOccurrence() {
+        assertEquals(0, dictionary.idOf("user:read"));
+        assertEquals(2, dictionary.idOf("role:read"));
+        assertEquals(-1, dictionary.idOf("file:delete"));
+    }
+
+    @Test
+    void encodeIgnoresUnknownCodes() {
+        PermissionBitSet bits = dictionary.encode(List.of("user:write", "file:delete"));
+        assertEquals(1, bits.cardinality());
+        assertTrue(dictionary.contains(bits, "user:write"));
+        assertFalse(dictionary.contains(bits, "user:read"));
+        assertFalse(dictionary.contains(bits, "file:delete"));
+    }
+
+    @Test
+    void decodeRoundTrip() {
+        Set<String> codes = Set.of("user:read", "role:read");
+        assertEquals(codes, dictionary.decode(dictionary.encode(codes)));
+    }
+
+    @Test
+    void decodeIgnoresIdsBeyondDictionary() {
+        // 新版本字典分配的ID在旧字典中不存在
+        PermissionBitSet newer = PermissionBitSet.of(List.of(1, 40));
+        assertEquals(Set.of("user:write"), dictionary.decode(newer));
+    }
+
+    @Test
+    void nullCodesGiveEmptyDictionary() {
+        PermissionDictionary empty = new PermissionDictionary(1L, 0L, null);
+        assertTrue(empty.getCodes().isEmpty());
+        assertEquals(-1, empty.idOf("user:read"));
+        assertEquals(PermissionBitSet.EMPTY, empty.encode(List.of("user:read")));
+    }
+}
@@ -0,0 +1,113 @@
+package com.hoxkar.common.policy;
+
+import com.hoxkar.common.config.RoutePolicyConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoutePolicyRegistryTest {
+
+    @Test
+    void builtInPublicPathsArePublic() {
+        RoutePolicyRegistry registry = registry();
+        assertTrue(registry.match("/api/auth/login").isPublic());
+        assertTrue(registry.match("/actuator/health").isPublic());
+        assertTrue(registry.match("/actuator/health/liveness").isPublic());
+        assertTrue(registry.match("/swagger-ui/index.html").isPublic());
+        assertFalse(registry.match("/api/auth/logout").isPublic());
+    }
+
+    @Test
+    void unmatchedPathRequiresAuthentication() {
+        RoutePolicyRegistry registry = registry();
+        assertSame(RoutePolicy.AUTHENTICATED, registry.match("/api/users/42"));
+        assertSame(RoutePolicy.AUTHENTICATED, registry.match(""));
+        assertSame(RoutePolicy.AUTHENTICATED, registry.match(null));
+    }
+
+    @Test
+    void literalSegmentBeatsWildcard() {
+        RoutePolicyRegistry registry = registry(
+                rule("/api/users/*", "user:read"),
+                rule("/api/users/me", "profile:read"));
+        assertEquals(List.of("profile:read"), registry.match("/api/users/me").getPermissions());
+        assertEquals(List.of("user:read"), registry.match("/api/users/42").getPermissions());
+        // "*"只匹配一个非空路径段
+        assertSame(RoutePolicy.AUTHENTICATED, registry.match("/api/users/42/roles"));
+        assertSame(RoutePolicy.AUTHENTICATED, registry.match("/api/users/"));
+    }
+
+    @Test
+    void deeperSubtreeBeatsShallowerSubtree() {
+        RoutePolicyRegistry registry = registry(
+                rule("/api/**", "api:access"),
+                rule("/api/files/**", "file:read"));
+        assertEquals(List.of("file:read"), registry.match("/api/files/a/b.txt").getPermissions());
+        assertEquals(List.of("file:read"), registry.match("/api/files").getPermissions());
+        assertEquals(List.of("api:access"), registry.match("/api/tenants/1").getPermissions());
+    }
+
+    @Test
+    void subtreeStopsAtSegmentBoundary() {
+        RoutePolicyRegistry registry = registry(
+                rule("/api/**", "api:access"),
+                rule("/api/files/**", "file:read"));
+        assertEquals(List.of("api:access"), registry.match("/api/filesystem").getPermissions());
+    }
+
+    @Test
+    void wildcardSegmentFollowedBySubtree() {
+        RoutePolicyRegistry registry = registry(rule("/api/tenants/*/users/**", "tenant:user:read"));
+        assertEquals(List.of("tenant:user:read"), registry.match("/api/tenants/7/users/1").getPermissions());
+        assertSame(RoutePolicy.AUTHENTICATED, registry.match("/api/tenants/7/roles"));
+    }
+
+    @Test
+    void exactRuleBeatsSubtreeOnSameNode() {
+        RoutePolicyRegistry registry = registry(
+                rule("/api/reports/**", "report:read"),
+                rule("/api/reports", "report:list"));
+        assertEquals(List.of("report:list"), registry.match("/api/reports").getPermissions());
+        assertEquals(List.of("report:read"), registry.match("/api/reports/2024").getPermissions());
+    }
+
+    @Test
+    void configuredRuleOverridesBuiltInDefault() {
+        RoutePolicyConfig.Rule rule = new RoutePolicyConfig.Rule();
+        rule.setPattern("/api/auth/health");
+        rule.setAccess(RoutePolicy.Access.AUTHENTICATED);
+        RoutePolicyRegistry registry = registry(rule);
+        assertFalse(registry.match("/api/auth/health").isPublic());
+    }
+
+    @Test
+    void carriesRateLimitClass() {
+        RoutePolicyConfig.Rule rule = rule("/api/files/upload", "file:write");
+        rule.setRateLimitClass("upload");
+        assertEquals("upload", registry(rule).match("/api/files/upload").getRateLimitClass());
+    }
+
+    @Test
+    void rejectsPartialSegmentWildcard() {
+        assertThrows(IllegalArgumentException.class, () -> registry(rule("/api/*x/list", "x:read")));
+    }
+
+    private static RoutePolicyRegistry registry(RoutePolicyConfig.Rule... rules) {
+        RoutePolicyConfig config = new RoutePolicyConfig();
+        config.setRules(List.of(rules));
+        return new RoutePolicyRegistry(config);
+    }
+
+    private static RoutePolicyConfig.Rule rule(String pattern, String permission) {
+        RoutePolicyConfig.Rule rule = new RoutePolicyConfig.Rule();
+        rule.setPattern(pattern);
+        rule.setPermissions(List.of(permission));
+        return rule;
+    }
+}
@@ -0,0 +1,96 @@
+package com.hoxkar.common.trace;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowflakeRequestIdGeneratorTest {
+
+    private static final long EPOCH = 1704067200000L;
+
+    @Test
+    void numericIdsAreStrictlyIncreasing() {
+        SnowflakeRequestIdGenerator generator = new SnowflakeRequestIdGenerator(5, "gateway", "10.0.0.1");
+        long previous = generator.nextLong();
+        // 超过单毫秒4096个序列号，覆盖序列号溢出进位到时间戳的路径
+        for (int i = 0; i < 20_000; i++) {
+            long next = generator.nextLong();
+            assertTrue(next > previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void idCarriesNodeIdAndTimestamp() {
+        long before = System.currentTimeMillis() - EPOCH;
+        long id = new SnowflakeRequestIdGenerator(1023, "gateway", "10.0.0.1").nextLong();
+        assertEquals(1023, (id >>> 12) & 1023);
+        long timestamp = id >>> 22;
+        assertTrue(timestamp >= before);
+        assertTrue(timestamp <= System.currentTimeMillis() - EPOCH + 1);
+    }
+
+    @Test
+    void configuredNodeIdIsMaskedToTenBits() {
+        long id = new SnowflakeRequestIdGenerator(1024 + 7, "gateway", "10.0.0.1").nextLong();
+        assertEquals(7, (id >>> 12) & 1023);
+    }
+
+    @Test
+    void derivedNodeIdIsStablePerInstance() {
+        long a = new SnowflakeRequestIdGenerator(-1, "gateway:8080", "10.0.0.1").nextLong();
+        long b = new SnowflakeRequestIdGenerator(-1, "gateway:8080", "10.0.0.1").nextLong();
+        assertEquals((a >>> 12) & 1023, (b >>> 12) & 1023);
+    }
+
+    @Test
+    void encodedIdsAreFixedLengthAndSortable() {
+        SnowflakeRequestIdGenerator generator = new SnowflakeRequestIdGenerator(3, "gateway", "10.0.0.1");
+        String previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            String next = generator.nextId();
+            assertEquals(13, next.length());
+            assertTrue(next.matches("[0-9A-HJKMNP-TV-Z]{13}"));
+            assertTrue(next.compareTo(previous) > 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    void concurrentCallersNeverShareAnId() throws InterruptedException {
+        SnowflakeRequestIdGenerator generator = new SnowflakeRequestIdGenerator(9, "gateway", "10.0.0.1");
+        int threads = 8;
+        int perThread = 20_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                Set<Long> local = new HashSet<>();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    local.add(generator.nextLong());
+                }
+                ids.addAll(local);
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(threads * perThread, ids.size());
+    }
+}
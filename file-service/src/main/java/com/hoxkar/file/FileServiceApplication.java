@@ -5,9 +5,9 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.openfeign.EnableFeignClients;
 
 import org.springframework.context.annotation.ComponentScan;
-import org.springframework.context.annotation.FilterType;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 
@@ -16,12 +16,11 @@ import org.springframework.web.servlet.config.annotation.EnableWebMvc;
  */
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableFeignClients(basePackages = {"com.hoxkar.common.client"})
 @EnableWebMvc
 @EnableConfigurationProperties
 @EnableJpaAuditing
-@ComponentScan(basePackages = {"com.hoxkar"},
-        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
-                classes = {com.hoxkar.common.aspect.PermissionAspect.class}))
+@ComponentScan(basePackages = {"com.hoxkar"})
 public class FileServiceApplication {
     
     public static void main(String[] args) {
@@ -0,0 +1,107 @@
+package com.hoxkar.gateway.benchmark;
+
+import com.hoxkar.common.util.JwtTokenUtil;
+import com.hoxkar.gateway.auth.VerifiedPrincipal;
+import com.hoxkar.gateway.auth.VerifiedPrincipalCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT认证过滤器基准测试
+ * 对比改造前每个请求多次构建解析器并重复验签的路径、每请求验签一次的路径与VerifiedPrincipalCache命中路径；
+ * 无效令牌基准用于确认解析失败不再产生ERROR日志开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-with-at-least-256-bits-for-hs256";
+
+    private JwtTokenUtil jwtTokenUtil;
+    private VerifiedPrincipalCache principalCache;
+    private String token;
+    private String invalidToken;
+
+    @Setup
+    public void setup() {
+        jwtTokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(jwtTokenUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtTokenUtil, "expiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtTokenUtil, "refreshExpiration", TimeUnit.DAYS.toMillis(7));
+        ReflectionTestUtils.setField(jwtTokenUtil, "permissionClaimMaxLength", 512);
+        jwtTokenUtil.init();
+        principalCache = new VerifiedPrincipalCache(jwtTokenUtil, 100_000, 300_000);
+
+        token = jwtTokenUtil.generateToken(new User("benchmark", "n/a", List.of()), "1", 42L, null);
+        invalidToken = token.substring(0, token.length() - 4) + "AAAA";
+        principalCache.resolve(token);
+    }
+
+    /**
+     * 改造前：校验过期、取租户、取用户ID、取用户名各自构建密钥与解析器并完整验签一次
+     */
+    @Benchmark
+    public void legacyParsePerClaim(Blackhole bh) {
+        bh.consume(legacyClaims(token).getExpiration());
+        bh.consume(legacyClaims(token).get("tenantId", String.class));
+        bh.consume(legacyClaims(token).get(JwtTokenUtil.USER_ID_CLAIM));
+        bh.consume(legacyClaims(token).getSubject());
+    }
+
+    /**
+     * 复用解析器，每个请求验签一次
+     */
+    @Benchmark
+    public Claims parseOncePerRequest() {
+        return jwtTokenUtil.parseToken(token);
+    }
+
+    /**
+     * 当前路径：缓存命中，不再验签
+     */
+    @Benchmark
+    public VerifiedPrincipal cachedPrincipal() {
+        return principalCache.resolve(token);
+    }
+
+    /**
+     * 签名无效的令牌：每次都验签失败，不进入缓存
+     */
+    @Benchmark
+    public VerifiedPrincipal invalidSignature() {
+        return principalCache.resolve(invalidToken);
+    }
+
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
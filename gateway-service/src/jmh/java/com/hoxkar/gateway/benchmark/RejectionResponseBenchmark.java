@@ -0,0 +1,94 @@
+package com.hoxkar.gateway.benchmark;
+
+import com.hoxkar.gateway.response.RejectionResponse;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 拒绝响应基准测试
+ * 90%的请求被限流拒绝、10%放行，对比改造前逐次格式化并编码JSON正文与预编码共享缓冲区两种写法；
+ * 响应写出后立即释放缓冲区，模拟服务器写出连接。配合 -prof gc 观察每次操作的分配量：
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="RejectionResponseBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RejectionResponseBenchmark {
+
+    private static final int REJECTED_PER_TEN = 9;
+
+    private NettyDataBufferFactory bufferFactory;
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    }
+
+    /**
+     * 改造前：每次拒绝格式化带时间戳的正文并分配字节数组
+     */
+    @Benchmark
+    public Void legacyFormattedBody() {
+        ServerHttpResponse response = newResponse();
+        if (!isRejected()) {
+            return Mono.<Void>empty().block();
+        }
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        String body = String.format(
+                "{\"code\":429,\"message\":\"%s\",\"data\":null,\"timestamp\":%d}",
+                "Rate limit exceeded. Please try again later.", System.currentTimeMillis());
+        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(buffer)).block();
+    }
+
+    /**
+     * 当前：写出预编码共享缓冲区的副本
+     */
+    @Benchmark
+    public Void preEncodedBody() {
+        ServerHttpResponse response = newResponse();
+        if (!isRejected()) {
+            return Mono.<Void>empty().block();
+        }
+        return RejectionResponse.RATE_LIMITED.write(response).block();
+    }
+
+    private boolean isRejected() {
+        return sequence++ % 10 < REJECTED_PER_TEN;
+    }
+
+    private ServerHttpResponse newResponse() {
+        MockServerHttpResponse response = new MockServerHttpResponse(bufferFactory);
+        response.setWriteHandler(body -> Flux.from(body).doOnNext(DataBufferUtils::release).then());
+        return response;
+    }
+}
@@ -15,8 +15,8 @@ import org.springframework.context.annotation.FilterType;
 @EnableFeignClients
 @ComponentScan(basePackages = {"com.hoxkar"}, 
                excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, 
-                                                    classes = {com.hoxkar.common.aspect.PermissionAspect.class,
-                                                              com.hoxkar.common.client.PermissionServiceClient.class}))
+                                                    classes = {com.hoxkar.common.client.PermissionServiceClient.class,
+                                                              com.hoxkar.common.authz.AuthorizationCache.class}))
 public class GatewayServiceApplication {
     
     public static void main(String[] args) {
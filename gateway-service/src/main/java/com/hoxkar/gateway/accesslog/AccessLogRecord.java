@@ -0,0 +1,39 @@
+package com.hoxkar.gateway.accesslog;
+
+/**
+ * 访问日志记录槽位
+ * 环形缓冲区启动时预分配全部槽位并循环复用；字段只保存已有字符串的引用，写入时不做格式化
+ */
+class AccessLogRecord {
+
+    /**
+     * 已发布的序号；与消费者期望的序号相等时，槽位内容才可读
+     */
+    volatile long published = -1;
+
+    long timestamp;
+    long duration;
+    int status;
+    String method;
+    String path;
+    String routeId;
+    String clientIp;
+    String userId;
+    String tenantId;
+    String requestId;
+    String userAgent;
+
+    /**
+     * 释放引用，避免槽位长期持有请求数据
+     */
+    void clear() {
+        method = null;
+        path = null;
+        routeId = null;
+        clientIp = null;
+        userId = null;
+        tenantId = null;
+        requestId = null;
+        userAgent = null;
+    }
+}
@@ -0,0 +1,95 @@
+package com.hoxkar.gateway.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 多生产者/单消费者环形缓冲区
+ * 生产者通过CAS领取序号并写入预分配槽位，缓冲区满时直接丢弃并计数，从不阻塞事件循环
+ */
+class AccessLogRingBuffer {
+
+    private final AccessLogRecord[] slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * 下一个待消费的序号，只由消费者线程写入
+     */
+    private volatile long consumed;
+
+    AccessLogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AccessLogRecord[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new AccessLogRecord();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 领取一个槽位；缓冲区已满时返回null并计入丢弃数。
+     * 写完字段后必须调用 {@link #publish(AccessLogRecord, long)}
+     *
+     * @return 槽位序号，-1 表示已丢弃
+     */
+    long claim() {
+        while (true) {
+            long sequence = claimed.get();
+            if (sequence - consumed >= slots.length) {
+                dropped.increment();
+                return -1;
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    AccessLogRecord slot(long sequence) {
+        return slots[(int) (sequence & mask)];
+    }
+
+    void publish(AccessLogRecord record, long sequence) {
+        record.published = sequence;
+    }
+
+    /**
+     * 按序消费已发布的记录，遇到尚未发布的槽位即停止
+     *
+     * @return 本次消费的记录数
+     */
+    int drain(Consumer<AccessLogRecord> handler, int maxRecords) {
+        long next = consumed;
+        int count = 0;
+        while (count < maxRecords) {
+            AccessLogRecord record = slots[(int) (next & mask)];
+            if (record.published != next) {
+                break;
+            }
+            try {
+                handler.accept(record);
+            } finally {
+                record.clear();
+                next++;
+                count++;
+                consumed = next;
+            }
+        }
+        return count;
+    }
+
+    long getDropped() {
+        return dropped.sum();
+    }
+
+    long getPending() {
+        return claimed.get() - consumed;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,227 @@
+package com.hoxkar.gateway.accesslog;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 异步访问日志
+ * 请求路径上只做采样判断并把字段引用写入预分配的环形缓冲区；
+ * 后台单线程按批取出记录，格式化为JSON行写入 ACCESS_LOG 日志器。缓冲区满时丢弃并计数
+ */
+@Slf4j
+@Component
+public class AccessLogWriter {
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("ACCESS_LOG");
+
+    private final AccessLogRingBuffer buffer;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final double defaultSampleRate;
+    private final Map<String, Double> sampleRates;
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    /**
+     * 仅由写线程使用，复用以避免每条日志分配新的缓冲
+     */
+    private final StringBuilder line = new StringBuilder(512);
+
+    private Scheduler scheduler;
+    private Disposable flushTask;
+
+    public AccessLogWriter(@Value("${gateway.access-log.buffer-size:8192}") int bufferSize,
+                           @Value("${gateway.access-log.batch-size:512}") int batchSize,
+                           @Value("${gateway.access-log.flush-interval:200}") long flushIntervalMillis,
+                           @Value("${gateway.access-log.default-sample-rate:1.0}") double defaultSampleRate,
+                           @Value("${gateway.access-log.sample-rates:}") String[] sampleRates) {
+        this.buffer = new AccessLogRingBuffer(bufferSize);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushInterval = Duration.ofMillis(flushIntervalMillis);
+        this.defaultSampleRate = defaultSampleRate;
+        this.sampleRates = parseSampleRates(sampleRates);
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Schedulers.newSingle("access-log-writer", true);
+        flushTask = Flux.interval(flushInterval, scheduler)
+                .subscribe(tick -> flush());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flushTask != null) {
+            flushTask.dispose();
+        }
+        if (scheduler != null) {
+            // 在写线程上完成最后一次刷新，保证StringBuilder只被单线程使用
+            try {
+                scheduler.schedule(this::flush);
+            } catch (Exception e) {
+                log.warn("Final access log flush failed: {}", e.toString());
+            }
+            scheduler.disposeGracefully().block(Duration.ofSeconds(5));
+        }
+    }
+
+    /**
+     * 是否记录该请求：4xx/5xx一律记录，其余按路由采样率抽样
+     */
+    public boolean shouldLog(String routeId, int status) {
+        if (status >= 400) {
+            return true;
+        }
+        Double configured = routeId != null ? sampleRates.get(routeId) : null;
+        double rate = configured != null ? configured : defaultSampleRate;
+        if (rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rate) {
+            return true;
+        }
+        sampledOut.increment();
+        return false;
+    }
+
+    /**
+     * 追加一条访问记录（不格式化、不阻塞）
+     *
+     * @return 缓冲区已满被丢弃时返回false
+     */
+    public boolean append(long timestamp, long duration, int status, String method, String path, String routeId,
+                          String clientIp, String userId, String tenantId, String requestId, String userAgent) {
+        long sequence = buffer.claim();
+        if (sequence < 0) {
+            return false;
+        }
+        AccessLogRecord record = buffer.slot(sequence);
+        record.timestamp = timestamp;
+        record.duration = duration;
+        record.status = status;
+        record.method = method;
+        record.path = path;
+        record.routeId = routeId;
+        record.clientIp = clientIp;
+        record.userId = userId;
+        record.tenantId = tenantId;
+        record.requestId = requestId;
+        record.userAgent = userAgent;
+        buffer.publish(record, sequence);
+        return true;
+    }
+
+    /**
+     * 访问日志统计
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("capacity", buffer.capacity());
+        stats.put("pending", buffer.getPending());
+        stats.put("written", written.sum());
+        stats.put("dropped", buffer.getDropped());
+        stats.put("sampledOut", sampledOut.sum());
+        return stats;
+    }
+
+    private void flush() {
+        try {
+            int drained;
+            do {
+                drained = buffer.drain(this::write, batchSize);
+            } while (drained == batchSize);
+        } catch (Exception e) {
+            log.warn("Access log flush failed: {}", e.toString());
+        }
+    }
+
+    private void write(AccessLogRecord record) {
+        if (!ACCESS_LOG.isInfoEnabled()) {
+            return;
+        }
+        StringBuilder sb = line;
+        sb.setLength(0);
+        sb.append("{\"time\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(record.timestamp), sb);
+        sb.append("\",\"method\":");
+        appendString(sb, record.method);
+        sb.append(",\"path\":");
+        appendString(sb, record.path);
+        sb.append(",\"route\":");
+        appendString(sb, record.routeId);
+        sb.append(",\"status\":").append(record.status);
+        sb.append(",\"durationMs\":").append(record.duration);
+        sb.append(",\"clientIp\":");
+        appendString(sb, record.clientIp);
+        sb.append(",\"userId\":");
+        appendString(sb, record.userId);
+        sb.append(",\"tenantId\":");
+        appendString(sb, record.tenantId);
+        sb.append(",\"requestId\":");
+        appendString(sb, record.requestId);
+        sb.append(",\"userAgent\":");
+        appendString(sb, record.userAgent);
+        sb.append('}');
+        ACCESS_LOG.info(sb.toString());
+        written.increment();
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * 解析路由采样率，格式 routeId=rate
+     */
+    private static Map<String, Double> parseSampleRates(String[] entries) {
+        Map<String, Double> rates = new HashMap<>();
+        for (String entry : entries) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int index = entry.indexOf('=');
+            if (index < 0) {
+                throw new IllegalArgumentException("Invalid access log sample rate: " + entry);
+            }
+            rates.put(entry.substring(0, index).trim(), Double.parseDouble(entry.substring(index + 1).trim()));
+        }
+        return Map.copyOf(rates);
+    }
+}
@@ -0,0 +1,229 @@
+package com.hoxkar.gateway.admission;
+
+import com.hoxkar.gateway.config.AdmissionProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 租户优先级准入控制
+ * 统计本节点全局与各租户的进行中请求数。未饱和时直接放行；饱和后请求进入有界优先队列等待，
+ * 有请求结束时按优先级放行：未超过公平份额（最大并发 / 活跃租户数）的租户优先，其次订阅计划等级高者优先，同级先到先得。
+ * 队列已满时淘汰优先级最低的等待者，等待超时的请求同样被拒绝，由调用方返回503和Retry-After
+ */
+@Component
+public class TenantAdmissionController {
+
+    /**
+     * 优先级从高到低：未超公平份额、计划等级高、先到
+     */
+    private static final Comparator<Waiter> PRIORITY = Comparator
+            .comparing((Waiter waiter) -> waiter.overFairShare)
+            .thenComparingInt((Waiter waiter) -> -waiter.priority)
+            .thenComparingLong(waiter -> waiter.sequence);
+
+    private final AdmissionProperties properties;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeSet<Waiter> waiting = new TreeSet<>(PRIORITY);
+    private final Map<String, Integer> tenantInflight = new HashMap<>();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder shedQueueFull = new LongAdder();
+    private final LongAdder shedTimeout = new LongAdder();
+
+    private int inflight;
+    private long sequence;
+
+    public TenantAdmissionController(AdmissionProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 申请准入
+     *
+     * @param tenantKey 租户键，未认证请求使用同一个匿名键
+     * @param plan      订阅计划，未认证请求为null
+     * @return 准入凭证，被降载时为 {@link Ticket#isRejected()} 的凭证
+     */
+    public Mono<Ticket> acquire(String tenantKey, String plan) {
+        Waiter waiter;
+        Waiter evicted = null;
+        lock.lock();
+        try {
+            if (inflight < properties.getMaxInflight() && waiting.isEmpty()) {
+                return Mono.just(admit(tenantKey));
+            }
+            waiter = new Waiter(tenantKey, isOverFairShare(tenantKey), properties.priorityOf(plan), sequence++);
+            if (waiting.size() >= properties.getMaxQueueSize()) {
+                Waiter lowest = waiting.isEmpty() ? null : waiting.last();
+                if (lowest == null || PRIORITY.compare(waiter, lowest) >= 0) {
+                    shedQueueFull.increment();
+                    return Mono.just(Ticket.REJECTED);
+                }
+                waiting.pollLast();
+                evicted = lowest;
+                shedQueueFull.increment();
+            }
+            waiting.add(waiter);
+            queued.increment();
+        } finally {
+            lock.unlock();
+        }
+        if (evicted != null) {
+            evicted.sink.tryEmitValue(Ticket.REJECTED);
+        }
+        return waiter.sink.asMono()
+                .timeout(Duration.ofMillis(properties.getMaxWait()), Mono.defer(() -> expire(waiter)))
+                .doOnCancel(() -> cancel(waiter));
+    }
+
+    /**
+     * 准入统计
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            stats.put("inflight", inflight);
+            stats.put("waiting", waiting.size());
+            stats.put("activeTenants", tenantInflight.size());
+        } finally {
+            lock.unlock();
+        }
+        stats.put("admitted", admitted.sum());
+        stats.put("queued", queued.sum());
+        stats.put("shedQueueFull", shedQueueFull.sum());
+        stats.put("shedTimeout", shedTimeout.sum());
+        return stats;
+    }
+
+    /**
+     * 公平份额按当前活跃租户数（含本租户）平分最大并发
+     */
+    private boolean isOverFairShare(String tenantKey) {
+        int current = tenantInflight.getOrDefault(tenantKey, 0);
+        int tenants = tenantInflight.size() + (current == 0 ? 1 : 0);
+        int fairShare = Math.max(1, properties.getMaxInflight() / tenants);
+        return current >= fairShare;
+    }
+
+    /**
+     * 占用一个槽位，调用方须持有锁
+     */
+    private Ticket admit(String tenantKey) {
+        inflight++;
+        tenantInflight.merge(tenantKey, 1, Integer::sum);
+        admitted.increment();
+        return new Ticket(this, tenantKey);
+    }
+
+    private void release(String tenantKey) {
+        List<Waiter> ready = new ArrayList<>();
+        lock.lock();
+        try {
+            inflight--;
+            tenantInflight.computeIfPresent(tenantKey, (key, count) -> count > 1 ? count - 1 : null);
+            while (inflight < properties.getMaxInflight() && !waiting.isEmpty()) {
+                Waiter waiter = waiting.pollFirst();
+                waiter.ticket = admit(waiter.tenantKey);
+                ready.add(waiter);
+            }
+        } finally {
+            lock.unlock();
+        }
+        // 在锁外唤醒，被放行的请求可能在当前线程上继续执行过滤器链
+        for (Waiter waiter : ready) {
+            waiter.sink.tryEmitValue(waiter.ticket);
+        }
+    }
+
+    /**
+     * 排队超时：仍在队列中则拒绝，否则已被放行或淘汰，取其结果
+     */
+    private Mono<Ticket> expire(Waiter waiter) {
+        lock.lock();
+        try {
+            if (waiting.remove(waiter)) {
+                shedTimeout.increment();
+                return Mono.just(Ticket.REJECTED);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return waiter.sink.asMono();
+    }
+
+    /**
+     * 请求在排队期间被取消：移出队列；若恰好已被放行则归还槽位
+     */
+    private void cancel(Waiter waiter) {
+        lock.lock();
+        try {
+            if (waiting.remove(waiter)) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        Ticket ticket = waiter.ticket;
+        if (ticket != null) {
+            ticket.release();
+        }
+    }
+
+    /**
+     * 准入凭证；获准的凭证在请求结束时必须释放，重复释放无效
+     */
+    public static final class Ticket {
+
+        static final Ticket REJECTED = new Ticket(null, null);
+
+        private final TenantAdmissionController controller;
+        private final String tenantKey;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Ticket(TenantAdmissionController controller, String tenantKey) {
+            this.controller = controller;
+            this.tenantKey = tenantKey;
+        }
+
+        public boolean isRejected() {
+            return controller == null;
+        }
+
+        public void release() {
+            if (controller != null && released.compareAndSet(false, true)) {
+                controller.release(tenantKey);
+            }
+        }
+    }
+
+    private static final class Waiter {
+
+        private final String tenantKey;
+        private final boolean overFairShare;
+        private final int priority;
+        private final long sequence;
+        private final Sinks.One<Ticket> sink = Sinks.one();
+        private volatile Ticket ticket;
+
+        private Waiter(String tenantKey, boolean overFairShare, int priority, long sequence) {
+            this.tenantKey = tenantKey;
+            this.overFairShare = overFairShare;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+}
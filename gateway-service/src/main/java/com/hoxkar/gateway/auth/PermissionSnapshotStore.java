@@ -0,0 +1,206 @@
+package com.hoxkar.gateway.auth;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hoxkar.common.config.InternalApiConfig;
+import com.hoxkar.common.policy.PermissionSnapshot;
+import com.hoxkar.common.pojo.vo.ApiResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 租户权限快照存储
+ * 首次访问某租户时从 permission-service 拉取其权限快照并编译常驻内存（同一租户的并发加载合并为一次），
+ * 之后的授权判断全部在内存中完成；permission-service 通过Redis pub/sub推送变更事件，
+ * 网关按版本号重新拉取对应租户的快照。快照不可用时返回UNKNOWN，由下游服务自行鉴权
+ */
+@Slf4j
+@Component
+public class PermissionSnapshotStore {
+
+    private static final String SNAPSHOT_PATH = "/internal/permissions/snapshots/{tenantId}";
+    private static final ParameterizedTypeReference<ApiResponse<PermissionSnapshot>> RESPONSE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final Duration fetchTimeout;
+
+    /**
+     * 租户ID -> 编译后的快照；超过最大存活时间后重新拉取，作为丢失变更事件时的兜底
+     */
+    private final AsyncCache<String, TenantPermissions> snapshots;
+    private Disposable subscription;
+
+    public PermissionSnapshotStore(WebClient.Builder webClientBuilder,
+                                   ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction,
+                                   ReactiveStringRedisTemplate reactiveRedisTemplate,
+                                   InternalApiConfig internalApiConfig,
+                                   @Value("${gateway.auth.permission-snapshot.permission-service-url:http://permission-service}") String permissionServiceUrl,
+                                   @Value("${gateway.auth.permission-snapshot.fetch-timeout:2000}") long fetchTimeoutMillis,
+                                   @Value("${gateway.auth.permission-snapshot.max-tenants:10000}") long maxTenants,
+                                   @Value("${gateway.auth.permission-snapshot.max-age:600000}") long maxAgeMillis) {
+        this.webClient = webClientBuilder
+                .baseUrl(permissionServiceUrl)
+                .defaultHeaders(headers -> {
+                    if (StringUtils.hasText(internalApiConfig.getToken())) {
+                        headers.set(InternalApiConfig.TOKEN_HEADER, internalApiConfig.getToken());
+                    }
+                })
+                .filter(loadBalancerFunction)
+                .build();
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.fetchTimeout = Duration.ofMillis(fetchTimeoutMillis);
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxTenants)
+                .expireAfterWrite(maxAgeMillis, TimeUnit.MILLISECONDS)
+                .buildAsync();
+    }
+
+    /**
+     * 订阅权限变更事件；连接断开重连后清空全部快照，避免错过的事件导致长期使用旧数据
+     */
+    @PostConstruct
+    public void start() {
+        subscription = Flux.defer(() -> {
+                    snapshots.synchronous().invalidateAll();
+                    return reactiveRedisTemplate.listenToChannel(PermissionSnapshot.CHANGE_CHANNEL);
+                })
+                .doOnNext(message -> onChangeMessage(message.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Permission change subscription lost, retrying: {}",
+                                signal.failure().toString())))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * 判断用户是否拥有全部指定权限
+     *
+     * @param userId 用户数值ID（令牌的userId声明），快照按该ID索引
+     * @return GRANTED/DENIED；缺少租户或数值用户ID、快照拉取失败时返回UNKNOWN
+     */
+    public Mono<Decision> authorize(String tenantId, String userId, List<String> permissions) {
+        if (!StringUtils.hasText(tenantId) || !isNumericId(userId)) {
+            return Mono.just(Decision.UNKNOWN);
+        }
+        return Mono.fromFuture(snapshots.get(tenantId, (key, executor) -> fetch(key).toFuture()))
+                .map(snapshot -> snapshot.hasAll(userId, permissions) ? Decision.GRANTED : Decision.DENIED)
+                .onErrorResume(e -> {
+                    log.warn("Permission snapshot unavailable for tenant {}, deferring to downstream: {}",
+                            tenantId, e.toString());
+                    return Mono.just(Decision.UNKNOWN);
+                });
+    }
+
+    /**
+     * 是否为数值用户ID；旧令牌没有userId声明，用户名不能用于查找快照
+     */
+    private static boolean isNumericId(String userId) {
+        if (!StringUtils.hasText(userId)) {
+            return false;
+        }
+        for (int i = 0; i < userId.length(); i++) {
+            if (!Character.isDigit(userId.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 已缓存快照的租户数量
+     */
+    public long size() {
+        return snapshots.synchronous().estimatedSize();
+    }
+
+    /**
+     * 拉取并编译租户快照
+     */
+    private Mono<TenantPermissions> fetch(String tenantId) {
+        return webClient.get()
+                .uri(SNAPSHOT_PATH, tenantId)
+                .retrieve()
+                .bodyToMono(RESPONSE_TYPE)
+                .timeout(fetchTimeout)
+                .flatMap(response -> {
+                    if (response.getCode() == null || response.getCode() != 200 || response.getData() == null) {
+                        return Mono.error(new IllegalStateException("Permission snapshot rejected: " + response.getMessage()));
+                    }
+                    TenantPermissions snapshot = TenantPermissions.compile(response.getData());
+                    log.debug("Loaded permission snapshot for tenant {}, version: {}, users: {}",
+                            tenantId, snapshot.getVersion(), snapshot.userCount());
+                    return Mono.just(snapshot);
+                });
+    }
+
+    /**
+     * 处理变更事件，消息格式：租户ID:版本号；只刷新已缓存且版本落后的租户，刷新完成前继续使用旧快照
+     */
+    private void onChangeMessage(String message) {
+        int separator = message.lastIndexOf(':');
+        if (separator <= 0) {
+            log.warn("Invalid permission change message: {}", message);
+            return;
+        }
+        String tenantId = message.substring(0, separator);
+        long version;
+        try {
+            version = Long.parseLong(message.substring(separator + 1).trim());
+        } catch (NumberFormatException e) {
+            version = Long.MAX_VALUE;
+        }
+        CompletableFuture<TenantPermissions> cached = snapshots.getIfPresent(tenantId);
+        if (cached == null) {
+            return;
+        }
+        TenantPermissions current = cached.getNow(null);
+        if (current != null && current.getVersion() >= version) {
+            return;
+        }
+        fetch(tenantId).subscribe(
+                snapshot -> snapshots.put(tenantId, CompletableFuture.completedFuture(snapshot)),
+                e -> {
+                    // 无法确认最新权限时丢弃旧快照，下次请求重新加载
+                    log.warn("Failed to refresh permission snapshot for tenant {}: {}", tenantId, e.toString());
+                    snapshots.synchronous().invalidate(tenantId);
+                });
+    }
+
+    /**
+     * 授权结果
+     */
+    public enum Decision {
+        GRANTED,
+        DENIED,
+        /**
+         * 无法在网关判断，交由下游服务鉴权
+         */
+        UNKNOWN
+    }
+}
@@ -0,0 +1,81 @@
+package com.hoxkar.gateway.auth;
+
+import com.hoxkar.common.policy.PermissionBitSet;
+import com.hoxkar.common.policy.PermissionDictionary;
+import com.hoxkar.common.policy.PermissionSnapshot;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译后的租户权限快照
+ * 权限代码按快照中的字典编码为稠密ID，每个用户只保存所属角色位图按位或得到的有效权限位图，
+ * 权限检查为一次字典查找加一次位测试；不可变，可无锁并发读取
+ */
+class TenantPermissions {
+
+    private final long version;
+
+    private final PermissionDictionary dictionary;
+
+    /**
+     * 用户ID -> 有效权限位图
+     */
+    private final Map<String, PermissionBitSet> userPermissions;
+
+    private TenantPermissions(long version, PermissionDictionary dictionary, Map<String, PermissionBitSet> userPermissions) {
+        this.version = version;
+        this.dictionary = dictionary;
+        this.userPermissions = userPermissions;
+    }
+
+    static TenantPermissions compile(PermissionSnapshot snapshot) {
+        PermissionDictionary dictionary = snapshot.getDictionary() != null
+                ? snapshot.getDictionary()
+                : new PermissionDictionary(snapshot.getTenantId(), snapshot.getVersion(), List.of());
+        Map<String, PermissionBitSet> roles = snapshot.getRolePermissions() != null
+                ? snapshot.getRolePermissions()
+                : Map.of();
+        Map<String, PermissionBitSet> users = new HashMap<>();
+        if (snapshot.getUserRoles() != null) {
+            snapshot.getUserRoles().forEach((userId, roleCodes) -> {
+                if (userId == null || roleCodes == null) {
+                    return;
+                }
+                PermissionBitSet granted = PermissionBitSet.EMPTY;
+                for (String roleCode : roleCodes) {
+                    PermissionBitSet role = roles.get(roleCode);
+                    if (role != null) {
+                        granted = granted.or(role);
+                    }
+                }
+                users.put(userId.toString(), granted);
+            });
+        }
+        return new TenantPermissions(snapshot.getVersion(), dictionary, Map.copyOf(users));
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * 用户是否拥有全部指定权限
+     *
+     * @param userId 用户数值ID的字符串形式，与快照的用户ID一致
+     */
+    boolean hasAll(String userId, List<String> permissions) {
+        PermissionBitSet granted = userPermissions.getOrDefault(userId, PermissionBitSet.EMPTY);
+        for (String permission : permissions) {
+            if (!dictionary.contains(granted, permission)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int userCount() {
+        return userPermissions.size();
+    }
+}
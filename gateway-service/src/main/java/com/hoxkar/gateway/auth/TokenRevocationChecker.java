@@ -0,0 +1,256 @@
+package com.hoxkar.gateway.auth;
+
+import com.hoxkar.common.util.JwtTokenUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 令牌吊销检查
+ * 每个网关节点在本地维护布隆过滤器和精确的吊销ID集合，由Redis pub/sub实时推送更新；
+ * 绝大多数有效令牌在内存中即可放行，仅布隆过滤器命中但本地集合缺失时才查询Redis
+ */
+@Slf4j
+@Component
+public class TokenRevocationChecker {
+
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final JwtTokenUtil jwtTokenUtil;
+    private final Duration timeout;
+    private final boolean failOpen;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+    private final Duration rebuildInterval;
+
+    /**
+     * 吊销ID -> 令牌过期时间（毫秒）
+     */
+    private final Map<String, Long> revokedIds = new ConcurrentHashMap<>();
+    private volatile RevocationBloomFilter bloomFilter;
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    public TokenRevocationChecker(ReactiveStringRedisTemplate reactiveRedisTemplate,
+                                  JwtTokenUtil jwtTokenUtil,
+                                  @Value("${gateway.auth.revocation.timeout:200}") long timeoutMillis,
+                                  @Value("${gateway.auth.revocation.fail-open:true}") boolean failOpen,
+                                  @Value("${gateway.auth.revocation.expected-revocations:100000}") long expectedRevocations,
+                                  @Value("${gateway.auth.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                                  @Value("${gateway.auth.revocation.rebuild-interval:600000}") long rebuildIntervalMillis) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.failOpen = failOpen;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildInterval = Duration.ofMillis(rebuildIntervalMillis);
+        this.bloomFilter = new RevocationBloomFilter(expectedRevocations, falsePositiveRate);
+    }
+
+    /**
+     * 订阅吊销事件并加载已有黑名单；等订阅在Redis上注册完成后才开始扫描黑名单，
+     * 扫描期间发布的事件不会丢失。快照中的条目不覆盖已由事件写入的条目（事件更新），
+     * 但读取快照值之后、写入本地之前到达的撤销吊销事件仍可能被快照覆盖，该条目保留到令牌过期。
+     * 连接断开重连后会重新订阅并加载一次全量黑名单
+     */
+    @PostConstruct
+    public void start() {
+        Flux<Void> sync = reactiveRedisTemplate.listenToChannelLater(JwtTokenUtil.TOKEN_REVOCATION_CHANNEL)
+                .flatMapMany(messages -> Flux.merge(
+                        messages.doOnNext(message -> onRevocationMessage(message.getMessage())).then(),
+                        loadSnapshot()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Token revocation subscription lost, retrying: {}",
+                                signal.failure().toString())));
+        subscriptions.add(sync.subscribe());
+        subscriptions.add(Flux.interval(rebuildInterval, rebuildInterval)
+                .subscribe(tick -> rebuild()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.dispose();
+    }
+
+    /**
+     * 检查令牌是否已被吊销
+     * 布隆过滤器未命中直接放行；本地集合命中直接拒绝；其余情况回源Redis，
+     * Redis超时或异常时按配置策略处理：fail-open视为未吊销，fail-closed视为已吊销
+     */
+    public Mono<Boolean> isRevoked(VerifiedPrincipal principal) {
+        String revocationId = principal.getRevocationId();
+        if (!bloomFilter.mightContain(revocationId)) {
+            return Mono.just(Boolean.FALSE);
+        }
+        Long expiresAt = revokedIds.get(revocationId);
+        if (expiresAt != null) {
+            return Mono.just(expiresAt > System.currentTimeMillis());
+        }
+        return reactiveRedisTemplate.hasKey(JwtTokenUtil.TOKEN_BLACKLIST_PREFIX + revocationId)
+                .timeout(timeout)
+                .defaultIfEmpty(Boolean.FALSE)
+                .onErrorResume(e -> {
+                    log.warn("Token revocation check failed, fail-open: {}, cause: {}", failOpen, e.toString());
+                    return Mono.just(!failOpen);
+                });
+    }
+
+    /**
+     * 当前本地吊销ID数量
+     */
+    public int size() {
+        return revokedIds.size();
+    }
+
+    /**
+     * 加载Redis中已有的黑名单
+     */
+    private Mono<Void> loadSnapshot() {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(JwtTokenUtil.TOKEN_BLACKLIST_PREFIX + "*")
+                .count(1000)
+                .build();
+        return reactiveRedisTemplate.scan(options)
+                .flatMap(this::loadEntry, 16)
+                .then()
+                .doOnSuccess(v -> log.info("Token revocation snapshot loaded, size: {}", revokedIds.size()));
+    }
+
+    /**
+     * 加载一个黑名单条目；值应为令牌过期时间，无法解析时按键的剩余TTL推算
+     */
+    private Mono<Void> loadEntry(String key) {
+        String suffix = key.substring(JwtTokenUtil.TOKEN_BLACKLIST_PREFIX.length());
+        if (isLegacyKey(suffix)) {
+            return migrateLegacyEntry(key, suffix);
+        }
+        return reactiveRedisTemplate.opsForValue().get(key)
+                .flatMap(value -> {
+                    Long expiresAt = parseExpiresAt(value);
+                    // 既无法解析又没有TTL时保守处理，保留在本地直到网关重启
+                    return expiresAt != null ? Mono.just(expiresAt)
+                            : expiresAtFromTtl(key).defaultIfEmpty(Long.MAX_VALUE);
+                })
+                .doOnNext(expiresAt -> registerSnapshot(suffix, expiresAt))
+                .then();
+    }
+
+    /**
+     * 旧版黑名单以完整令牌为键（token_blacklist:{令牌}），值不含过期时间；
+     * 换算为吊销ID后按键的剩余TTL（无TTL时取令牌exp）登记，并补写新格式的键，
+     * 使只按吊销ID查询的各服务也能识别。签名无效或已过期的令牌跳过
+     */
+    private Mono<Void> migrateLegacyEntry(String key, String token) {
+        String revocationId;
+        try {
+            revocationId = jwtTokenUtil.getRevocationId(token);
+        } catch (Exception e) {
+            log.debug("Skipping unreadable legacy blacklist entry: {}", e.getMessage());
+            return Mono.empty();
+        }
+        return expiresAtFromTtl(key)
+                .switchIfEmpty(Mono.fromCallable(() -> jwtTokenUtil.extractExpiration(token).getTime())
+                        .onErrorResume(e -> Mono.empty()))
+                .filter(expiresAt -> expiresAt > System.currentTimeMillis())
+                .flatMap(expiresAt -> {
+                    registerSnapshot(revocationId, expiresAt);
+                    Duration ttl = Duration.ofMillis(expiresAt - System.currentTimeMillis());
+                    return reactiveRedisTemplate.opsForValue()
+                            .setIfAbsent(JwtTokenUtil.TOKEN_BLACKLIST_PREFIX + revocationId, String.valueOf(expiresAt), ttl)
+                            .onErrorResume(e -> {
+                                log.warn("Failed to migrate legacy blacklist entry: {}", e.toString());
+                                return Mono.just(Boolean.FALSE);
+                            });
+                })
+                .then();
+    }
+
+    /**
+     * 按键的剩余TTL推算过期时间；键没有TTL或已不存在时为空
+     */
+    private Mono<Long> expiresAtFromTtl(String key) {
+        return reactiveRedisTemplate.getExpire(key)
+                .filter(ttl -> !ttl.isZero() && !ttl.isNegative())
+                .map(ttl -> System.currentTimeMillis() + ttl.toMillis());
+    }
+
+    /**
+     * 吊销ID为jti（UUID）或令牌摘要（base64url），都不含'.'；含'.'的是旧版的完整令牌
+     */
+    private static boolean isLegacyKey(String suffix) {
+        return suffix.indexOf('.') >= 0;
+    }
+
+    /**
+     * 处理吊销事件，消息格式：吊销ID:过期时间毫秒
+     */
+    private void onRevocationMessage(String message) {
+        int separator = message.lastIndexOf(':');
+        if (separator <= 0) {
+            log.warn("Invalid token revocation message: {}", message);
+            return;
+        }
+        Long expiresAt = parseExpiresAt(message.substring(separator + 1));
+        if (expiresAt == null) {
+            log.warn("Invalid token revocation message: {}", message);
+            return;
+        }
+        register(message.substring(0, separator), expiresAt);
+    }
+
+    /**
+     * 快照条目不覆盖加载期间已由事件写入的条目
+     */
+    private void registerSnapshot(String revocationId, long expiresAt) {
+        if (revokedIds.putIfAbsent(revocationId, expiresAt) == null) {
+            bloomFilter.put(revocationId);
+        }
+    }
+
+    private void register(String revocationId, long expiresAt) {
+        if (expiresAt <= 0) {
+            revokedIds.remove(revocationId);
+            log.debug("Token revocation lifted: {}", revocationId);
+            return;
+        }
+        revokedIds.put(revocationId, expiresAt);
+        bloomFilter.put(revocationId);
+        log.debug("Token revoked: {}", revocationId);
+    }
+
+    private static Long parseExpiresAt(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 布隆过滤器不支持删除，定期清理已过期的吊销ID并重建
+     */
+    private void rebuild() {
+        long now = System.currentTimeMillis();
+        revokedIds.values().removeIf(expiresAt -> expiresAt <= now);
+        RevocationBloomFilter rebuilt = new RevocationBloomFilter(
+                Math.max(expectedRevocations, revokedIds.size() * 2L), falsePositiveRate);
+        revokedIds.keySet().forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+        // 重建期间新增的ID补充写入新过滤器
+        revokedIds.keySet().forEach(rebuilt::put);
+        log.debug("Token revocation bloom filter rebuilt, size: {}", revokedIds.size());
+    }
+}
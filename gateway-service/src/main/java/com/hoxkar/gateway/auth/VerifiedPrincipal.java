@@ -0,0 +1,57 @@
+package com.hoxkar.gateway.auth;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 已验证的JWT主体
+ * 令牌签名验证通过后解析得到的不可变结果，供网关各过滤器共享
+ */
+@Getter
+@RequiredArgsConstructor
+public class VerifiedPrincipal {
+
+    /**
+     * 交换属性键，后续过滤器通过该键读取已验证主体
+     */
+    public static final String EXCHANGE_ATTRIBUTE = VerifiedPrincipal.class.getName();
+
+    /**
+     * 用户数值ID，未携带用户ID声明的旧令牌为null
+     */
+    private final String userId;
+    private final String username;
+    private final String tenantId;
+
+    /**
+     * 吊销ID（jti或令牌摘要），用于黑名单检查
+     */
+    private final String revocationId;
+
+    /**
+     * 令牌过期时间（毫秒时间戳）
+     */
+    private final long expiresAt;
+
+    /**
+     * 令牌携带的权限位图（base64），未携带时为null
+     */
+    private final String permissionBits;
+
+    /**
+     * 权限位图对应的字典版本号，未携带权限声明时为null
+     */
+    private final String permissionVersion;
+
+    /**
+     * 过大位图的引用，未使用引用时为null
+     */
+    private final String permissionReference;
+
+    /**
+     * 是否已过期
+     */
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAt;
+    }
+}
@@ -0,0 +1,144 @@
+package com.hoxkar.gateway.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.hoxkar.common.policy.PermissionClaim;
+import com.hoxkar.common.util.JwtTokenUtil;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已验证主体缓存
+ * 每个令牌只做一次签名验证，结果按令牌摘要缓存，过期时间不超过令牌自身的exp
+ */
+@Slf4j
+@Component
+public class VerifiedPrincipalCache {
+
+    private final JwtTokenUtil jwtTokenUtil;
+    private final Cache<String, VerifiedPrincipal> cache;
+
+    public VerifiedPrincipalCache(JwtTokenUtil jwtTokenUtil,
+                                  @Value("${gateway.auth.principal-cache.max-size:100000}") long maxSize,
+                                  @Value("${gateway.auth.principal-cache.max-ttl:300000}") long maxTtlMillis) {
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(maxTtlMillis))
+                .build();
+    }
+
+    /**
+     * 解析并验证令牌，命中缓存时不再重复验签
+     *
+     * @return 已验证主体；令牌无效或已过期时返回null
+     */
+    public VerifiedPrincipal resolve(String token) {
+        String key = digest(token);
+        VerifiedPrincipal principal = cache.getIfPresent(key);
+        long now = System.currentTimeMillis();
+        if (principal != null && !principal.isExpired(now)) {
+            return principal;
+        }
+
+        principal = verify(token);
+        if (principal == null || principal.isExpired(now)) {
+            return null;
+        }
+        cache.put(key, principal);
+        return principal;
+    }
+
+    /**
+     * 使指定令牌的缓存失效
+     */
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    /**
+     * 当前缓存条目数（近似值）
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private VerifiedPrincipal verify(String token) {
+        try {
+            Claims claims = jwtTokenUtil.parseToken(token);
+            if (claims.getExpiration() == null) {
+                return null;
+            }
+            return new VerifiedPrincipal(
+                    stringClaim(claims, JwtTokenUtil.USER_ID_CLAIM),
+                    claims.getSubject(),
+                    claims.get("tenantId", String.class),
+                    jwtTokenUtil.getRevocationId(claims, token),
+                    claims.getExpiration().getTime(),
+                    claims.get(PermissionClaim.BITS_CLAIM, String.class),
+                    stringClaim(claims, PermissionClaim.VERSION_CLAIM),
+                    claims.get(PermissionClaim.REFERENCE_CLAIM, String.class));
+        } catch (Exception e) {
+            log.debug("JWT verification failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 数值声明的字符串形式，不存在时为null
+     */
+    private static String stringClaim(Claims claims, String name) {
+        Object value = claims.get(name);
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * 计算令牌摘要作为缓存键，避免在内存中长期持有原始令牌
+     */
+    private static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * 条目过期策略：取令牌剩余有效期与最大TTL中的较小值
+     */
+    private static class TokenExpiry implements Expiry<String, VerifiedPrincipal> {
+
+        private final long maxTtlMillis;
+
+        TokenExpiry(long maxTtlMillis) {
+            this.maxTtlMillis = maxTtlMillis;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedPrincipal value, long currentTime) {
+            long remaining = value.getExpiresAt() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, Math.min(remaining, maxTtlMillis)));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
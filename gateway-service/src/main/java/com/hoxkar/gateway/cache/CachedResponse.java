@@ -0,0 +1,36 @@
+package com.hoxkar.gateway.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+/**
+ * 缓存的响应
+ * 只缓存200响应的正文、内容类型与ETag，不可变
+ */
+@Getter
+@RequiredArgsConstructor
+public class CachedResponse {
+
+    /**
+     * 每个条目除正文与键之外的估算开销（字节）
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final byte[] body;
+    private final MediaType contentType;
+    private final String etag;
+
+    /**
+     * 存活时间（纳秒），按路由配置
+     */
+    private final long ttlNanos;
+
+    /**
+     * 条目占用的估算字节数，用于按字节数淘汰
+     */
+    int weight(ResponseCacheKey key) {
+        int weight = ENTRY_OVERHEAD + body.length + key.length() * 2 + etag.length() * 2;
+        return weight < 0 ? Integer.MAX_VALUE : weight;
+    }
+}
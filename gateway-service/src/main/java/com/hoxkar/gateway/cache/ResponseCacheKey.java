@@ -0,0 +1,16 @@
+package com.hoxkar.gateway.cache;
+
+/**
+ * 响应缓存键
+ *
+ * @param routeId  路由ID
+ * @param tenantId 租户ID，无租户时为空串
+ * @param userId   用户ID，路由不按用户区分时为空串
+ * @param resource 请求路径及查询串
+ */
+public record ResponseCacheKey(String routeId, String tenantId, String userId, String resource) {
+
+    int length() {
+        return routeId.length() + tenantId.length() + userId.length() + resource.length();
+    }
+}
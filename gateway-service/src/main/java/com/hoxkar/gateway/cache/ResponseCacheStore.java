@@ -0,0 +1,177 @@
+package com.hoxkar.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.hoxkar.common.policy.PermissionSnapshot;
+import com.hoxkar.common.policy.ResponseCachePurge;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 网关响应缓存存储
+ * 有界的进程内缓存，按条目估算字节数淘汰，每个条目按所属路由的TTL过期；
+ * 订阅清除频道与权限变更频道，收到事件后清除对应路由/租户的条目
+ */
+@Slf4j
+@Component
+public class ResponseCacheStore {
+
+    /**
+     * 清除频道，消息格式：路由ID:租户ID，任一部分为 * 表示全部；由各服务在提交变更后发布
+     */
+    public static final String PURGE_CHANNEL = ResponseCachePurge.CHANNEL;
+
+    private static final String ANY = ResponseCachePurge.ANY;
+
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final int maxEntryBytes;
+    private final Cache<ResponseCacheKey, CachedResponse> cache;
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder purged = new LongAdder();
+    private Disposable subscription;
+
+    public ResponseCacheStore(ReactiveStringRedisTemplate reactiveRedisTemplate,
+                              @Value("${gateway.response-cache.max-bytes:67108864}") long maxBytes,
+                              @Value("${gateway.response-cache.max-entry-bytes:1048576}") int maxEntryBytes) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.maxEntryBytes = maxEntryBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((ResponseCacheKey key, CachedResponse value) -> value.weight(key))
+                .expireAfter(new Expiry<ResponseCacheKey, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(ResponseCacheKey key, CachedResponse value, long currentTime) {
+                        return value.getTtlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ResponseCacheKey key, CachedResponse value, long currentTime,
+                                                  long currentDuration) {
+                        return value.getTtlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(ResponseCacheKey key, CachedResponse value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 订阅清除事件；权限变更会影响该租户的各类响应，清除该租户在所有路由上的条目
+     */
+    @PostConstruct
+    public void start() {
+        subscription = reactiveRedisTemplate.listenToChannel(PURGE_CHANNEL, PermissionSnapshot.CHANGE_CHANNEL)
+                .doOnNext(this::onMessage)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Response cache purge subscription lost, retrying: {}",
+                                signal.failure().toString())))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    public CachedResponse get(ResponseCacheKey key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * 写入缓存；正文超过单条上限时不缓存
+     */
+    public void put(ResponseCacheKey key, CachedResponse response) {
+        if (response.getBody().length <= maxEntryBytes) {
+            cache.put(key, response);
+        }
+    }
+
+    /**
+     * 单条缓存正文的字节数上限
+     */
+    public int getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    /**
+     * 记录一次304重新验证
+     */
+    public void recordNotModified() {
+        notModified.increment();
+    }
+
+    /**
+     * 清除条目
+     *
+     * @param routeId  路由ID，null表示全部路由
+     * @param tenantId 租户ID，null表示全部租户
+     * @return 清除的条目数
+     */
+    public int purge(String routeId, String tenantId) {
+        int before = cache.asMap().size();
+        cache.asMap().keySet().removeIf(key ->
+                (routeId == null || routeId.equals(key.routeId()))
+                        && (tenantId == null || tenantId.equals(key.tenantId())));
+        int removed = Math.max(0, before - cache.asMap().size());
+        purged.add(removed);
+        log.debug("Response cache purged, route: {}, tenant: {}, entries: {}", routeId, tenantId, removed);
+        return removed;
+    }
+
+    /**
+     * 缓存统计
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("entries", cache.estimatedSize());
+        result.put("weightedBytes", cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L));
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("notModified", notModified.sum());
+        result.put("evictions", stats.evictionCount());
+        result.put("purged", purged.sum());
+        return result;
+    }
+
+    private void onMessage(ReactiveSubscription.Message<String, String> message) {
+        String body = message.getMessage();
+        int separator = body.indexOf(':');
+        if (separator <= 0) {
+            log.warn("Invalid response cache purge message: {}", body);
+            return;
+        }
+        if (PermissionSnapshot.CHANGE_CHANNEL.equals(message.getChannel())) {
+            purge(null, body.substring(0, separator));
+            return;
+        }
+        String routeId = body.substring(0, separator);
+        String tenantId = body.substring(separator + 1);
+        purge(ANY.equals(routeId) ? null : routeId, ANY.equals(tenantId) ? null : tenantId);
+    }
+}
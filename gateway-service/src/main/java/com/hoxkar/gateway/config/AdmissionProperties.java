@@ -0,0 +1,57 @@
+package com.hoxkar.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Tenant Admission Configuration
+/**
+ * Gateway-wide admission control with tenant-priority load shedding // 网关全局准入控制与按租户优先级的降载配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.admission")
+public class AdmissionProperties {
+    /**
+     * Whether admission control is enabled // 是否启用
+     */
+    private boolean enabled = true;
+    /**
+     * Maximum in-flight requests on this gateway node // 本节点最大并发请求数
+     */
+    private int maxInflight = 1000;
+    /**
+     * Maximum requests waiting for admission // 最大排队请求数
+     */
+    private int maxQueueSize = 200;
+    /**
+     * Maximum time a request may wait for admission (ms) // 请求最长排队时间（毫秒）
+     */
+    private long maxWait = 500L;
+    /**
+     * Retry-After of shed requests (seconds) // 被降载请求的Retry-After（秒）
+     */
+    private long retryAfter = 1L;
+    /**
+     * Priority of unauthenticated requests // 未认证请求的优先级
+     */
+    private int anonymousPriority = 0;
+    /**
+     * Priority per subscription plan, higher is admitted first // 各订阅计划的优先级，数值越大越优先
+     */
+    private Map<String, Integer> planPriorities = new HashMap<>();
+
+    /**
+     * Priority of a subscription plan; null plan means unauthenticated // 订阅计划的优先级，计划为空表示未认证
+     */
+    public int priorityOf(String plan) {
+        if (plan == null) {
+            return anonymousPriority;
+        }
+        Integer priority = planPriorities.get(plan);
+        return priority != null ? priority : anonymousPriority + 1;
+    }
+}
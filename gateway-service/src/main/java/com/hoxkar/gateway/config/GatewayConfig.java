@@ -1,12 +1,19 @@
 package com.hoxkar.gateway.config;
 
+import com.hoxkar.gateway.auth.VerifiedPrincipal;
+import com.hoxkar.gateway.context.ClientIpResolver;
+import com.hoxkar.gateway.ratelimit.TenantQuotaResolver;
+import com.hoxkar.gateway.ratelimit.TenantRateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsWebFilter;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import reactor.core.publisher.Mono;
 
 import java.util.Arrays;
 
@@ -35,7 +42,8 @@ public class GatewayConfig {
      * Configure routes (optional, can also be configured in application.yml) // 配置路由（可选，也可以在application.yml中配置）
      */
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder, TenantRateLimiter tenantRateLimiter,
+                                           KeyResolver tenantKeyResolver) {
         return builder.routes()
             // Auth service route // 认证服务路由
             .route("auth-service", r -> r
@@ -43,8 +51,8 @@ public class GatewayConfig {
                 .filters(f -> f
                     .stripPrefix(0)
                     .requestRateLimiter(config -> config
-                        .setRateLimiter(redisRateLimiter())
-                        .setKeyResolver(userKeyResolver()))
+                        .setRateLimiter(tenantRateLimiter)
+                        .setKeyResolver(tenantKeyResolver))
                 )
                 .uri("lb://auth-service"))
             // User service route // 用户服务路由
@@ -53,8 +61,8 @@ public class GatewayConfig {
                 .filters(f -> f
                     .stripPrefix(0)
                     .requestRateLimiter(config -> config
-                        .setRateLimiter(redisRateLimiter())
-                        .setKeyResolver(userKeyResolver()))
+                        .setRateLimiter(tenantRateLimiter)
+                        .setKeyResolver(tenantKeyResolver))
                 )
                 .uri("lb://user-service"))
             // Permission service route // 权限服务路由
@@ -63,8 +71,8 @@ public class GatewayConfig {
                 .filters(f -> f
                     .stripPrefix(0)
                     .requestRateLimiter(config -> config
-                        .setRateLimiter(redisRateLimiter())
-                        .setKeyResolver(userKeyResolver()))
+                        .setRateLimiter(tenantRateLimiter)
+                        .setKeyResolver(tenantKeyResolver))
                 )
                 .uri("lb://permission-service"))
             // Tenant service route // 租户服务路由
@@ -73,32 +81,24 @@ public class GatewayConfig {
                 .filters(f -> f
                     .stripPrefix(0)
                     .requestRateLimiter(config -> config
-                        .setRateLimiter(redisRateLimiter())
-                        .setKeyResolver(userKeyResolver()))
+                        .setRateLimiter(tenantRateLimiter)
+                        .setKeyResolver(tenantKeyResolver))
                 )
                 .uri("lb://tenant-service"))
             .build();
     }
     /**
-     * Redis rate limiter configuration // Redis限流器配置
+     * Rate limit key resolver: tenant of the verified principal, otherwise client IP // 限流键解析器：已验证主体的租户，否则为客户端IP
      */
     @Bean
-    public org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter redisRateLimiter() {
-        return new org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter(10, 20);
-    }
-    /**
-     * Rate limit key resolver // 限流键解析器
-     */
-    @Bean
-    public org.springframework.cloud.gateway.filter.ratelimit.KeyResolver userKeyResolver() {
+    @Primary
+    public KeyResolver tenantKeyResolver(ClientIpResolver clientIpResolver) {
         return exchange -> {
-            String userKey = exchange.getRequest().getHeaders().getFirst("X-User-ID");
-            if (userKey != null) {
-                return reactor.core.publisher.Mono.just(userKey);
+            VerifiedPrincipal principal = exchange.getAttribute(VerifiedPrincipal.EXCHANGE_ATTRIBUTE);
+            if (principal != null && principal.getTenantId() != null) {
+                return Mono.just(TenantQuotaResolver.TENANT_KEY_PREFIX + principal.getTenantId());
             }
-            String clientIp = exchange.getRequest().getRemoteAddress() != null ? 
-                exchange.getRequest().getRemoteAddress().getAddress().getHostAddress() : "unknown";
-            return reactor.core.publisher.Mono.just(clientIp);
+            return Mono.just("ip:" + clientIpResolver.resolve(exchange.getRequest()));
         };
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.hoxkar.gateway.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Rate Limit Quota Configuration
+/**
+ * Per-tenant rate limit quota configuration // 租户限流配额配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.rate-limit.quota")
+public class RateLimitQuotaProperties {
+    /**
+     * Base URL of tenant-service // 租户服务地址
+     */
+    private String tenantServiceUrl = "http://tenant-service";
+    /**
+     * Quota refresh interval (ms) // 配额刷新间隔（毫秒）
+     */
+    private long refreshInterval = 60000L;
+    /**
+     * Plan used when a tenant has no known subscription plan // 租户订阅计划未知时使用的计划
+     */
+    private String defaultPlan = "BASIC";
+    /**
+     * Quota for unauthenticated requests (keyed by client IP) // 未认证请求的配额（按客户端IP）
+     */
+    private Quota anonymous = new Quota(10, 20);
+    /**
+     * Default quota per subscription plan // 各订阅计划的默认配额
+     */
+    private Map<String, Quota> plans = new HashMap<>();
+
+    /**
+     * Token bucket quota // 令牌桶配额
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Quota {
+        /**
+         * Tokens replenished per second // 每秒补充的令牌数
+         */
+        private int replenishRate = 10;
+        /**
+         * Maximum burst size // 突发容量
+         */
+        private int burstCapacity = 20;
+    }
+}
@@ -0,0 +1,102 @@
+package com.hoxkar.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+// Route Resilience Configuration
+/**
+ * Per-route adaptive concurrency limit, circuit breaker and retry budget configuration
+ * // 路由级自适应并发限制、熔断与重试预算配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.resilience")
+public class ResilienceProperties {
+    /**
+     * Whether route resilience is enabled // 是否启用
+     */
+    private boolean enabled = true;
+    /**
+     * Adaptive concurrency limit // 自适应并发限制
+     */
+    private Concurrency concurrency = new Concurrency();
+    /**
+     * Circuit breaker // 熔断器
+     */
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    /**
+     * Retry budget // 重试预算
+     */
+    private RetryBudget retryBudget = new RetryBudget();
+
+    /**
+     * Gradient concurrency limit driven by measured latency // 由实测延迟驱动的梯度并发限制
+     */
+    @Data
+    public static class Concurrency {
+        /**
+         * Initial limit // 初始并发上限
+         */
+        private int initialLimit = 50;
+        /**
+         * Minimum limit // 最小并发上限
+         */
+        private int minLimit = 5;
+        /**
+         * Maximum limit // 最大并发上限
+         */
+        private int maxLimit = 500;
+        /**
+         * Latency tolerance before the limit shrinks, short RTT may reach long RTT * tolerance
+         * // 延迟容忍倍数，短期RTT不超过长期RTT的该倍数时不收缩
+         */
+        private double rttTolerance = 1.5;
+        /**
+         * Weight of a new limit estimate // 新估计值的平滑权重
+         */
+        private double smoothing = 0.2;
+        /**
+         * Samples in the long-term RTT average // 长期RTT平均的样本窗口
+         */
+        private int longWindow = 600;
+        /**
+         * Multiplier applied to the limit on an overload failure // 过载失败时上限乘以的系数
+         */
+        private double backoffRatio = 0.9;
+    }
+
+    /**
+     * Consecutive-failure circuit breaker // 连续失败熔断器
+     */
+    @Data
+    public static class CircuitBreaker {
+        /**
+         * Consecutive failures that open the breaker // 打开熔断器的连续失败次数
+         */
+        private int failureThreshold = 5;
+        /**
+         * Time the breaker stays open before a probe (ms) // 熔断打开后允许探测前的时间（毫秒）
+         */
+        private long recoveryTimeout = 10000L;
+    }
+
+    /**
+     * Retry budget, retries may not exceed a ratio of first attempts // 重试预算，重试次数不超过首次请求的一定比例
+     */
+    @Data
+    public static class RetryBudget {
+        /**
+         * Retry tokens deposited by each first attempt // 每个首次请求存入的重试令牌
+         */
+        private double ratio = 0.1;
+        /**
+         * Retries always allowed per second at low traffic // 低流量时每秒始终允许的重试次数
+         */
+        private double minRetriesPerSecond = 5;
+        /**
+         * Maximum retry tokens // 重试令牌上限
+         */
+        private double maxTokens = 100;
+    }
+}
@@ -0,0 +1,107 @@
+package com.hoxkar.gateway.context;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 客户端IP解析
+ * 只有直连地址属于 gateway.trusted-proxies 时才采信 X-Forwarded-For / X-Real-IP：
+ * 从右向左跳过可信代理追加的地址，第一个不可信的地址即为客户端IP；
+ * 直连地址不可信时这两个头由客户端任意填写，一律忽略，直接使用直连地址
+ */
+@Slf4j
+@Component
+public class ClientIpResolver {
+
+    public static final String UNKNOWN = "unknown";
+
+    private static final Pattern IPV4 = Pattern.compile("(\\d{1,3}\\.){3}\\d{1,3}");
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public ClientIpResolver(@Value("${gateway.trusted-proxies:}") String[] trustedProxies) {
+        this.trustedProxies = Arrays.stream(trustedProxies)
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    /**
+     * 解析请求的客户端IP
+     */
+    public String resolve(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String remoteIp = remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress() : null;
+        if (remoteIp == null) {
+            return UNKNOWN;
+        }
+        if (!isTrusted(remoteIp)) {
+            return remoteIp;
+        }
+        String forwardedFor = request.getHeaders().getFirst("X-Forwarded-For");
+        if (StringUtils.hasText(forwardedFor)) {
+            String[] hops = forwardedFor.split(",");
+            String client = remoteIp;
+            for (int i = hops.length - 1; i >= 0; i--) {
+                String hop = hops[i].trim();
+                if (hop.isEmpty()) {
+                    continue;
+                }
+                client = hop;
+                if (!isTrusted(hop)) {
+                    break;
+                }
+            }
+            return client;
+        }
+        String realIp = request.getHeaders().getFirst("X-Real-IP");
+        return StringUtils.hasText(realIp) ? realIp.trim() : remoteIp;
+    }
+
+    /**
+     * 是否为可信代理；非IP字面量（如主机名、带端口的地址）一律不可信，避免在事件循环线程上触发DNS解析
+     */
+    boolean isTrusted(String ip) {
+        if (trustedProxies.isEmpty() || !isIpLiteral(ip)) {
+            return false;
+        }
+        for (IpAddressMatcher matcher : trustedProxies) {
+            try {
+                if (matcher.matches(ip)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                log.debug("Ignoring non-literal forwarded address: {}", ip);
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isIpLiteral(String ip) {
+        if (IPV4.matcher(ip).matches()) {
+            return true;
+        }
+        int colons = 0;
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            if (c == ':') {
+                colons++;
+            } else if (c != '.' && Character.digit(c, 16) < 0) {
+                return false;
+            }
+        }
+        return colons >= 2 && colons <= 7;
+    }
+}
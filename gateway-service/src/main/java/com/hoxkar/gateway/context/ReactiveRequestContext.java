@@ -0,0 +1,95 @@
+package com.hoxkar.gateway.context;
+
+import com.hoxkar.common.trace.RequestIdGenerator;
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import org.slf4j.MDC;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * 网关请求上下文（Reactor Context）
+ * 请求ID、租户ID与用户ID随订阅链在Reactor Context中传递，过滤器链上不常驻任何ThreadLocal；
+ * 需要在日志中带上请求上下文时，通过 {@link #log(boolean, Runnable)} 在当前线程上临时写入MDC，
+ * 日志语句执行结束后立即恢复
+ */
+public final class ReactiveRequestContext {
+
+    /**
+     * Context键：请求ID，与MDC键一致
+     */
+    public static final String REQUEST_ID = RequestIdGenerator.MDC_KEY;
+
+    /**
+     * Context键：租户ID，桥接到同名MDC键
+     */
+    public static final String TENANT_ID = "tenantId";
+
+    /**
+     * Context键：用户ID，桥接到同名MDC键
+     */
+    public static final String USER_ID = "userId";
+
+    private static final ContextSnapshotFactory SNAPSHOT_FACTORY;
+
+    static {
+        ContextRegistry registry = ContextRegistry.getInstance();
+        registry.registerThreadLocalAccessor(REQUEST_ID,
+                () -> MDC.get(REQUEST_ID),
+                value -> MDC.put(REQUEST_ID, value),
+                () -> MDC.remove(REQUEST_ID));
+        registry.registerThreadLocalAccessor(TENANT_ID,
+                () -> MDC.get(TENANT_ID),
+                value -> MDC.put(TENANT_ID, value),
+                () -> MDC.remove(TENANT_ID));
+        registry.registerThreadLocalAccessor(USER_ID,
+                () -> MDC.get(USER_ID),
+                value -> MDC.put(USER_ID, value),
+                () -> MDC.remove(USER_ID));
+        SNAPSHOT_FACTORY = ContextSnapshotFactory.builder().contextRegistry(registry).build();
+    }
+
+    private ReactiveRequestContext() {
+    }
+
+    /**
+     * 写入请求ID
+     */
+    public static Context withRequestId(Context context, String requestId) {
+        return requestId != null ? context.put(REQUEST_ID, requestId) : context;
+    }
+
+    /**
+     * 写入已验证主体的租户ID与用户ID
+     */
+    public static Context withPrincipal(Context context, String tenantId, String userId) {
+        Context result = tenantId != null ? context.put(TENANT_ID, tenantId) : context;
+        return userId != null ? result.put(USER_ID, userId) : result;
+    }
+
+    /**
+     * 写入租户ID；已有租户ID（来自已验证主体）时保持不变
+     */
+    public static Context withTenantIfAbsent(Context context, String tenantId) {
+        return tenantId == null || context.hasKey(TENANT_ID) ? context : context.put(TENANT_ID, tenantId);
+    }
+
+    /**
+     * 执行日志语句，执行期间把当前请求的请求ID、租户ID与用户ID写入MDC；不切换线程
+     *
+     * @param enabled   日志级别是否启用，未启用时不读取Context、不执行语句
+     * @param statement 日志语句
+     */
+    public static Mono<Void> log(boolean enabled, Runnable statement) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.deferContextual(view -> {
+            try (ContextSnapshot.Scope scope = SNAPSHOT_FACTORY.setThreadLocalsFrom(view, REQUEST_ID, TENANT_ID, USER_ID)) {
+                statement.run();
+            }
+            return Mono.empty();
+        });
+    }
+}
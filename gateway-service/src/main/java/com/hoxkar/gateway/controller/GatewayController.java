@@ -1,11 +1,18 @@
 package com.hoxkar.gateway.controller;
 
 import com.hoxkar.common.pojo.vo.ApiResponse;
+import com.hoxkar.gateway.accesslog.AccessLogWriter;
+import com.hoxkar.gateway.admission.TenantAdmissionController;
+import com.hoxkar.gateway.cache.ResponseCacheStore;
+import com.hoxkar.gateway.hedge.HedgeRegistry;
+import com.hoxkar.gateway.metrics.GatewayLatencyMetrics;
+import com.hoxkar.gateway.resilience.RouteResilienceRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -22,6 +29,18 @@ import java.util.Map;
 public class GatewayController {
     @Autowired
     private RouteLocator routeLocator;
+    @Autowired
+    private AccessLogWriter accessLogWriter;
+    @Autowired
+    private ResponseCacheStore responseCacheStore;
+    @Autowired
+    private RouteResilienceRegistry routeResilienceRegistry;
+    @Autowired
+    private HedgeRegistry hedgeRegistry;
+    @Autowired
+    private TenantAdmissionController admissionController;
+    @Autowired
+    private GatewayLatencyMetrics latencyMetrics;
     @GetMapping("/routes")
     @Operation(summary = "Get Route Info", description = "Get all route configurations of the current gateway") // 获取路由信息，获取当前网关的所有路由配置
     public ApiResponse<Map<String, Object>> getRoutes() {
@@ -82,4 +101,82 @@ public class GatewayController {
             return ApiResponse.error("Failed to get gateway info"); // 获取网关信息失败
         }
     }
+    @GetMapping("/access-log/stats")
+    @Operation(summary = "Access Log Stats", description = "Get written, dropped and sampled-out counters of the async access log") // 访问日志统计，获取异步访问日志的写入、丢弃和采样丢弃计数
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<Map<String, Object>> getAccessLogStats() {
+        try {
+            return ApiResponse.success(accessLogWriter.getStats());
+        } catch (Exception e) {
+            log.error("Failed to get access log stats", e); // 获取访问日志统计失败
+            return ApiResponse.error("Failed to get access log stats"); // 获取访问日志统计失败
+        }
+    }
+    @GetMapping("/response-cache/stats")
+    @Operation(summary = "Response Cache Stats", description = "Get entries, weighted bytes, hit rate and revalidation counters of the response cache") // 响应缓存统计，获取响应缓存的条目数、占用字节、命中率与重新验证计数
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<Map<String, Object>> getResponseCacheStats() {
+        try {
+            return ApiResponse.success(responseCacheStore.getStats());
+        } catch (Exception e) {
+            log.error("Failed to get response cache stats", e); // 获取响应缓存统计失败
+            return ApiResponse.error("Failed to get response cache stats"); // 获取响应缓存统计失败
+        }
+    }
+    @DeleteMapping("/response-cache")
+    @Operation(summary = "Purge Response Cache", description = "Purge cached responses of a route and/or tenant on this node; all entries if both are empty") // 清除响应缓存，按路由和/或租户清除本节点的缓存，均为空时清除全部
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<Integer> purgeResponseCache(@RequestParam(required = false) String routeId,
+                                                   @RequestParam(required = false) String tenantId) {
+        try {
+            return ApiResponse.success(responseCacheStore.purge(routeId, tenantId));
+        } catch (Exception e) {
+            log.error("Failed to purge response cache", e); // 清除响应缓存失败
+            return ApiResponse.error("Failed to purge response cache"); // 清除响应缓存失败
+        }
+    }
+    @GetMapping("/resilience/stats")
+    @Operation(summary = "Route Resilience Stats", description = "Get per-route concurrency limit, inflight requests, circuit state, retry tokens and rejection counters") // 路由韧性统计，获取各路由的并发上限、进行中请求数、熔断状态、重试令牌与拒绝计数
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<Map<String, Map<String, Object>>> getResilienceStats() {
+        try {
+            return ApiResponse.success(routeResilienceRegistry.getStats());
+        } catch (Exception e) {
+            log.error("Failed to get route resilience stats", e); // 获取路由韧性统计失败
+            return ApiResponse.error("Failed to get route resilience stats"); // 获取路由韧性统计失败
+        }
+    }
+    @GetMapping("/hedging/stats")
+    @Operation(summary = "Hedged Request Stats", description = "Get per-route hedge delay, request, hedge and hedge-win counters") // 对冲请求统计，获取各路由的对冲延迟、请求数、对冲数与对冲胜出数
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<Map<String, Map<String, Object>>> getHedgingStats() {
+        try {
+            return ApiResponse.success(hedgeRegistry.getStats());
+        } catch (Exception e) {
+            log.error("Failed to get hedging stats", e); // 获取对冲请求统计失败
+            return ApiResponse.error("Failed to get hedging stats"); // 获取对冲请求统计失败
+        }
+    }
+    @GetMapping("/admission/stats")
+    @Operation(summary = "Admission Control Stats", description = "Get in-flight, waiting and active tenant counts and shed counters of tenant admission control") // 准入控制统计，获取进行中请求数、排队数、活跃租户数与降载计数
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<Map<String, Object>> getAdmissionStats() {
+        try {
+            return ApiResponse.success(admissionController.getStats());
+        } catch (Exception e) {
+            log.error("Failed to get admission control stats", e); // 获取准入控制统计失败
+            return ApiResponse.error("Failed to get admission control stats"); // 获取准入控制统计失败
+        }
+    }
+    @GetMapping("/metrics/latency")
+    @Operation(summary = "Latency Summary", description = "Get count, mean, P50/P95/P99 and max latency (ms) per stage, route and outcome") // 延迟摘要，按阶段、路由与结果获取请求数、平均值、P50/P95/P99与最大延迟（毫秒）
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<Map<String, Map<String, Map<String, Object>>>> getLatencySummary() {
+        try {
+            return ApiResponse.success(latencyMetrics.getSummary());
+        } catch (Exception e) {
+            log.error("Failed to get latency summary", e); // 获取延迟摘要失败
+            return ApiResponse.error("Failed to get latency summary"); // 获取延迟摘要失败
+        }
+    }
 }
\ No newline at end of file
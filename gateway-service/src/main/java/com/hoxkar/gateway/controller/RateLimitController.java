@@ -1,7 +1,10 @@
 package com.hoxkar.gateway.controller;
 
 import com.hoxkar.common.pojo.vo.ApiResponse;
-import com.hoxkar.gateway.filter.RateLimitFilter;
+import com.hoxkar.gateway.ratelimit.HeavyHitter;
+import com.hoxkar.gateway.ratelimit.HeavyHitterTracker;
+import com.hoxkar.gateway.ratelimit.RateLimitStats;
+import com.hoxkar.gateway.ratelimit.TenantRateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -9,8 +12,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -23,53 +29,78 @@ import java.util.Map;
 public class RateLimitController {
     
     @Autowired
-    private RateLimitFilter rateLimitFilter;
+    private TenantRateLimiter tenantRateLimiter;
     
-    @GetMapping("/stats/{clientIp}/{path}")
-    @Operation(summary = "获取限流统计信息", description = "获取指定客户端和路径的限流统计信息")
+    @Autowired
+    private HeavyHitterTracker heavyHitterTracker;
+    
+    @GetMapping("/stats/{key}")
+    @Operation(summary = "获取限流统计信息", description = "获取指定限流键的限流统计信息")
     @PreAuthorize("hasRole('ADMIN')")
-    public ApiResponse<RateLimitFilter.RateLimitStats> getRateLimitStats(
-            @Parameter(description = "客户端IP") @PathVariable String clientIp,
-            @Parameter(description = "请求路径") @PathVariable String path) {
-        try {
-            RateLimitFilter.RateLimitStats stats = rateLimitFilter.getRateLimitStats(clientIp, path);
-            return ApiResponse.success(stats);
-        } catch (Exception e) {
-            log.error("获取限流统计信息失败", e);
-            return ApiResponse.error("获取限流统计信息失败");
-        }
+    public Mono<ApiResponse<RateLimitStats>> getRateLimitStats(
+            @Parameter(description = "限流键：tenant:{租户ID} 或 ip:{客户端IP}") @PathVariable String key) {
+        return tenantRateLimiter.getStats(key)
+            .map(ApiResponse::success)
+            .onErrorResume(e -> {
+                log.error("获取限流统计信息失败", e);
+                return Mono.just(ApiResponse.<RateLimitStats>error("获取限流统计信息失败"));
+            });
     }
     
-    @GetMapping("/count/{clientIp}/{path}")
-    @Operation(summary = "获取当前限流计数", description = "获取指定客户端和路径的当前限流计数")
+    @GetMapping("/count/{key}")
+    @Operation(summary = "获取当前限流计数", description = "获取指定限流键的当前限流计数")
     @PreAuthorize("hasRole('ADMIN')")
-    public ApiResponse<Long> getCurrentCount(
-            @Parameter(description = "客户端IP") @PathVariable String clientIp,
-            @Parameter(description = "请求路径") @PathVariable String path) {
-        try {
-            Long count = rateLimitFilter.getCurrentCount(clientIp, path);
-            return ApiResponse.success(count);
-        } catch (Exception e) {
-            log.error("获取限流计数失败", e);
-            return ApiResponse.error("获取限流计数失败");
-        }
+    public Mono<ApiResponse<Long>> getCurrentCount(
+            @Parameter(description = "限流键：tenant:{租户ID} 或 ip:{客户端IP}") @PathVariable String key) {
+        return tenantRateLimiter.getStats(key)
+            .map(stats -> ApiResponse.success(stats.getCurrentCount()))
+            .onErrorResume(e -> {
+                log.error("获取限流计数失败", e);
+                return Mono.just(ApiResponse.<Long>error("获取限流计数失败"));
+            });
     }
     
-    @DeleteMapping("/reset/{clientIp}/{path}")
-    @Operation(summary = "重置限流计数", description = "重置指定客户端和路径的限流计数")
+    @GetMapping("/top")
+    @Operation(summary = "获取热点流量", description = "按客户端、租户、路由维度获取请求成本最高的前N个键（近似统计）")
     @PreAuthorize("hasRole('ADMIN')")
-    public ApiResponse<Void> resetCount(
-            @Parameter(description = "客户端IP") @PathVariable String clientIp,
-            @Parameter(description = "请求路径") @PathVariable String path) {
+    public ApiResponse<Map<String, List<HeavyHitter>>> getTopTalkers(
+            @Parameter(description = "统计维度：CLIENT、TENANT、ROUTE，为空时返回全部维度") @RequestParam(required = false) String dimension,
+            @Parameter(description = "返回数量") @RequestParam(defaultValue = "10") int limit) {
         try {
-            rateLimitFilter.resetCount(clientIp, path);
-            return ApiResponse.success(null);
+            Map<String, List<HeavyHitter>> result = new LinkedHashMap<>();
+            if (dimension != null && !dimension.isEmpty()) {
+                HeavyHitterTracker.Dimension d = HeavyHitterTracker.Dimension.valueOf(dimension.toUpperCase());
+                result.put(d.name(), heavyHitterTracker.top(d, limit));
+            } else {
+                for (HeavyHitterTracker.Dimension d : HeavyHitterTracker.Dimension.values()) {
+                    result.put(d.name(), heavyHitterTracker.top(d, limit));
+                }
+            }
+            return ApiResponse.success(result);
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(400, "不支持的统计维度: " + dimension);
         } catch (Exception e) {
-            log.error("重置限流计数失败", e);
-            return ApiResponse.error("重置限流计数失败");
+            log.error("获取热点流量失败", e);
+            return ApiResponse.error("获取热点流量失败");
         }
     }
     
+    @DeleteMapping("/reset/{key}")
+    @Operation(summary = "重置限流计数", description = "重置指定限流键的限流计数")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ApiResponse<Void>> resetCount(
+            @Parameter(description = "限流键：tenant:{租户ID} 或 ip:{客户端IP}") @PathVariable String key) {
+        return tenantRateLimiter.reset(key)
+            .then(Mono.fromCallable(() -> {
+                log.info("Rate limit count reset for key: {}", key);
+                return ApiResponse.<Void>success(null);
+            }))
+            .onErrorResume(e -> {
+                log.error("重置限流计数失败", e);
+                return Mono.just(ApiResponse.<Void>error("重置限流计数失败"));
+            });
+    }
+    
     @DeleteMapping("/reset/all")
     @Operation(summary = "重置所有限流计数", description = "重置所有客户端的限流计数")
     @PreAuthorize("hasRole('SUPER_ADMIN')")
@@ -0,0 +1,46 @@
+package com.hoxkar.gateway.filter;
+
+import com.hoxkar.gateway.auth.VerifiedPrincipal;
+import com.hoxkar.gateway.metrics.GatewayLatencyMetrics;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+// Chain Latency Filter
+/**
+ * Filter chain latency filter // 过滤器链延迟过滤器
+ * Times the whole gateway filter chain per route and outcome, including the upstream call and response write
+ * // 按路由与结果记录整个网关过滤器链的耗时，包括上游调用与响应写出
+ */
+@Component
+public class ChainLatencyFilter implements GlobalFilter, Ordered {
+
+    private final GatewayLatencyMetrics latencyMetrics;
+
+    public ChainLatencyFilter(GatewayLatencyMetrics latencyMetrics) {
+        this.latencyMetrics = latencyMetrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+            .doFinally(signalType -> {
+                // Principal is only known after JwtAuthenticationFilter ran // 已验证主体在JwtAuthenticationFilter之后才可用
+                VerifiedPrincipal principal = exchange.getAttribute(VerifiedPrincipal.EXCHANGE_ATTRIBUTE);
+                latencyMetrics.recordChain(GatewayLatencyMetrics.routeId(exchange),
+                    principal != null ? principal.getTenantId() : null,
+                    GatewayLatencyMetrics.outcome(exchange.getResponse().getStatusCode(), signalType),
+                    System.nanoTime() - start);
+            });
+    }
+
+    @Override
+    public int getOrder() {
+        // Right after the cost and heavy hitter filters // 紧随请求成本与热点统计过滤器之后
+        return Ordered.HIGHEST_PRECEDENCE + 3;
+    }
+}
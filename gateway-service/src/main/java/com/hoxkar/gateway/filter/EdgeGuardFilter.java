@@ -0,0 +1,90 @@
+package com.hoxkar.gateway.filter;
+
+import com.hoxkar.common.config.InternalApiConfig;
+import com.hoxkar.common.policy.PermissionClaim;
+import com.hoxkar.common.policy.PermissionSnapshot;
+import com.hoxkar.gateway.response.RejectionResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+
+// Edge Guard Filter
+/**
+ * Edge guard filter // 边界防护过滤器
+ * Runs first on every route: internal endpoints (/internal/** and /{service}/internal/**) are never forwarded, and
+ * headers only the gateway or services may set are dropped from client requests
+ * // 在所有路由上最先执行：内部接口（/internal/** 与 /{服务}/internal/**）一律不转发，只允许网关或服务设置的请求头从客户端请求中丢弃
+ */
+@Slf4j
+@Component
+public class EdgeGuardFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Headers clients may never supply: the service credential and the identity, verification and token permission
+     * headers that JwtAuthenticationFilter sets from a verified token; routes without that filter (e.g. swagger) must
+     * not pass forged values downstream
+     * // 客户端不得传入的请求头：服务凭证，以及JwtAuthenticationFilter根据已验证令牌设置的身份、验证与令牌权限头；
+     * 未配置该过滤器的路由（如swagger）不得把伪造的值传给下游
+     */
+    private static final List<String> STRIPPED_HEADERS = List.of(
+        InternalApiConfig.TOKEN_HEADER,
+        PermissionSnapshot.VERIFIED_PERMISSIONS_HEADER,
+        "X-User-ID",
+        "X-Username",
+        PermissionClaim.BITS_HEADER,
+        PermissionClaim.VERSION_HEADER,
+        PermissionClaim.REFERENCE_HEADER);
+
+    private static final String INTERNAL_SEGMENT = "internal";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (isInternalPath(request.getURI().getPath())) {
+            log.warn("Blocked internal path: {}", request.getPath().value());
+            return RejectionResponse.NOT_FOUND.write(exchange.getResponse());
+        }
+        if (STRIPPED_HEADERS.stream().noneMatch(request.getHeaders()::containsKey)) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest stripped = request.mutate()
+            .headers(headers -> STRIPPED_HEADERS.forEach(headers::remove))
+            .build();
+        return chain.filter(exchange.mutate().request(stripped).build());
+    }
+
+    /**
+     * Whether the first or second segment of the normalized path is "internal"; matrix parameters and dot segments
+     * are removed first, as the servlet container of the service would
+     * // 规范化后路径的第一或第二段是否为"internal"；先按服务端Servlet容器的方式去掉矩阵参数与点号段
+     */
+    static boolean isInternalPath(String path) {
+        if (path == null) {
+            return false;
+        }
+        StringBuilder normalized = new StringBuilder(path.length());
+        for (String segment : path.split("/")) {
+            int parameters = segment.indexOf(';');
+            normalized.append('/').append(parameters >= 0 ? segment.substring(0, parameters) : segment);
+        }
+        String[] segments = StringUtils.cleanPath(normalized.toString().replaceAll("/+", "/"))
+            .toLowerCase(Locale.ROOT).split("/");
+        // segments[0] is the empty string before the leading slash // segments[0]为开头斜杠之前的空串
+        return (segments.length > 1 && INTERNAL_SEGMENT.equals(segments[1]))
+            || (segments.length > 2 && INTERNAL_SEGMENT.equals(segments[2]));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,55 @@
+package com.hoxkar.gateway.filter;
+
+import com.hoxkar.gateway.auth.VerifiedPrincipal;
+import com.hoxkar.gateway.context.ClientIpResolver;
+import com.hoxkar.gateway.ratelimit.HeavyHitterTracker;
+import com.hoxkar.gateway.ratelimit.RequestCostResolver;
+import com.hoxkar.gateway.ratelimit.RouteTemplateNormalizer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+// Heavy Hitter Filter
+/**
+ * Heavy hitter filter // 热点流量统计过滤器
+ * Records every request, including rejected ones, once it completes so the tenant of the verified principal is known
+ * // 请求结束时记录（含被限流的请求），此时已能拿到已验证主体的租户
+ */
+@Component
+public class HeavyHitterFilter implements GlobalFilter, Ordered {
+
+    private final HeavyHitterTracker tracker;
+    private final RouteTemplateNormalizer routeTemplateNormalizer;
+    private final ClientIpResolver clientIpResolver;
+
+    public HeavyHitterFilter(HeavyHitterTracker tracker, RouteTemplateNormalizer routeTemplateNormalizer,
+                             ClientIpResolver clientIpResolver) {
+        this.tracker = tracker;
+        this.routeTemplateNormalizer = routeTemplateNormalizer;
+        this.clientIpResolver = clientIpResolver;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return chain.filter(exchange).doFinally(signal -> {
+            ServerHttpRequest request = exchange.getRequest();
+            VerifiedPrincipal principal = exchange.getAttribute(VerifiedPrincipal.EXCHANGE_ATTRIBUTE);
+            Long cost = exchange.getAttribute(RequestCostResolver.COST_ATTRIBUTE);
+            tracker.record(
+                clientIpResolver.resolve(request),
+                principal != null ? principal.getTenantId() : null,
+                request.getMethod().name() + " " + routeTemplateNormalizer.normalize(request.getPath().value()),
+                cost != null ? cost : 1L);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        // Right after the request cost is resolved // 紧随请求成本计算之后
+        return Ordered.HIGHEST_PRECEDENCE + 2;
+    }
+}
@@ -0,0 +1,67 @@
+package com.hoxkar.gateway.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+/**
+ * 对冲请求过滤器（按路由开启）
+ * 只为GET/HEAD请求在交换属性中登记对冲配置，实际转发由负载均衡之后的 HedgingRoutingFilter 完成：
+ * 首次转发在最近延迟的指定分位数内没有响应时，向另一个实例发送第二次请求，先响应者胜出，另一个被取消。
+ * 只能用于幂等的只读路由
+ */
+@Component
+public class HedgedRequestFilter extends AbstractGatewayFilterFactory<HedgedRequestFilter.Config> {
+
+    /**
+     * 交换属性：当前请求的对冲配置
+     */
+    public static final String HEDGE_CONFIG_ATTR = HedgedRequestFilter.class.getName() + ".config";
+
+    public HedgedRequestFilter() {
+        super(Config.class);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            HttpMethod method = exchange.getRequest().getMethod();
+            if (method == HttpMethod.GET || method == HttpMethod.HEAD) {
+                exchange.getAttributes().put(HEDGE_CONFIG_ATTR, config);
+            }
+            return chain.filter(exchange);
+        };
+    }
+
+    /**
+     * 过滤器配置类
+     */
+    public static class Config {
+        /**
+         * 触发对冲的延迟分位数
+         */
+        private double percentile = 95;
+        /**
+         * 对冲延迟下限（毫秒）
+         */
+        private long minDelay = 10;
+        /**
+         * 对冲延迟上限（毫秒）
+         */
+        private long maxDelay = 1000;
+        /**
+         * 对冲请求数占请求总数的最大比例
+         */
+        private double maxHedgeRatio = 0.05;
+
+        public double getPercentile() { return percentile; }
+        public void setPercentile(double percentile) { this.percentile = percentile; }
+        public long getMinDelay() { return minDelay; }
+        public void setMinDelay(long minDelay) { this.minDelay = minDelay; }
+        public long getMaxDelay() { return maxDelay; }
+        public void setMaxDelay(long maxDelay) { this.maxDelay = maxDelay; }
+        public double getMaxHedgeRatio() { return maxHedgeRatio; }
+        public void setMaxHedgeRatio(double maxHedgeRatio) { this.maxHedgeRatio = maxHedgeRatio; }
+    }
+}
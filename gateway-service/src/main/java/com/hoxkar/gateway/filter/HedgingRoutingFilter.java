@@ -0,0 +1,297 @@
+package com.hoxkar.gateway.filter;
+
+import com.hoxkar.gateway.hedge.HedgeRegistry;
+import com.hoxkar.gateway.hedge.HedgeState;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.PRESERVE_HOST_HEADER_ATTRIBUTE;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+/**
+ * 对冲转发过滤器
+ * 位于负载均衡过滤器之后、NettyRoutingFilter之前，只处理 HedgedRequestFilter 登记过的请求：
+ * 向负载均衡选定的实例发送请求，超过对冲延迟仍未收到响应头时（且对冲预算允许），向同一服务的另一个实例发送第二次请求；
+ * 先收到响应头的一方胜出，另一方被取消并释放连接。胜出的响应按 NettyRoutingFilter 的约定写入交换属性，
+ * 由 NettyWriteResponseFilter 流式写出正文
+ */
+@Slf4j
+@Component
+public class HedgingRoutingFilter implements GlobalFilter, Ordered {
+
+    /**
+     * 响应头：响应来自对冲请求
+     */
+    public static final String HEDGED_HEADER = "X-Hedged";
+
+    private final HttpClient httpClient;
+    private final HttpClientProperties httpClientProperties;
+    private final ReactiveDiscoveryClient discoveryClient;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+    private final HedgeRegistry hedgeRegistry;
+
+    private volatile List<HttpHeadersFilter> headersFilters;
+
+    public HedgingRoutingFilter(HttpClient httpClient,
+                                HttpClientProperties httpClientProperties,
+                                ReactiveDiscoveryClient discoveryClient,
+                                ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                HedgeRegistry hedgeRegistry) {
+        this.httpClient = httpClient;
+        this.httpClientProperties = httpClientProperties;
+        this.discoveryClient = discoveryClient;
+        this.headersFiltersProvider = headersFiltersProvider;
+        this.hedgeRegistry = hedgeRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        HedgedRequestFilter.Config config = exchange.getAttribute(HedgedRequestFilter.HEDGE_CONFIG_ATTR);
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (config == null || url == null || route == null || isAlreadyRouted(exchange)
+                || !("http".equals(url.getScheme()) || "https".equals(url.getScheme()))) {
+            return chain.filter(exchange);
+        }
+        setAlreadyRouted(exchange);
+
+        HedgeState state = hedgeRegistry.get(route.getId(), config.getPercentile(), config.getMaxHedgeRatio());
+        Duration hedgeDelay = state.onRequest(config.getMinDelay(), config.getMaxDelay());
+        DefaultHttpHeaders requestHeaders = requestHeaders(exchange);
+
+        Race race = new Race();
+        Mono<Attempt> primary = send(exchange, url, requestHeaders, state, false).doOnNext(race::received);
+        Mono<Attempt> attempts = primary;
+        if (hedgeDelay != null) {
+            Mono<Attempt> hedge = Mono.delay(hedgeDelay)
+                .flatMap(tick -> alternativeUrl(route, url))
+                .filter(alternative -> state.tryHedge())
+                .flatMap(alternative -> send(exchange, alternative, requestHeaders, state, true))
+                .doOnNext(race::received);
+            // 先有响应的一方胜出并取消另一方；对冲未发出（空）时只等待首次请求
+            attempts = Mono.firstWithValue(primary, hedge)
+                .onErrorMap(NoSuchElementException.class,
+                    e -> e.getSuppressed().length > 0 ? e.getSuppressed()[0] : e);
+        }
+
+        Duration responseTimeout = httpClientProperties.getResponseTimeout();
+        if (responseTimeout != null) {
+            attempts = attempts
+                .timeout(responseTimeout, Mono.error(new TimeoutException("Response took longer than timeout: " + responseTimeout)))
+                .onErrorMap(TimeoutException.class,
+                    e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, e.getMessage(), e));
+        }
+
+        // 两次尝试几乎同时收到响应头时，firstWithValue会丢弃落败的尝试，其连接由Race释放
+        return attempts
+            .doOnNext(race::win)
+            .doOnError(e -> race.abort())
+            .doOnCancel(race::abort)
+            .flatMap(attempt -> {
+                if (attempt.hedged()) {
+                    state.onHedgeWin();
+                    log.debug("Hedged request won: route={}, url={}", route.getId(), url);
+                }
+                applyResponse(exchange, attempt);
+                return chain.filter(exchange);
+            });
+    }
+
+    @Override
+    public int getOrder() {
+        // 负载均衡选定实例与上游计时开始之后、NettyRoutingFilter之前
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 2;
+    }
+
+    /**
+     * 发送一次转发尝试，收到响应头即完成；被取消时连接随之关闭
+     */
+    private Mono<Attempt> send(ServerWebExchange exchange, URI url, DefaultHttpHeaders requestHeaders,
+                               HedgeState state, boolean hedged) {
+        ServerHttpRequest request = exchange.getRequest();
+        io.netty.handler.codec.http.HttpMethod method =
+            io.netty.handler.codec.http.HttpMethod.valueOf(request.getMethod().name());
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return httpClient
+                .headers(headers -> headers.add(requestHeaders))
+                .request(method)
+                .uri(url)
+                .responseConnection((response, connection) -> Mono.just(new Attempt(response, connection, hedged)))
+                .next()
+                .doOnNext(attempt -> state.record(System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * 同一服务中负载均衡所选实例以外的随机实例，只有一个实例或非lb路由时为空
+     */
+    private Mono<URI> alternativeUrl(Route route, URI url) {
+        URI routeUri = route.getUri();
+        if (!"lb".equals(routeUri.getScheme()) || routeUri.getHost() == null) {
+            return Mono.empty();
+        }
+        return discoveryClient.getInstances(routeUri.getHost())
+            .filter(instance -> !(url.getHost().equalsIgnoreCase(instance.getHost()) && url.getPort() == instance.getPort()))
+            .collectList()
+            .flatMap(instances -> {
+                if (instances.isEmpty()) {
+                    return Mono.empty();
+                }
+                ServiceInstance instance = instances.get(ThreadLocalRandom.current().nextInt(instances.size()));
+                return Mono.just(UriComponentsBuilder.fromUri(url)
+                    .host(instance.getHost())
+                    .port(instance.getPort())
+                    .build(true)
+                    .toUri());
+            });
+    }
+
+    /**
+     * 按 NettyRoutingFilter 的方式过滤并复制请求头，两次尝试共用
+     */
+    private DefaultHttpHeaders requestHeaders(ServerWebExchange exchange) {
+        HttpHeaders filtered = HttpHeadersFilter.filterRequest(getHeadersFilters(), exchange);
+        DefaultHttpHeaders headers = new DefaultHttpHeaders();
+        filtered.forEach(headers::set);
+        headers.remove(HttpHeaders.HOST);
+        if (exchange.getAttributeOrDefault(PRESERVE_HOST_HEADER_ATTRIBUTE, false)) {
+            String host = exchange.getRequest().getHeaders().getFirst(HttpHeaders.HOST);
+            if (host != null) {
+                headers.set(HttpHeaders.HOST, host);
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * 将胜出的响应写入交换属性与响应头，正文由 NettyWriteResponseFilter 写出
+     */
+    private void applyResponse(ServerWebExchange exchange, Attempt attempt) {
+        HttpClientResponse clientResponse = attempt.response();
+        exchange.getAttributes().put(CLIENT_RESPONSE_ATTR, clientResponse);
+        exchange.getAttributes().put(CLIENT_RESPONSE_CONN_ATTR, attempt.connection());
+
+        HttpHeaders headers = new HttpHeaders();
+        clientResponse.responseHeaders().forEach(entry -> headers.add(entry.getKey(), entry.getValue()));
+        String contentType = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+        if (StringUtils.hasLength(contentType)) {
+            exchange.getAttributes().put(ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR, contentType);
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(clientResponse.status().code()));
+        HttpHeaders filtered = HttpHeadersFilter.filter(getHeadersFilters(), headers, exchange, HttpHeadersFilter.Type.RESPONSE);
+        if (!filtered.containsKey(HttpHeaders.TRANSFER_ENCODING) && filtered.containsKey(HttpHeaders.CONTENT_LENGTH)) {
+            response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        }
+        exchange.getAttributes().put(CLIENT_RESPONSE_HEADER_NAMES, filtered.keySet());
+        response.getHeaders().addAll(filtered);
+        if (attempt.hedged()) {
+            response.getHeaders().set(HEDGED_HEADER, "true");
+        }
+    }
+
+    private List<HttpHeadersFilter> getHeadersFilters() {
+        List<HttpHeadersFilter> filters = headersFilters;
+        if (filters == null) {
+            filters = headersFiltersProvider.getIfAvailable(List::of);
+            headersFilters = filters;
+        }
+        return filters;
+    }
+
+    /**
+     * 一次收到响应头的转发尝试
+     */
+    private record Attempt(HttpClientResponse response, Connection connection, boolean hedged) {
+    }
+
+    /**
+     * 一次对冲转发中已收到响应头的尝试
+     * 选出胜者后释放其余尝试的连接；胜者选出后（或整体失败、取消后）才到达的尝试立即释放
+     */
+    private static final class Race {
+
+        private final List<Attempt> received = new ArrayList<>(2);
+        private Attempt winner;
+        private boolean finished;
+
+        void received(Attempt attempt) {
+            synchronized (this) {
+                if (!finished) {
+                    received.add(attempt);
+                    return;
+                }
+            }
+            release(attempt);
+        }
+
+        void win(Attempt attempt) {
+            finish(attempt);
+        }
+
+        void abort() {
+            finish(null);
+        }
+
+        private void finish(Attempt attempt) {
+            List<Attempt> losers;
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+                finished = true;
+                winner = attempt;
+                losers = new ArrayList<>(received);
+                losers.remove(winner);
+                received.clear();
+            }
+            losers.forEach(Race::release);
+        }
+
+        private static void release(Attempt attempt) {
+            log.debug("Releasing losing hedge attempt connection, hedged={}", attempt.hedged());
+            attempt.connection().dispose();
+        }
+    }
+}
@@ -1,23 +1,28 @@
 package com.hoxkar.gateway.filter;
 
-import com.hoxkar.common.util.JwtTokenUtil;
-import com.hoxkar.common.util.TenantContext;
-import com.hoxkar.common.exception.JwtException;
-import lombok.RequiredArgsConstructor;
+import com.hoxkar.common.policy.PermissionClaim;
+import com.hoxkar.common.policy.PermissionSnapshot;
+import com.hoxkar.common.policy.RoutePolicy;
+import com.hoxkar.common.policy.RoutePolicyRegistry;
+import com.hoxkar.gateway.auth.PermissionSnapshotStore;
+import com.hoxkar.gateway.auth.TokenRevocationChecker;
+import com.hoxkar.gateway.auth.VerifiedPrincipal;
+import com.hoxkar.gateway.auth.VerifiedPrincipalCache;
+import com.hoxkar.gateway.context.ReactiveRequestContext;
+import com.hoxkar.gateway.metrics.GatewayLatencyMetrics;
+import com.hoxkar.gateway.response.RejectionResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -27,110 +32,128 @@ import java.util.List;
 @Component
 public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAuthenticationFilter.Config> {
     
-    private final JwtTokenUtil jwtTokenUtil;
+    private final VerifiedPrincipalCache principalCache;
+    private final TokenRevocationChecker revocationChecker;
+    private final RoutePolicyRegistry routePolicyRegistry;
+    private final PermissionSnapshotStore permissionSnapshotStore;
+    private final GatewayLatencyMetrics latencyMetrics;
     
-    public JwtAuthenticationFilter(JwtTokenUtil jwtTokenUtil) {
+    public JwtAuthenticationFilter(VerifiedPrincipalCache principalCache, TokenRevocationChecker revocationChecker,
+                                   RoutePolicyRegistry routePolicyRegistry, PermissionSnapshotStore permissionSnapshotStore,
+                                   GatewayLatencyMetrics latencyMetrics) {
         super(Config.class);
-        this.jwtTokenUtil = jwtTokenUtil;
+        this.principalCache = principalCache;
+        this.revocationChecker = revocationChecker;
+        this.routePolicyRegistry = routePolicyRegistry;
+        this.permissionSnapshotStore = permissionSnapshotStore;
+        this.latencyMetrics = latencyMetrics;
     }
     
     @Override
     public GatewayFilter apply(Config config) {
-        return (exchange, chain) -> {
+        return latencyMetrics.instrument(GatewayLatencyMetrics.STAGE_JWT, (exchange, chain) -> {
             ServerHttpRequest request = exchange.getRequest();
             ServerHttpResponse response = exchange.getResponse();
             
             String path = request.getPath().value();
             
-            // 跳过不需要认证的路径
-            if (isPublicPath(path)) {
+            // 跳过不需要认证的路径（前缀树匹配，无分配）
+            RoutePolicy policy = routePolicyRegistry.match(path);
+            if (policy.isPublic()) {
                 return chain.filter(exchange);
             }
             
             // 获取Authorization头
             String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
             if (!StringUtils.hasText(authHeader) || !authHeader.startsWith("Bearer ")) {
-                return handleUnauthorized(response, "Missing or invalid Authorization header");
+                return RejectionResponse.MISSING_TOKEN.write(response);
             }
             
             String token = authHeader.substring(7);
             
             try {
-                // 验证JWT令牌
-                if (!jwtTokenUtil.validateToken(token)) {
-                    return handleUnauthorized(response, "Invalid JWT token");
+                // 验证JWT令牌（同一令牌只验签一次，结果缓存至令牌过期）
+                VerifiedPrincipal principal = principalCache.resolve(token);
+                if (principal == null) {
+                    return RejectionResponse.INVALID_TOKEN.write(response);
                 }
                 
-                // 检查令牌是否在黑名单中
-                if (jwtTokenUtil.isTokenBlacklisted(token)) {
-                    return handleUnauthorized(response, "Token is blacklisted");
-                }
-                
-                // 提取租户ID并设置到上下文
-                String tenantId = jwtTokenUtil.getTenantIdFromToken(token);
-                if (StringUtils.hasText(tenantId)) {
-                    TenantContext.setTenantId(tenantId);
-                }
-                
-                // 提取用户信息并添加到请求头
-                String userId = jwtTokenUtil.getUserIdFromToken(token);
-                String username = jwtTokenUtil.getUsernameFromToken(token);
-                
-                ServerHttpRequest modifiedRequest = request.mutate()
-                    .header("X-User-ID", userId)
-                    .header("X-Username", username)
-                    .header("X-Tenant-ID", tenantId)
-                    .build();
-                
-                log.debug("JWT authentication successful for user: {}, tenant: {}", username, tenantId);
-                
-                return chain.filter(exchange.mutate().request(modifiedRequest).build())
-                    .doFinally(signalType -> TenantContext.clear());
+                // 检查令牌是否已吊销（本地布隆过滤器优先，必要时非阻塞回源Redis），再继续过滤器链
+                return revocationChecker.isRevoked(principal)
+                    .flatMap(revoked -> revoked
+                        ? RejectionResponse.REVOKED_TOKEN.write(response)
+                        : authorize(exchange, chain, principal, policy));
                 
-            } catch (JwtException e) {
-                log.warn("JWT authentication failed: {}", e.getMessage());
-                return handleUnauthorized(response, e.getMessage());
             } catch (Exception e) {
-                log.error("JWT authentication error", e);
-                return handleUnauthorized(response, "Authentication failed");
+                return ReactiveRequestContext.log(log.isErrorEnabled(), () -> log.error("JWT authentication error", e))
+                    .then(RejectionResponse.AUTHENTICATION_FAILED.write(response));
             }
-        };
+        });
     }
     
     /**
-     * 判断是否为公开路径
+     * 按路由策略要求的权限在网关鉴权（内存中的租户权限快照，按令牌的数值用户ID查找），无法判断时交由下游服务鉴权
      */
-    private boolean isPublicPath(String path) {
-        List<String> publicPaths = List.of(
-            "/api/auth/login",
-            "/api/auth/refresh",
-            "/api/auth/health",
-            "/api/gateway/health",
-            "/api/gateway/info",
-            "/actuator/health",
-            "/actuator/info",
-            "/swagger-ui",
-            "/v3/api-docs",
-            "/swagger-ui.html"
-        );
-        
-        return publicPaths.stream().anyMatch(path::startsWith);
+    private Mono<Void> authorize(ServerWebExchange exchange, GatewayFilterChain chain,
+                                 VerifiedPrincipal principal, RoutePolicy policy) {
+        List<String> permissions = policy.getPermissions();
+        if (permissions.isEmpty()) {
+            return proceed(exchange, chain, principal, null);
+        }
+        return permissionSnapshotStore.authorize(principal.getTenantId(), principal.getUserId(), permissions)
+            .flatMap(decision -> switch (decision) {
+                case GRANTED -> proceed(exchange, chain, principal, permissions);
+                case DENIED -> RejectionResponse.PERMISSION_DENIED.write(exchange.getResponse());
+                case UNKNOWN -> proceed(exchange, chain, principal, null);
+            });
     }
     
     /**
-     * 处理未授权响应
+     * 认证通过后继续处理请求
+     *
+     * @param verifiedPermissions 网关已验证的权限，通过请求头告知下游服务跳过重复鉴权；null表示未验证
      */
-    private Mono<Void> handleUnauthorized(ServerHttpResponse response, String message) {
-        response.setStatusCode(HttpStatus.UNAUTHORIZED);
-        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+    private Mono<Void> proceed(ServerWebExchange exchange, GatewayFilterChain chain, VerifiedPrincipal principal,
+                               List<String> verifiedPermissions) {
+        String tenantId = principal.getTenantId();
+        
+        // 提取用户信息并添加到请求头
+        String userId = principal.getUserId();
+        String username = principal.getUsername();
+        
+        // 已验证主体放入交换属性，供后续过滤器直接读取
+        exchange.getAttributes().put(VerifiedPrincipal.EXCHANGE_ATTRIBUTE, principal);
+        
+        ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
+            .header("X-Username", username)
+            .header("X-Tenant-ID", tenantId)
+            .headers(headers -> {
+                // 身份、已验证权限与令牌权限头已由EdgeGuardFilter丢弃，此处只按已验证主体重新设置
+                // 用户数值ID来自令牌声明；旧令牌未携带时不设置，由下游按未登录处理
+                if (userId != null) {
+                    headers.set("X-User-ID", userId);
+                }
+                if (verifiedPermissions != null) {
+                    headers.set(PermissionSnapshot.VERIFIED_PERMISSIONS_HEADER, String.join(",", verifiedPermissions));
+                }
+                // 令牌携带的权限声明转发给下游服务，字典版本一致时本地判定
+                if (principal.getPermissionVersion() != null) {
+                    headers.set(PermissionClaim.VERSION_HEADER, principal.getPermissionVersion());
+                    if (principal.getPermissionBits() != null) {
+                        headers.set(PermissionClaim.BITS_HEADER, principal.getPermissionBits());
+                    } else if (principal.getPermissionReference() != null) {
+                        headers.set(PermissionClaim.REFERENCE_HEADER, principal.getPermissionReference());
+                    }
+                }
+            })
+            .build();
         
-        String errorResponse = String.format(
-            "{\"code\":401,\"message\":\"%s\",\"data\":null,\"timestamp\":%d}",
-            message, System.currentTimeMillis()
-        );
+        log.debug("JWT authentication successful for user: {}, tenant: {}", username, tenantId);
         
-        DataBuffer buffer = response.bufferFactory().wrap(errorResponse.getBytes(StandardCharsets.UTF_8));
-        return response.writeWith(Mono.just(buffer));
+        // 租户与用户放入Reactor Context，不写ThreadLocal
+        return chain.filter(exchange.mutate().request(modifiedRequest).build())
+            .contextWrite(context -> ReactiveRequestContext.withPrincipal(
+                context, StringUtils.hasText(tenantId) ? tenantId : null, userId));
     }
     
     /**
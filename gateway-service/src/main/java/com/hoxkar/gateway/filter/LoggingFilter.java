@@ -1,64 +1,69 @@
  package com.hoxkar.gateway.filter;
 
+import com.hoxkar.gateway.accesslog.AccessLogWriter;
+import com.hoxkar.gateway.auth.VerifiedPrincipal;
+import com.hoxkar.gateway.context.ClientIpResolver;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
-import reactor.core.publisher.Mono;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
 
 // Logging Filter
 /**
  * Logging filter // 请求日志记录过滤器
+ * Writes one structured access record per request to the async access log // 每个请求向异步访问日志写入一条结构化记录
  */
 @Slf4j
 @Component
 public class LoggingFilter extends AbstractGatewayFilterFactory<LoggingFilter.Config> {
-    public LoggingFilter() {
+    private final AccessLogWriter accessLogWriter;
+    private final ClientIpResolver clientIpResolver;
+    public LoggingFilter(AccessLogWriter accessLogWriter, ClientIpResolver clientIpResolver) {
         super(Config.class);
+        this.accessLogWriter = accessLogWriter;
+        this.clientIpResolver = clientIpResolver;
     }
     @Override
     public GatewayFilter apply(Config config) {
         return (exchange, chain) -> {
-            ServerHttpRequest request = exchange.getRequest();
-            String path = request.getPath().value();
-            String method = request.getMethod().name();
-            String clientIp = getClientIp(request);
-            String userAgent = request.getHeaders().getFirst("User-Agent");
-            String userId = request.getHeaders().getFirst("X-User-ID");
-            String tenantId = request.getHeaders().getFirst("X-Tenant-ID");
+            if (!config.isEnabled()) {
+                return chain.filter(exchange);
+            }
             long startTime = System.currentTimeMillis();
-            log.info("Gateway Request - Method: {}, Path: {}, ClientIP: {}, UserID: {}, TenantID: {}, UserAgent: {}, Time: {}",
-                    method, path, clientIp, userId, tenantId, userAgent, 
-                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
             return chain.filter(exchange)
                 .doFinally(signalType -> {
-                    long endTime = System.currentTimeMillis();
-                    long duration = endTime - startTime;
-                    log.info("Gateway Response - Method: {}, Path: {}, Duration: {}ms, Status: {}, Time: {}",
-                            method, path, duration, exchange.getResponse().getStatusCode(),
-                            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+                    // Sample and hand off to the async access log; no formatting or I/O here // 采样后交给异步访问日志，此处不做格式化和I/O
+                    HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+                    int status = statusCode != null ? statusCode.value() : 0;
+                    Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+                    String routeId = route != null ? route.getId() : null;
+                    if (!accessLogWriter.shouldLog(routeId, status)) {
+                        return;
+                    }
+                    ServerHttpRequest request = exchange.getRequest();
+                    HttpHeaders headers = request.getHeaders();
+                    VerifiedPrincipal principal = exchange.getAttribute(VerifiedPrincipal.EXCHANGE_ATTRIBUTE);
+                    accessLogWriter.append(
+                        startTime,
+                        System.currentTimeMillis() - startTime,
+                        status,
+                        request.getMethod().name(),
+                        request.getPath().value(),
+                        routeId,
+                        clientIpResolver.resolve(request),
+                        principal != null ? principal.getUserId() : headers.getFirst("X-User-ID"),
+                        principal != null ? principal.getTenantId() : headers.getFirst("X-Tenant-ID"),
+                        headers.getFirst("X-Request-ID"),
+                        headers.getFirst(HttpHeaders.USER_AGENT));
                 });
         };
     }
-    /**
-     * Get client IP // 获取客户端IP
-     */
-    private String getClientIp(ServerHttpRequest request) {
-        String xForwardedFor = request.getHeaders().getFirst("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-        String xRealIp = request.getHeaders().getFirst("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
-        }
-        return request.getRemoteAddress() != null ? 
-            request.getRemoteAddress().getAddress().getHostAddress() : "unknown";
-    }
     /**
      * Filter config class // 过滤器配置类
      */
@@ -0,0 +1,218 @@
+package com.hoxkar.gateway.filter;
+
+import com.hoxkar.gateway.auth.VerifiedPrincipal;
+import com.hoxkar.gateway.cache.ResponseCacheKey;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 请求合并过滤器（single-flight）
+ * 同一路由、租户、主体类别与路径及查询串的并发GET请求只转发第一个（leader）到下游，
+ * 其余请求等待leader的响应并直接复用；响应正文超过缓冲上限、设置Cookie或未产生正文时不共享，
+ * 等待者各自转发。放在ResponseCacheFilter之后，只合并缓存未命中的请求
+ */
+@Component
+public class RequestCoalescingFilter extends AbstractGatewayFilterFactory<RequestCoalescingFilter.Config> {
+
+    /**
+     * 响应头：复用了其他请求的响应
+     */
+    public static final String COALESCED_HEADER = "X-Coalesced";
+
+    private static final String ANONYMOUS = "anonymous";
+    private static final String AUTHENTICATED = "authenticated";
+
+    private final int maxBufferBytes;
+
+    /**
+     * 进行中的请求：键 -> leader响应
+     */
+    private final Map<ResponseCacheKey, Sinks.One<SharedResponse>> inflight = new ConcurrentHashMap<>();
+
+    public RequestCoalescingFilter(@Value("${gateway.coalescing.max-buffer-bytes:1048576}") int maxBufferBytes) {
+        super(Config.class);
+        this.maxBufferBytes = maxBufferBytes;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        PathPatternParser parser = new PathPatternParser();
+        List<PathPattern> patterns = new ArrayList<>();
+        for (String path : config.getPaths()) {
+            if (!path.isBlank()) {
+                patterns.add(parser.parse(path.trim()));
+            }
+        }
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET || !matches(patterns, request)) {
+                return chain.filter(exchange);
+            }
+            ResponseCacheKey key = key(exchange, config.isVaryByUser());
+            Sinks.One<SharedResponse> sink = Sinks.one();
+            Sinks.One<SharedResponse> leader = inflight.putIfAbsent(key, sink);
+            if (leader != null) {
+                return leader.asMono().flatMap(shared -> shared == SharedResponse.NOT_SHARED
+                        ? chain.filter(exchange)
+                        : writeShared(exchange.getResponse(), shared));
+            }
+            return chain.filter(exchange.mutate().response(new LeaderResponse(exchange.getResponse(), sink)).build())
+                    .doFinally(signal -> {
+                        // 先移除再通知，之后到达的请求重新发起
+                        inflight.remove(key, sink);
+                        sink.tryEmitValue(SharedResponse.NOT_SHARED);
+                    });
+        };
+    }
+
+    private static boolean matches(List<PathPattern> patterns, ServerHttpRequest request) {
+        if (patterns.isEmpty()) {
+            return true;
+        }
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 合并键：不按用户区分时，同租户的已认证请求共享一个主体类别，匿名请求另成一类
+     */
+    private static ResponseCacheKey key(ServerWebExchange exchange, boolean varyByUser) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        VerifiedPrincipal principal = exchange.getAttribute(VerifiedPrincipal.EXCHANGE_ATTRIBUTE);
+        String tenantId = principal != null ? principal.getTenantId() : request.getHeaders().getFirst("X-Tenant-ID");
+        String principalClass = principal == null ? ANONYMOUS : varyByUser ? principal.getUsername() : AUTHENTICATED;
+        String query = request.getURI().getRawQuery();
+        String resource = query != null ? request.getURI().getRawPath() + "?" + query : request.getURI().getRawPath();
+        return new ResponseCacheKey(
+                route != null ? route.getId() : "",
+                tenantId != null ? tenantId : "",
+                principalClass != null ? principalClass : "",
+                resource);
+    }
+
+    /**
+     * 写出共享的响应；等待者自身已设置的响应头（请求ID、限流头等）保留不覆盖
+     */
+    private static Mono<Void> writeShared(ServerHttpResponse response, SharedResponse shared) {
+        HttpHeaders headers = response.getHeaders();
+        shared.headers.forEach((name, values) -> {
+            if (!headers.containsKey(name)) {
+                headers.put(name, values);
+            }
+        });
+        headers.set(COALESCED_HEADER, "true");
+        headers.setContentLength(shared.body.length);
+        response.setStatusCode(shared.status);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body)));
+    }
+
+    /**
+     * leader的响应装饰器：缓冲正文后先发布给等待者，再写出自身响应
+     */
+    private class LeaderResponse extends ServerHttpResponseDecorator {
+
+        private final Sinks.One<SharedResponse> sink;
+
+        LeaderResponse(ServerHttpResponse delegate, Sinks.One<SharedResponse> sink) {
+            super(delegate);
+            this.sink = sink;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            long contentLength = headers.getContentLength();
+            if (getStatusCode() == null || headers.containsKey(HttpHeaders.SET_COOKIE) || contentLength > maxBufferBytes) {
+                sink.tryEmitValue(SharedResponse.NOT_SHARED);
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(body).flatMap(joined -> {
+                if (joined.readableByteCount() > maxBufferBytes) {
+                    sink.tryEmitValue(SharedResponse.NOT_SHARED);
+                    return super.writeWith(Mono.just(joined));
+                }
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                HttpHeaders sharedHeaders = new HttpHeaders();
+                sharedHeaders.putAll(headers);
+                sharedHeaders.remove(HttpHeaders.TRANSFER_ENCODING);
+                sharedHeaders.remove(HttpHeaders.CONTENT_LENGTH);
+                sink.tryEmitValue(new SharedResponse(getStatusCode(), HttpHeaders.readOnlyHttpHeaders(sharedHeaders), bytes));
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+    }
+
+    /**
+     * leader缓冲的响应，正文只读共享
+     */
+    private static final class SharedResponse {
+
+        /**
+         * leader的响应不可共享，等待者各自转发
+         */
+        static final SharedResponse NOT_SHARED = new SharedResponse(null, HttpHeaders.EMPTY, new byte[0]);
+
+        private final HttpStatusCode status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    /**
+     * 过滤器配置类
+     */
+    public static class Config {
+        /**
+         * 是否按用户区分；响应内容与当前用户相关时必须开启
+         */
+        private boolean varyByUser = true;
+        /**
+         * 需要合并的路径模式，为空时合并路由下的全部GET请求
+         */
+        private List<String> paths = new ArrayList<>();
+
+        public boolean isVaryByUser() { return varyByUser; }
+        public void setVaryByUser(boolean varyByUser) { this.varyByUser = varyByUser; }
+        public List<String> getPaths() { return paths; }
+        public void setPaths(List<String> paths) { this.paths = paths; }
+    }
+}
@@ -0,0 +1,40 @@
+package com.hoxkar.gateway.filter;
+
+import com.hoxkar.gateway.ratelimit.RequestCostResolver;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+// Request Cost Filter
+/**
+ * Request cost filter // 请求成本过滤器
+ * Resolves the rate limit cost once per request and publishes it as an exchange attribute and in the
+ * Reactor Context, where RequestRateLimiter's RateLimiter (which never sees the exchange) can read it
+ * // 每个请求计算一次限流成本，写入交换属性和Reactor Context，供无法访问exchange的RateLimiter读取
+ */
+@Component
+public class RequestCostFilter implements GlobalFilter, Ordered {
+
+    private final RequestCostResolver costResolver;
+
+    public RequestCostFilter(RequestCostResolver costResolver) {
+        this.costResolver = costResolver;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long cost = costResolver.resolve(exchange);
+        exchange.getAttributes().put(RequestCostResolver.COST_ATTRIBUTE, cost);
+        return chain.filter(exchange)
+            .contextWrite(context -> context.put(RequestCostResolver.COST_ATTRIBUTE, cost));
+    }
+
+    @Override
+    public int getOrder() {
+        // Right after EdgeGuardFilter, before all route filters // 紧随EdgeGuardFilter之后，先于所有路由过滤器执行
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+}
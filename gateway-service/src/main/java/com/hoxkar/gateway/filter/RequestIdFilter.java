@@ -1,5 +1,7 @@
 package com.hoxkar.gateway.filter;
 
+import com.hoxkar.common.trace.RequestIdGenerator;
+import com.hoxkar.gateway.context.ReactiveRequestContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
@@ -7,8 +9,6 @@ import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
-import java.util.UUID;
-
 // Request ID Filter
 /**
  * Request ID filter // 请求ID过滤器
@@ -16,24 +16,31 @@ import java.util.UUID;
 @Slf4j
 @Component
 public class RequestIdFilter extends AbstractGatewayFilterFactory<RequestIdFilter.Config> {
-    public RequestIdFilter() {
+    private final RequestIdGenerator requestIdGenerator;
+    public RequestIdFilter(RequestIdGenerator requestIdGenerator) {
         super(Config.class);
+        this.requestIdGenerator = requestIdGenerator;
     }
     @Override
     public GatewayFilter apply(Config config) {
         return (exchange, chain) -> {
             ServerHttpRequest request = exchange.getRequest();
             // Get or generate request ID // 获取或生成请求ID
-            String requestId = request.getHeaders().getFirst("X-Request-ID");
+            String requestId = request.getHeaders().getFirst(RequestIdGenerator.HEADER);
             if (requestId == null || requestId.isEmpty()) {
-                requestId = UUID.randomUUID().toString();
+                // Snowflake ID: one CAS, no SecureRandom on the event loop // 雪花ID：一次CAS，事件循环上不使用SecureRandom
+                requestId = requestIdGenerator.nextId();
             }
             // Add request ID to headers // 添加请求ID到请求头
             ServerHttpRequest modifiedRequest = request.mutate()
-                .header("X-Request-ID", requestId)
+                .header(RequestIdGenerator.HEADER, requestId)
                 .build();
+            exchange.getResponse().getHeaders().set(RequestIdGenerator.HEADER, requestId);
             log.debug("Request ID generated: {}", requestId);
-            return chain.filter(exchange.mutate().request(modifiedRequest).build());
+            // Carry the request ID in the Reactor Context, not MDC // 请求ID放入Reactor Context，不写MDC
+            String contextRequestId = requestId;
+            return chain.filter(exchange.mutate().request(modifiedRequest).build())
+                .contextWrite(context -> ReactiveRequestContext.withRequestId(context, contextRequestId));
         };
     }
     /**
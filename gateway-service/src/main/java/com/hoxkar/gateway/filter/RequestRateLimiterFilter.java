@@ -0,0 +1,77 @@
+package com.hoxkar.gateway.filter;
+
+import com.hoxkar.gateway.context.ReactiveRequestContext;
+import com.hoxkar.gateway.ratelimit.TenantRateLimiter;
+import com.hoxkar.gateway.response.RejectionResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.RequestRateLimiterGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HttpStatusHolder;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 路由级限流过滤器（替换内置的 RequestRateLimiter）
+ * 沿用内置过滤器的名称和参数（rate-limiter、key-resolver等），路由配置与Java DSL的requestRateLimiter无需改动；
+ * 区别在于超限时写出预编码的 {@link RejectionResponse#RATE_LIMITED} 正文，而不是空的429响应。
+ * 内置过滤器通过 spring.cloud.gateway.filter.request-rate-limiter.enabled=false 关闭
+ */
+@Slf4j
+@Component
+public class RequestRateLimiterFilter extends RequestRateLimiterGatewayFilterFactory {
+
+    private static final String NAME = "RequestRateLimiter";
+
+    private static final String EMPTY_KEY = "____EMPTY_KEY__";
+
+    public RequestRateLimiterFilter(TenantRateLimiter tenantRateLimiter, KeyResolver tenantKeyResolver) {
+        super(tenantRateLimiter, tenantKeyResolver);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public GatewayFilter apply(Config config) {
+        KeyResolver resolver = config.getKeyResolver() != null ? config.getKeyResolver() : getDefaultKeyResolver();
+        RateLimiter<Object> limiter = config.getRateLimiter() != null ? config.getRateLimiter() : getDefaultRateLimiter();
+        boolean denyEmpty = config.getDenyEmptyKey() != null ? config.getDenyEmptyKey() : isDenyEmptyKey();
+        HttpStatusHolder emptyKeyStatus = HttpStatusHolder.parse(
+                config.getEmptyKeyStatus() != null ? config.getEmptyKeyStatus() : getEmptyKeyStatusCode());
+
+        return (exchange, chain) -> resolver.resolve(exchange).defaultIfEmpty(EMPTY_KEY).flatMap(key -> {
+            if (EMPTY_KEY.equals(key)) {
+                if (denyEmpty) {
+                    ServerWebExchangeUtils.setResponseStatus(exchange, emptyKeyStatus);
+                    return exchange.getResponse().setComplete();
+                }
+                return chain.filter(exchange);
+            }
+            String routeId = config.getRouteId();
+            if (routeId == null) {
+                Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+                routeId = route != null ? route.getId() : null;
+            }
+            return limiter.isAllowed(routeId, key).flatMap(response -> {
+                HttpHeaders headers = exchange.getResponse().getHeaders();
+                for (Map.Entry<String, String> header : response.getHeaders().entrySet()) {
+                    headers.add(header.getKey(), header.getValue());
+                }
+                if (response.isAllowed()) {
+                    return chain.filter(exchange);
+                }
+                return ReactiveRequestContext.log(log.isDebugEnabled(), () -> log.debug("Rate limit exceeded: key={}", key))
+                        .then(RejectionResponse.RATE_LIMITED.write(exchange.getResponse()));
+            });
+        });
+    }
+}
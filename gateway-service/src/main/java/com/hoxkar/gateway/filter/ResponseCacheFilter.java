@@ -0,0 +1,246 @@
+package com.hoxkar.gateway.filter;
+
+import com.hoxkar.gateway.auth.VerifiedPrincipal;
+import com.hoxkar.gateway.cache.CachedResponse;
+import com.hoxkar.gateway.cache.ResponseCacheKey;
+import com.hoxkar.gateway.cache.ResponseCacheStore;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 响应缓存过滤器
+ * 缓存幂等GET请求的200响应，缓存键由路由、租户、用户（按需）与路径及查询串组成；
+ * 命中时直接由网关响应，并支持ETag/If-None-Match重新验证返回304。
+ * 应放在认证、鉴权与限流过滤器之后，保证命中缓存的请求同样经过这些检查
+ */
+@Component
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    /**
+     * 响应头：缓存处理结果 HIT / MISS
+     */
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final ResponseCacheStore store;
+
+    public ResponseCacheFilter(ResponseCacheStore store) {
+        super(Config.class);
+        this.store = store;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        PathPatternParser parser = new PathPatternParser();
+        List<PathPattern> patterns = new ArrayList<>();
+        for (String path : config.getPaths()) {
+            if (!path.isBlank()) {
+                patterns.add(parser.parse(path.trim()));
+            }
+        }
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, config.getTtl()));
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET || !matches(patterns, request)) {
+                return chain.filter(exchange);
+            }
+            ResponseCacheKey key = key(exchange, config.isVaryByUser());
+            if (!isNoCache(request.getHeaders())) {
+                CachedResponse cached = store.get(key);
+                if (cached != null) {
+                    return writeCached(exchange, cached);
+                }
+            }
+            return chain.filter(exchange.mutate()
+                    .response(new CachingResponse(exchange, key, ttlNanos))
+                    .build());
+        };
+    }
+
+    private static boolean matches(List<PathPattern> patterns, ServerHttpRequest request) {
+        if (patterns.isEmpty()) {
+            return true;
+        }
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ResponseCacheKey key(ServerWebExchange exchange, boolean varyByUser) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        VerifiedPrincipal principal = exchange.getAttribute(VerifiedPrincipal.EXCHANGE_ATTRIBUTE);
+        String tenantId = principal != null ? principal.getTenantId() : request.getHeaders().getFirst("X-Tenant-ID");
+        String userId = varyByUser && principal != null ? principal.getUsername() : null;
+        String query = request.getURI().getRawQuery();
+        String resource = query != null ? request.getURI().getRawPath() + "?" + query : request.getURI().getRawPath();
+        return new ResponseCacheKey(
+                route != null ? route.getId() : "",
+                tenantId != null ? tenantId : "",
+                userId != null ? userId : "",
+                resource);
+    }
+
+    /**
+     * 客户端要求不使用缓存时跳过查找，但仍用最新响应刷新缓存
+     */
+    private static boolean isNoCache(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        return cacheControl != null && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(cached.getEtag());
+        headers.set(CACHE_STATUS_HEADER, "HIT");
+        if (etagMatches(exchange.getRequest().getHeaders(), cached.getEtag())) {
+            store.recordNotModified();
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.getContentType() != null) {
+            headers.setContentType(cached.getContentType());
+        }
+        headers.setContentLength(cached.getBody().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+    }
+
+    /**
+     * If-None-Match弱比较：忽略 W/ 前缀，* 匹配任意ETag
+     */
+    private static boolean etagMatches(HttpHeaders requestHeaders, String etag) {
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || stripWeak(candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * 捕获下游响应正文并写入缓存的响应装饰器
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final ResponseCacheKey key;
+        private final long ttlNanos;
+
+        CachingResponse(ServerWebExchange exchange, ResponseCacheKey key, long ttlNanos) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.ttlNanos = ttlNanos;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            if (!isCacheable(getStatusCode(), headers)) {
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(body).flatMap(joined -> {
+                if (joined.readableByteCount() > store.getMaxEntryBytes()) {
+                    return super.writeWith(Mono.just(joined));
+                }
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                String etag = headers.getETag() != null ? headers.getETag() : "\"0" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+                store.put(key, new CachedResponse(bytes, headers.getContentType(), etag, ttlNanos));
+                headers.setETag(etag);
+                headers.set(CACHE_STATUS_HEADER, "MISS");
+
+                if (etagMatches(exchange.getRequest().getHeaders(), etag)) {
+                    store.recordNotModified();
+                    setStatusCode(HttpStatus.NOT_MODIFIED);
+                    headers.remove(HttpHeaders.CONTENT_LENGTH);
+                    return setComplete();
+                }
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+
+        /**
+         * 只缓存未压缩、不设置Cookie、未禁止存储、且正文大小已知不超过上限（或未知）的200响应
+         */
+        private boolean isCacheable(HttpStatusCode status, HttpHeaders headers) {
+            if (status == null || status.value() != HttpStatus.OK.value()
+                    || headers.containsKey(HttpHeaders.SET_COOKIE)
+                    || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                return false;
+            }
+            String cacheControl = headers.getCacheControl();
+            if (cacheControl != null && cacheControl.contains(CacheControl.noStore().getHeaderValue())) {
+                return false;
+            }
+            long contentLength = headers.getContentLength();
+            return contentLength < 0 || contentLength <= store.getMaxEntryBytes();
+        }
+    }
+
+    /**
+     * 过滤器配置类
+     */
+    public static class Config {
+        /**
+         * 缓存存活时间（毫秒）
+         */
+        private long ttl = 60000;
+        /**
+         * 是否按用户区分缓存；响应内容与当前用户相关时必须开启
+         */
+        private boolean varyByUser = true;
+        /**
+         * 需要缓存的路径模式，为空时缓存路由下的全部GET请求
+         */
+        private List<String> paths = new ArrayList<>();
+
+        public long getTtl() { return ttl; }
+        public void setTtl(long ttl) { this.ttl = ttl; }
+        public boolean isVaryByUser() { return varyByUser; }
+        public void setVaryByUser(boolean varyByUser) { this.varyByUser = varyByUser; }
+        public List<String> getPaths() { return paths; }
+        public void setPaths(List<String> paths) { this.paths = paths; }
+    }
+}
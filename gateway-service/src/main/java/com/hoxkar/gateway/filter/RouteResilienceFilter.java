@@ -0,0 +1,86 @@
+package com.hoxkar.gateway.filter;
+
+import com.hoxkar.gateway.config.ResilienceProperties;
+import com.hoxkar.gateway.context.ReactiveRequestContext;
+import com.hoxkar.gateway.resilience.RouteResilience;
+import com.hoxkar.gateway.resilience.RouteResilienceRegistry;
+import com.hoxkar.gateway.response.RejectionResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.RetryGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 路由韧性过滤器：自适应并发限制 + 熔断 + 重试预算
+ * 必须放在Retry之后，使每次转发尝试（含重试）都经过准入检查；被拒绝的请求立即返回503和Retry-After，
+ * 不占用下游连接。5xx、超时与连接错误计为失败，驱动并发上限收缩与熔断
+ */
+@Slf4j
+@Component
+public class RouteResilienceFilter extends AbstractGatewayFilterFactory<RouteResilienceFilter.Config> {
+
+    private final ResilienceProperties properties;
+    private final RouteResilienceRegistry registry;
+
+    public RouteResilienceFilter(ResilienceProperties properties, RouteResilienceRegistry registry) {
+        super(Config.class);
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            if (!properties.isEnabled() || route == null) {
+                return chain.filter(exchange);
+            }
+            // Retry在每次尝试结束后递增该属性（首次尝试时不存在），存在即表示本次为重试
+            Integer iteration = exchange.getAttribute(RetryGatewayFilterFactory.RETRY_ITERATION_KEY);
+            RouteResilience.Permit permit = registry.get(route.getId()).acquire(iteration != null && iteration >= 0);
+            if (permit.isRejected()) {
+                return ReactiveRequestContext.log(log.isDebugEnabled(), () -> log.debug(
+                        "Request rejected by route resilience: route={}, reason={}", route.getId(), permit.getRejection()))
+                    .then(handleRejected(exchange.getResponse(), permit));
+            }
+            return chain.filter(exchange)
+                .doOnSuccess(v -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is5xxServerError()) {
+                        permit.onFailure();
+                    } else {
+                        permit.onSuccess();
+                    }
+                })
+                .doOnError(e -> permit.onFailure())
+                .doOnCancel(permit::onCancel);
+        };
+    }
+
+    /**
+     * 处理被拒绝的请求
+     */
+    private Mono<Void> handleRejected(ServerHttpResponse response, RouteResilience.Permit permit) {
+        response.getHeaders().set("Retry-After", String.valueOf(permit.getRetryAfterSeconds()));
+        RejectionResponse rejection = switch (permit.getRejection()) {
+            case RETRY_BUDGET -> RejectionResponse.RETRY_BUDGET_EXHAUSTED;
+            case CIRCUIT_OPEN -> RejectionResponse.CIRCUIT_OPEN;
+            case CONCURRENCY_LIMIT -> RejectionResponse.CONCURRENCY_LIMITED;
+        };
+        return rejection.write(response);
+    }
+
+    /**
+     * 过滤器配置类
+     */
+    public static class Config {
+        // 参数统一由 gateway.resilience 配置，状态按路由隔离
+    }
+}
@@ -0,0 +1,79 @@
+package com.hoxkar.gateway.filter;
+
+import com.hoxkar.gateway.admission.TenantAdmissionController;
+import com.hoxkar.gateway.auth.VerifiedPrincipal;
+import com.hoxkar.gateway.config.AdmissionProperties;
+import com.hoxkar.gateway.context.ReactiveRequestContext;
+import com.hoxkar.gateway.ratelimit.TenantQuotaResolver;
+import com.hoxkar.gateway.response.RejectionResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * 租户准入过滤器
+ * 放在JwtAuthenticationFilter之后（需要已验证主体）、Retry之前（每个请求只占一个槽位，重试不重复排队）；
+ * 节点饱和时按租户公平份额与订阅计划优先级排队放行，被降载的请求立即返回503和Retry-After
+ */
+@Slf4j
+@Component
+public class TenantAdmissionFilter extends AbstractGatewayFilterFactory<TenantAdmissionFilter.Config> {
+
+    private static final String ANONYMOUS_KEY = "anonymous";
+
+    private final AdmissionProperties properties;
+    private final TenantAdmissionController admissionController;
+    private final TenantQuotaResolver quotaResolver;
+    private final String retryAfter;
+
+    public TenantAdmissionFilter(AdmissionProperties properties,
+                                 TenantAdmissionController admissionController,
+                                 TenantQuotaResolver quotaResolver) {
+        super(Config.class);
+        this.properties = properties;
+        this.admissionController = admissionController;
+        this.quotaResolver = quotaResolver;
+        this.retryAfter = String.valueOf(properties.getRetryAfter());
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            if (!properties.isEnabled()) {
+                return chain.filter(exchange);
+            }
+            VerifiedPrincipal principal = exchange.getAttribute(VerifiedPrincipal.EXCHANGE_ATTRIBUTE);
+            String tenantKey = principal != null && principal.getTenantId() != null
+                ? TenantQuotaResolver.TENANT_KEY_PREFIX + principal.getTenantId()
+                : ANONYMOUS_KEY;
+            String plan = principal != null ? quotaResolver.resolvePlan(tenantKey) : null;
+            return admissionController.acquire(tenantKey, plan)
+                .flatMap(ticket -> {
+                    if (ticket.isRejected()) {
+                        return ReactiveRequestContext.log(log.isDebugEnabled(), () -> log.debug(
+                                "Request shed by admission control: tenant={}, plan={}", tenantKey, plan))
+                            .then(handleShed(exchange.getResponse()));
+                    }
+                    return chain.filter(exchange).doFinally(signalType -> ticket.release());
+                });
+        };
+    }
+
+    /**
+     * 处理被降载的请求
+     */
+    private Mono<Void> handleShed(ServerHttpResponse response) {
+        response.getHeaders().set("Retry-After", retryAfter);
+        return RejectionResponse.GATEWAY_OVERLOADED.write(response);
+    }
+
+    /**
+     * 过滤器配置类
+     */
+    public static class Config {
+        // 参数统一由 gateway.admission 配置，所有路由共用本节点的并发额度
+    }
+}
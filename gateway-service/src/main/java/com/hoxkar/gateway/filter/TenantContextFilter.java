@@ -1,63 +1,64 @@
 package com.hoxkar.gateway.filter;
 
-import com.hoxkar.common.util.TenantContext;
+import com.hoxkar.gateway.context.ReactiveRequestContext;
+import com.hoxkar.gateway.metrics.GatewayLatencyMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
-import reactor.core.publisher.Mono;
 
 /**
  * 租户上下文过滤器
+ * 租户ID写入Reactor Context（已验证主体的租户优先），不使用ThreadLocal；
+ * 日志需要租户ID时通过 {@link ReactiveRequestContext#log} 写入MDC
  */
 @Slf4j
 @Component
 public class TenantContextFilter extends AbstractGatewayFilterFactory<TenantContextFilter.Config> {
-    
-    public TenantContextFilter() {
+
+    private final GatewayLatencyMetrics latencyMetrics;
+
+    public TenantContextFilter(GatewayLatencyMetrics latencyMetrics) {
         super(Config.class);
+        this.latencyMetrics = latencyMetrics;
     }
-    
+
     @Override
     public GatewayFilter apply(Config config) {
-        return (exchange, chain) -> {
+        return latencyMetrics.instrument(GatewayLatencyMetrics.STAGE_TENANT_CONTEXT, (exchange, chain) -> {
             ServerHttpRequest request = exchange.getRequest();
-            
+
             // 从请求头获取租户ID
             String tenantId = request.getHeaders().getFirst("X-Tenant-ID");
-            
+
             // 如果没有从JWT中获取到租户ID，尝试从请求头获取
             if (!StringUtils.hasText(tenantId)) {
                 tenantId = request.getHeaders().getFirst("tenant-id");
             }
-            
+
             // 如果还是没有，尝试从查询参数获取
             if (!StringUtils.hasText(tenantId)) {
                 tenantId = request.getQueryParams().getFirst("tenantId");
             }
-            
-            // 设置租户上下文
-            if (StringUtils.hasText(tenantId)) {
-                TenantContext.setTenantId(tenantId);
-                log.debug("Tenant context set: {}", tenantId);
-            } else {
+
+            if (!StringUtils.hasText(tenantId)) {
                 log.debug("No tenant ID found in request");
+                return chain.filter(exchange);
             }
-            
+
+            // 设置租户上下文
+            String resolvedTenantId = tenantId;
             return chain.filter(exchange)
-                .doFinally(signalType -> {
-                    TenantContext.clear();
-                    log.debug("Tenant context cleared");
-                });
-        };
+                .contextWrite(context -> ReactiveRequestContext.withTenantIfAbsent(context, resolvedTenantId));
+        });
     }
-    
+
     /**
      * 过滤器配置类
      */
     public static class Config {
         // 可以添加配置属性
     }
-} 
\ No newline at end of file
+}
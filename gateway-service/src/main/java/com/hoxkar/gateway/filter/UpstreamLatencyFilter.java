@@ -0,0 +1,48 @@
+package com.hoxkar.gateway.filter;
+
+import com.hoxkar.gateway.metrics.GatewayLatencyMetrics;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+// Upstream Latency Filter
+/**
+ * Upstream latency filter // 上游延迟过滤器
+ * Runs after the load balancer picked an instance and times the routing filters (plain or hedged) until the
+ * upstream response headers arrive; the body is written later by NettyWriteResponseFilter and counted in the chain timer
+ * // 在负载均衡选定实例之后执行，记录路由转发（普通或对冲）到收到上游响应头的耗时；正文由NettyWriteResponseFilter随后写出，计入过滤器链耗时
+ */
+@Component
+public class UpstreamLatencyFilter implements GlobalFilter, Ordered {
+
+    private final GatewayLatencyMetrics latencyMetrics;
+
+    public UpstreamLatencyFilter(GatewayLatencyMetrics latencyMetrics) {
+        this.latencyMetrics = latencyMetrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        String instance = url != null && url.getHost() != null ? url.getHost() + ":" + url.getPort() : null;
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+            .doFinally(signalType -> latencyMetrics.recordUpstream(GatewayLatencyMetrics.routeId(exchange), instance,
+                GatewayLatencyMetrics.outcome(exchange.getResponse().getStatusCode(), signalType),
+                System.nanoTime() - start));
+    }
+
+    @Override
+    public int getOrder() {
+        // Between the load balancer and the routing filters // 位于负载均衡与路由转发过滤器之间
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
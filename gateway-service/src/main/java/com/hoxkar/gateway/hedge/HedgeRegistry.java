@@ -0,0 +1,41 @@
+package com.hoxkar.gateway.hedge;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 路由对冲状态注册表，按路由ID懒创建
+ */
+@Component
+public class HedgeRegistry {
+
+    private final int windowSize;
+    private final int minSamples;
+    private final Map<String, HedgeState> routes = new ConcurrentHashMap<>();
+
+    public HedgeRegistry(@Value("${gateway.hedging.window-size:1024}") int windowSize,
+                         @Value("${gateway.hedging.min-samples:100}") int minSamples) {
+        this.windowSize = windowSize;
+        this.minSamples = minSamples;
+    }
+
+    /**
+     * 获取路由的对冲状态；分位数与对冲比例取该路由首次请求时的过滤器配置
+     */
+    public HedgeState get(String routeId, double percentile, double maxHedgeRatio) {
+        return routes.computeIfAbsent(routeId, id -> new HedgeState(windowSize, percentile, minSamples, maxHedgeRatio));
+    }
+
+    /**
+     * 各路由的对冲统计
+     */
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new TreeMap<>();
+        routes.forEach((routeId, state) -> stats.put(routeId, state.getStats()));
+        return stats;
+    }
+}
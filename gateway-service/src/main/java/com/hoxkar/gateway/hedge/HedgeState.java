@@ -0,0 +1,81 @@
+package com.hoxkar.gateway.hedge;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个路由的对冲请求状态：最近延迟窗口、对冲预算与计数
+ * 每个请求向预算存入 maxHedgeRatio 个令牌，每次对冲取出1个，额外负载不超过请求量的该比例
+ */
+public class HedgeState {
+
+    /**
+     * 预算令牌上限，限制空闲后的突发对冲
+     */
+    private static final double MAX_TOKENS = 10;
+
+    private final LatencyWindow window;
+    private final double maxHedgeRatio;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private double tokens;
+
+    HedgeState(int windowSize, double percentile, int minSamples, double maxHedgeRatio) {
+        this.window = new LatencyWindow(windowSize, percentile, minSamples);
+        this.maxHedgeRatio = maxHedgeRatio;
+    }
+
+    /**
+     * 登记一个请求并返回对冲延迟；样本不足时返回null（不对冲）
+     */
+    public Duration onRequest(long minDelayMillis, long maxDelayMillis) {
+        requests.increment();
+        synchronized (this) {
+            tokens = Math.min(MAX_TOKENS, tokens + maxHedgeRatio);
+        }
+        long nanos = window.percentileNanos();
+        if (nanos < 0) {
+            return null;
+        }
+        long millis = Math.max(minDelayMillis, Math.min(maxDelayMillis, Duration.ofNanos(nanos).toMillis()));
+        return Duration.ofMillis(millis);
+    }
+
+    /**
+     * 尝试取得一次对冲额度
+     */
+    public boolean tryHedge() {
+        synchronized (this) {
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+        }
+        hedges.increment();
+        return true;
+    }
+
+    /**
+     * 记录一次转发尝试收到响应头的延迟
+     */
+    public void record(long nanos) {
+        window.record(nanos);
+    }
+
+    public void onHedgeWin() {
+        hedgeWins.increment();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long nanos = window.percentileNanos();
+        stats.put("hedgeDelayMillis", nanos < 0 ? null : Duration.ofNanos(nanos).toMillis());
+        stats.put("requests", requests.sum());
+        stats.put("hedges", hedges.sum());
+        stats.put("hedgeWins", hedgeWins.sum());
+        return stats;
+    }
+}
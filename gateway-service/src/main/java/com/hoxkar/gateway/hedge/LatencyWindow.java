@@ -0,0 +1,47 @@
+package com.hoxkar.gateway.hedge;
+
+import java.util.Arrays;
+
+/**
+ * 最近请求延迟的滑动窗口
+ * 固定大小的环形缓冲区保存最近的响应延迟（到收到响应头为止），每写入一定数量的样本重新计算一次分位数，
+ * 读取分位数不排序、不加锁
+ */
+class LatencyWindow {
+
+    private static final int RECOMPUTE_INTERVAL = 64;
+
+    private final long[] samples;
+    private final double percentile;
+    private final int minSamples;
+
+    private int next;
+    private long count;
+    private volatile long percentileNanos = -1;
+
+    LatencyWindow(int size, double percentile, int minSamples) {
+        this.samples = new long[size];
+        this.percentile = percentile;
+        this.minSamples = Math.min(size, minSamples);
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count++;
+        if (count == minSamples || (count > minSamples && count % RECOMPUTE_INTERVAL == 0)) {
+            int filled = (int) Math.min(count, samples.length);
+            long[] sorted = Arrays.copyOf(samples, filled);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * filled) - 1;
+            percentileNanos = sorted[Math.max(0, Math.min(filled - 1, index))];
+        }
+    }
+
+    /**
+     * 当前分位数延迟（纳秒），样本不足时返回-1
+     */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+}
@@ -0,0 +1,210 @@
+package com.hoxkar.gateway.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 网关延迟指标
+ * 以Micrometer计时器 gateway.latency 记录各阶段耗时，标签为 stage、route、outcome（上游阶段另有 instance，可选 tenant），
+ * 发布P50/P95/P99与直方图桶，通过actuator metrics与 /api/gateway/metrics/latency 查看。
+ * 计时器按标签组合缓存，记录路径上只有一次Map查找
+ */
+@Component
+public class GatewayLatencyMetrics {
+
+    public static final String METER_NAME = "gateway.latency";
+
+    public static final String STAGE_CHAIN = "chain";
+    public static final String STAGE_UPSTREAM = "upstream";
+    public static final String STAGE_JWT = "jwt";
+    public static final String STAGE_RATE_LIMIT = "rate_limit";
+    public static final String STAGE_TENANT_CONTEXT = "tenant_context";
+
+    public static final String OUTCOME_PASSED = "passed";
+    public static final String OUTCOME_REJECTED = "rejected";
+    public static final String OUTCOME_ERROR = "error";
+    public static final String OUTCOME_CANCELLED = "cancelled";
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_CLIENT_ERROR = "client_error";
+    public static final String OUTCOME_SERVER_ERROR = "server_error";
+
+    private static final String NONE = "none";
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final boolean tenantTag;
+    private final Duration expiry;
+    private final Map<Tags, Timer> timers = new ConcurrentHashMap<>();
+
+    public GatewayLatencyMetrics(MeterRegistry meterRegistry,
+                                 @Value("${gateway.metrics.latency.enabled:true}") boolean enabled,
+                                 @Value("${gateway.metrics.latency.tenant-tag:false}") boolean tenantTag,
+                                 @Value("${gateway.metrics.latency.expiry:120000}") long expiryMillis) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.tenantTag = tenantTag;
+        this.expiry = Duration.ofMillis(expiryMillis);
+    }
+
+    /**
+     * 记录一次阶段耗时
+     */
+    public void record(String stage, String routeId, String outcome, long nanos) {
+        if (enabled) {
+            timer(Tags.of("stage", stage, "route", routeId != null ? routeId : NONE, "outcome", outcome))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 记录上游调用耗时（到收到响应头为止），附带上游实例
+     */
+    public void recordUpstream(String routeId, String instance, String outcome, long nanos) {
+        if (enabled) {
+            timer(Tags.of("stage", STAGE_UPSTREAM, "route", routeId != null ? routeId : NONE, "outcome", outcome,
+                    "instance", instance != null ? instance : NONE))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 记录整个过滤器链耗时；开启 tenant-tag 时按租户区分（注意租户数量带来的标签基数）
+     */
+    public void recordChain(String routeId, String tenantId, String outcome, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        Tags tags = Tags.of("stage", STAGE_CHAIN, "route", routeId != null ? routeId : NONE, "outcome", outcome);
+        if (tenantTag) {
+            tags = tags.and("tenant", tenantId != null ? tenantId : NONE);
+        }
+        timer(tags).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 为路由过滤器计时：从进入过滤器到调用下一个过滤器（passed），或过滤器自行结束请求（rejected/error/cancelled）
+     */
+    public GatewayFilter instrument(String stage, GatewayFilter delegate) {
+        if (!enabled) {
+            return delegate;
+        }
+        return (exchange, chain) -> {
+            long start = System.nanoTime();
+            String routeId = routeId(exchange);
+            AtomicBoolean recorded = new AtomicBoolean();
+            return delegate.filter(exchange, next -> {
+                    if (recorded.compareAndSet(false, true)) {
+                        record(stage, routeId, OUTCOME_PASSED, System.nanoTime() - start);
+                    }
+                    return chain.filter(next);
+                })
+                .doFinally(signalType -> {
+                    if (recorded.compareAndSet(false, true)) {
+                        record(stage, routeId, outcome(signalType), System.nanoTime() - start);
+                    }
+                });
+        };
+    }
+
+    /**
+     * 紧凑的延迟摘要：阶段 -> 标签组合 -> 计数、均值、分位数与最大值（毫秒）
+     */
+    public Map<String, Map<String, Map<String, Object>>> getSummary() {
+        Map<String, Map<String, Map<String, Object>>> summary = new TreeMap<>();
+        timers.forEach((tags, timer) -> {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", snapshot.count());
+            stats.put("mean", round(snapshot.mean(TimeUnit.MILLISECONDS)));
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                stats.put("p" + Math.round(value.percentile() * 100), round(value.value(TimeUnit.MILLISECONDS)));
+            }
+            stats.put("max", round(snapshot.max(TimeUnit.MILLISECONDS)));
+            StringBuilder key = new StringBuilder();
+            String stage = NONE;
+            for (Tag tag : tags) {
+                if ("stage".equals(tag.getKey())) {
+                    stage = tag.getValue();
+                    continue;
+                }
+                if (!key.isEmpty()) {
+                    key.append(',');
+                }
+                key.append(tag.getKey()).append('=').append(tag.getValue());
+            }
+            summary.computeIfAbsent(stage, s -> new TreeMap<>()).put(key.toString(), stats);
+        });
+        return summary;
+    }
+
+    public static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : NONE;
+    }
+
+    private static String outcome(SignalType signalType) {
+        return switch (signalType) {
+            case ON_ERROR -> OUTCOME_ERROR;
+            case CANCEL -> OUTCOME_CANCELLED;
+            default -> OUTCOME_REJECTED;
+        };
+    }
+
+    /**
+     * 按响应状态与结束信号归类请求结果
+     */
+    public static String outcome(HttpStatusCode status, SignalType signalType) {
+        if (signalType == SignalType.ON_ERROR) {
+            return OUTCOME_ERROR;
+        }
+        if (signalType == SignalType.CANCEL) {
+            return OUTCOME_CANCELLED;
+        }
+        if (status == null) {
+            return OUTCOME_SUCCESS;
+        }
+        if (status.is5xxServerError()) {
+            return OUTCOME_SERVER_ERROR;
+        }
+        return status.is4xxClientError() ? OUTCOME_CLIENT_ERROR : OUTCOME_SUCCESS;
+    }
+
+    private Timer timer(Tags tags) {
+        Timer timer = timers.get(tags);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(tags, key -> Timer.builder(METER_NAME)
+                .tags(key)
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .distributionStatisticExpiry(expiry)
+                .register(meterRegistry));
+        }
+        return timer;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,150 @@
+package com.hoxkar.gateway.ratelimit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min Sketch + Top-K候选集
+ * 计数矩阵大小固定（depth × width），候选集最多保存k个键，内存占用与出现过的键数量无关。
+ * 计数只会高估（哈希碰撞），不会低估；热点路径无锁，只有新键挤进候选集时才加锁。
+ * 每一行使用独立种子的murmur3哈希，种子在创建时随机生成：各行的碰撞相互独立，
+ * 也无法通过构造String.hashCode相同的键让所有行同时碰撞
+ */
+class CountMinTopK {
+
+    private final int capacity;
+    private final int width;
+    private final int depth;
+    private final int[] seeds;
+    private final AtomicLongArray counters;
+    private final ConcurrentHashMap<String, Long> candidates;
+
+    /**
+     * 候选集已满时的最小计数，新键估计值超过该值才尝试进入候选集
+     */
+    private volatile long threshold;
+
+    CountMinTopK(int capacity, int width, int depth) {
+        this.capacity = Math.max(1, capacity);
+        this.width = Math.max(16, width);
+        this.depth = Math.max(1, depth);
+        this.seeds = new int[this.depth];
+        SplittableRandom random = new SplittableRandom();
+        for (int i = 0; i < this.depth; i++) {
+            seeds[i] = random.nextInt();
+        }
+        this.counters = new AtomicLongArray(this.width * this.depth);
+        this.candidates = new ConcurrentHashMap<>(this.capacity * 2);
+    }
+
+    /**
+     * 累加键的权重
+     */
+    void add(String key, long weight) {
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            int index = i * width + Math.floorMod(murmur3(key, seeds[i]), width);
+            estimate = Math.min(estimate, counters.addAndGet(index, weight));
+        }
+        final long count = estimate;
+        if (candidates.computeIfPresent(key, (k, v) -> Math.max(v, count)) != null) {
+            return;
+        }
+        if (candidates.size() < capacity || count > threshold) {
+            admit(key, count);
+        }
+    }
+
+    /**
+     * 按估计计数降序返回前n个键
+     */
+    List<HeavyHitter> top(int n) {
+        List<HeavyHitter> result = new ArrayList<>(candidates.size());
+        for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+            result.add(new HeavyHitter(entry.getKey(), entry.getValue()));
+        }
+        result.sort((a, b) -> Long.compare(b.getEstimatedCount(), a.getEstimatedCount()));
+        return result.size() > n ? new ArrayList<>(result.subList(0, n)) : result;
+    }
+
+    /**
+     * 所有计数减半，使统计偏向近期流量
+     */
+    synchronized void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, v -> v >>> 1);
+        }
+        candidates.replaceAll((k, v) -> v >>> 1);
+        candidates.values().removeIf(v -> v == 0);
+        threshold = candidates.size() >= capacity ? minCount() : 0;
+    }
+
+    private synchronized void admit(String key, long count) {
+        if (candidates.containsKey(key)) {
+            return;
+        }
+        if (candidates.size() >= capacity) {
+            String minKey = null;
+            long min = Long.MAX_VALUE;
+            for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+                if (entry.getValue() < min) {
+                    min = entry.getValue();
+                    minKey = entry.getKey();
+                }
+            }
+            if (minKey == null || min >= count) {
+                threshold = min;
+                return;
+            }
+            candidates.remove(minKey);
+        }
+        candidates.put(key, count);
+        threshold = candidates.size() >= capacity ? minCount() : 0;
+    }
+
+    private long minCount() {
+        long min = Long.MAX_VALUE;
+        for (Long value : candidates.values()) {
+            min = Math.min(min, value);
+        }
+        return min == Long.MAX_VALUE ? 0 : min;
+    }
+
+    /**
+     * MurmurHash3 x86_32，按UTF-16字符每两个一组处理，不做字符串编码
+     */
+    static int murmur3(String key, int seed) {
+        int h1 = seed;
+        int length = key.length();
+        for (int i = 1; i < length; i += 2) {
+            int k1 = key.charAt(i - 1) | (key.charAt(i) << 16);
+            h1 = mixH1(h1, mixK1(k1));
+        }
+        if ((length & 1) == 1) {
+            h1 ^= mixK1(key.charAt(length - 1));
+        }
+        h1 ^= 2 * length;
+        h1 ^= h1 >>> 16;
+        h1 *= 0x85ebca6b;
+        h1 ^= h1 >>> 13;
+        h1 *= 0xc2b2ae35;
+        h1 ^= h1 >>> 16;
+        return h1;
+    }
+
+    private static int mixK1(int k1) {
+        k1 *= 0xcc9e2d51;
+        k1 = Integer.rotateLeft(k1, 15);
+        return k1 * 0x1b873593;
+    }
+
+    private static int mixH1(int h1, int k1) {
+        h1 ^= k1;
+        h1 = Integer.rotateLeft(h1, 13);
+        return h1 * 5 + 0xe6546b64;
+    }
+}
@@ -0,0 +1,24 @@
+package com.hoxkar.gateway.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 热点键统计结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeavyHitter {
+
+    /**
+     * 客户端IP、租户ID或归一化路由
+     */
+    private String key;
+
+    /**
+     * 估计的请求成本累计值（可能因哈希碰撞略有高估）
+     */
+    private long estimatedCount;
+}
@@ -0,0 +1,79 @@
+package com.hoxkar.gateway.ratelimit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 热点流量追踪器
+ * 分别按客户端、租户、归一化路由统计请求成本，找出压垮网关的调用方；
+ * 每个维度内存固定，计数按衰减周期减半，反映近期流量
+ */
+@Component
+public class HeavyHitterTracker {
+
+    /**
+     * 统计维度
+     */
+    public enum Dimension {
+        CLIENT, TENANT, ROUTE
+    }
+
+    private final Map<Dimension, CountMinTopK> sketches = new EnumMap<>(Dimension.class);
+    private final Duration decayInterval;
+    private Disposable decayTask;
+
+    public HeavyHitterTracker(@Value("${gateway.rate-limit.heavy-hitters.capacity:100}") int capacity,
+                              @Value("${gateway.rate-limit.heavy-hitters.width:2048}") int width,
+                              @Value("${gateway.rate-limit.heavy-hitters.depth:4}") int depth,
+                              @Value("${gateway.rate-limit.heavy-hitters.decay-interval:60000}") long decayIntervalMillis) {
+        for (Dimension dimension : Dimension.values()) {
+            sketches.put(dimension, new CountMinTopK(capacity, width, depth));
+        }
+        this.decayInterval = Duration.ofMillis(decayIntervalMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        decayTask = Flux.interval(decayInterval)
+                .subscribe(tick -> sketches.values().forEach(CountMinTopK::decay));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (decayTask != null) {
+            decayTask.dispose();
+        }
+    }
+
+    /**
+     * 记录一次请求
+     *
+     * @param clientIp 客户端IP
+     * @param tenantId 租户ID，未认证请求为null
+     * @param route    归一化后的路由
+     * @param cost     请求成本
+     */
+    public void record(String clientIp, String tenantId, String route, long cost) {
+        sketches.get(Dimension.CLIENT).add(clientIp, cost);
+        if (tenantId != null) {
+            sketches.get(Dimension.TENANT).add(tenantId, cost);
+        }
+        sketches.get(Dimension.ROUTE).add(route, cost);
+    }
+
+    /**
+     * 获取指定维度的前n个热点键
+     */
+    public List<HeavyHitter> top(Dimension dimension, int n) {
+        return sketches.get(dimension).top(n);
+    }
+}
@@ -0,0 +1,238 @@
+package com.hoxkar.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地/Redis混合限流器
+ * 准入判断只访问本地令牌桶，不产生网络I/O；后台定期把各桶的消耗量批量上报Redis（GCRA），
+ * 并用全局剩余额度校正本地余量。Redis变慢或不可用时，各节点按份额继续限流，整体限制近似成立
+ */
+@Slf4j
+@Component
+public class HybridRateLimiter {
+
+    /**
+     * GCRA同步脚本：每个键只保存一个理论到达时间（TAT，毫秒），
+     * 按批量消耗量推进TAT并返回剩余额度（可能为负，表示已超额）。
+     * 脚本通过EVALSHA执行，仅在Redis缺少缓存时回退一次EVAL
+     */
+    private static final String SYNC_SCRIPT =
+        "local key = KEYS[1]\n" +
+        "local interval = tonumber(ARGV[1])\n" +
+        "local tolerance = tonumber(ARGV[2])\n" +
+        "local consumed = tonumber(ARGV[3])\n" +
+        "local time = redis.call('TIME')\n" +
+        "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n" +
+        "local tat = tonumber(redis.call('GET', key))\n" +
+        "if tat == nil or tat < now then\n" +
+        "    tat = now\n" +
+        "end\n" +
+        "tat = math.ceil(math.min(tat + consumed * interval, now + 2 * tolerance))\n" +
+        "redis.call('SET', key, tat, 'PX', math.max(1, tat - now))\n" +
+        "return math.floor((now + tolerance - tat) / interval)";
+
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final DiscoveryClient discoveryClient;
+    private final RedisScript<Long> syncScript;
+    private final String serviceId;
+    private final Duration syncInterval;
+    private final Duration syncTimeout;
+    private final long overAdmission;
+    private final double weightedReserve;
+    private final Cache<String, LocalTokenBucket> buckets;
+
+    private volatile int nodes = 1;
+    private Disposable syncTask;
+
+    public HybridRateLimiter(ReactiveStringRedisTemplate reactiveRedisTemplate,
+                             DiscoveryClient discoveryClient,
+                             @Value("${spring.application.name}") String serviceId,
+                             @Value("${gateway.rate-limit.hybrid.sync-interval:100}") long syncIntervalMillis,
+                             @Value("${gateway.rate-limit.hybrid.sync-timeout:500}") long syncTimeoutMillis,
+                             @Value("${gateway.rate-limit.hybrid.over-admission:2}") long overAdmission,
+                             @Value("${gateway.rate-limit.hybrid.weighted-reserve:0.2}") double weightedReserve,
+                             @Value("${gateway.rate-limit.hybrid.max-keys:100000}") long maxKeys) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.discoveryClient = discoveryClient;
+        this.syncScript = new DefaultRedisScript<>(SYNC_SCRIPT, Long.class);
+        this.serviceId = serviceId;
+        this.syncInterval = Duration.ofMillis(syncIntervalMillis);
+        this.syncTimeout = Duration.ofMillis(syncTimeoutMillis);
+        this.overAdmission = overAdmission;
+        this.weightedReserve = Math.min(0.9, Math.max(0.0, weightedReserve));
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(10, TimeUnit.MINUTES)
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        syncTask = Flux.interval(syncInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> sync(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (syncTask != null) {
+            syncTask.dispose();
+        }
+        // 退出前尽量上报剩余消耗
+        try {
+            sync().block(syncTimeout);
+        } catch (Exception e) {
+            log.warn("Final rate limit sync failed: {}", e.toString());
+        }
+    }
+
+    /**
+     * 尝试获取令牌（纯内存操作）
+     *
+     * @param key      限流键
+     * @param capacity 全局桶容量（窗口内允许的请求数）
+     * @param window   补满整个桶所需的时间（秒）
+     * @param permits  本次请求消耗的令牌数（请求成本）
+     */
+    public boolean tryAcquire(String key, long capacity, long window, long permits) {
+        return tryAcquireAtRate(key, capacity, (double) capacity / window, permits);
+    }
+
+    /**
+     * 按补充速率尝试获取令牌（纯内存操作）
+     *
+     * @param key             限流键
+     * @param capacity        全局桶容量（突发容量）
+     * @param refillPerSecond 全局每秒补充的令牌数
+     * @param permits         本次请求消耗的令牌数（请求成本）
+     */
+    public boolean tryAcquireAtRate(String key, long capacity, double refillPerSecond, long permits) {
+        long now = System.currentTimeMillis();
+        int currentNodes = nodes;
+        double refillPerMilli = refillPerSecond / 1000.0;
+        LocalTokenBucket bucket = buckets.get(key,
+                k -> new LocalTokenBucket(capacity, refillPerMilli, currentNodes, now));
+        if (!bucket.hasRate(capacity, refillPerMilli)) {
+            // 配额变化（如租户调整订阅计划）后按新参数重建本地桶
+            bucket = buckets.asMap().compute(key, (k, existing) ->
+                    existing != null && existing.hasRate(capacity, refillPerMilli)
+                            ? existing
+                            : new LocalTokenBucket(capacity, refillPerMilli, currentNodes, now));
+        }
+        return bucket.tryAcquire(permits, now, currentNodes, weightedReserve);
+    }
+
+    /**
+     * 本地剩余令牌（用于监控）
+     */
+    public double getLocalAvailable(String key) {
+        LocalTokenBucket bucket = buckets.getIfPresent(key);
+        return bucket != null ? bucket.available(System.currentTimeMillis(), nodes) : 0;
+    }
+
+    /**
+     * 键对应的GCRA发射间隔（毫秒/令牌），本地无该键时返回null
+     */
+    public Double getEmissionInterval(String key) {
+        LocalTokenBucket bucket = buckets.getIfPresent(key);
+        return bucket != null ? 1.0 / bucket.getRefillPerMilli() : null;
+    }
+
+    /**
+     * 全局理论到达时间（毫秒，用于监控），Redis中无该键时为空
+     */
+    public Mono<Long> getTheoreticalArrival(String key) {
+        return reactiveRedisTemplate.opsForValue().get(key).map(Long::parseLong);
+    }
+
+    /**
+     * 全局状态的剩余过期时间（用于监控），Redis中无该键时为空
+     */
+    public Mono<Duration> getExpire(String key) {
+        return reactiveRedisTemplate.getExpire(key);
+    }
+
+    /**
+     * 清除本地令牌桶与Redis中的全局状态
+     */
+    public Mono<Void> reset(String key) {
+        buckets.invalidate(key);
+        return reactiveRedisTemplate.delete(key).then();
+    }
+
+    /**
+     * 当前估计的网关节点数
+     */
+    public int getNodes() {
+        return nodes;
+    }
+
+    /**
+     * 本地缓存的限流键数量
+     */
+    public long size() {
+        return buckets.estimatedSize();
+    }
+
+    /**
+     * 批量上报各桶的消耗量并校正本地余量
+     */
+    private Mono<Void> sync() {
+        refreshNodes();
+        return Flux.fromIterable(buckets.asMap().entrySet())
+                .flatMap(entry -> syncBucket(entry.getKey(), entry.getValue()), 32)
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Rate limit sync failed: {}", e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> syncBucket(String key, LocalTokenBucket bucket) {
+        long consumed = bucket.drainPending();
+        if (consumed == 0) {
+            return Mono.empty();
+        }
+        double interval = 1.0 / bucket.getRefillPerMilli();
+        List<String> args = List.of(
+                String.valueOf(interval),
+                String.valueOf(interval * bucket.getCapacity()),
+                String.valueOf(consumed));
+        return reactiveRedisTemplate.execute(syncScript, List.of(key), args)
+                .next()
+                .timeout(syncTimeout)
+                .doOnNext(remaining -> bucket.reconcile(remaining, nodes, overAdmission, System.currentTimeMillis()))
+                .then()
+                .onErrorResume(e -> {
+                    bucket.restorePending(consumed);
+                    log.debug("Rate limit sync failed for key: {}, cause: {}", key, e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    private void refreshNodes() {
+        try {
+            nodes = Math.max(1, discoveryClient.getInstances(serviceId).size());
+        } catch (Exception e) {
+            log.debug("Failed to refresh gateway node count: {}", e.getMessage());
+        }
+    }
+}
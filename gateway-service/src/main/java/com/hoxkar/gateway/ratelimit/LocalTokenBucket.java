@@ -0,0 +1,142 @@
+package com.hoxkar.gateway.ratelimit;
+
+/**
+ * 本地令牌桶
+ * 按本节点份额（全局速率 / 网关节点数）补充令牌；与Redis同步后用全局剩余令牌校正本地余量
+ */
+class LocalTokenBucket {
+
+    private final long capacity;
+    private final double refillPerMilli;
+
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * 自上次同步以来本地已消耗、尚未上报Redis的令牌数
+     */
+    private long pending;
+
+    /**
+     * 剩余的超额准入预算：本地余量不足时一次性动用，吸收同步间隔内的误差；
+     * 全局桶耗尽期间不补充，只有同步时全局剩余足以覆盖各节点的预算才恢复
+     */
+    private double overAdmissionBudget;
+
+    LocalTokenBucket(long capacity, double refillPerMilli, int nodes, long now) {
+        this.capacity = capacity;
+        this.refillPerMilli = refillPerMilli;
+        this.tokens = (double) capacity / Math.max(1, nodes);
+        this.lastRefill = now;
+    }
+
+    long getCapacity() {
+        return capacity;
+    }
+
+    double getRefillPerMilli() {
+        return refillPerMilli;
+    }
+
+    /**
+     * 桶参数是否与给定配额一致
+     */
+    boolean hasRate(long capacity, double refillPerMilli) {
+        return this.capacity == capacity && this.refillPerMilli == refillPerMilli;
+    }
+
+    /**
+     * 尝试获取令牌，纯内存操作
+     *
+     * @param reserveRatio 成本大于1的请求必须为单令牌请求保留的本地容量比例，
+     *                     避免批量/上传等昂贵请求耗尽令牌而饿死普通请求
+     */
+    synchronized boolean tryAcquire(long permits, long now, int nodes, double reserveRatio) {
+        refill(now, nodes);
+        double floor = 0;
+        if (permits > 1) {
+            double localCapacity = localCapacity(nodes);
+            // 单次成本超过可用容量的请求按可用容量计，否则永远无法获准
+            permits = Math.min(permits, Math.max(1L, (long) (localCapacity * (1 - reserveRatio))));
+            floor = permits > 1 ? localCapacity * reserveRatio : 0;
+        }
+        if (tokens - permits >= floor) {
+            tokens -= permits;
+            pending += permits;
+            return true;
+        }
+        // 本地余量不足的部分由超额预算补足，预算用完后直到全局桶恢复前不再超额准入
+        double shortfall = permits - Math.max(0, tokens - floor);
+        if (tokens >= floor && shortfall <= overAdmissionBudget) {
+            overAdmissionBudget -= shortfall;
+            tokens = floor;
+            pending += permits;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 取出待同步的消耗量
+     */
+    synchronized long drainPending() {
+        long drained = pending;
+        pending = 0;
+        return drained;
+    }
+
+    /**
+     * 同步失败时归还待同步的消耗量，下次再上报
+     */
+    synchronized void restorePending(long permits) {
+        pending += permits;
+    }
+
+    /**
+     * 用Redis返回的全局剩余令牌校正本地余量
+     *
+     * @param globalRemaining 全局剩余令牌（可能为负，表示已超额）
+     * @param overAdmission   每个节点允许的超额准入预算；不计入本地余量，只在全局剩余足以覆盖所有节点的预算时恢复
+     */
+    synchronized void reconcile(long globalRemaining, int nodes, long overAdmission, long now) {
+        int nodeCount = Math.max(1, nodes);
+        double share = (double) Math.max(0, globalRemaining) / nodeCount;
+        // 上报之后本地新产生的消耗尚未计入全局剩余，需要扣除
+        tokens = Math.min(capacity, Math.max(0, share - pending));
+        if (globalRemaining >= overAdmission * nodeCount) {
+            overAdmissionBudget = overAdmission;
+        }
+        lastRefill = now;
+    }
+
+    /**
+     * 剩余的超额准入预算
+     */
+    synchronized double overAdmissionBudget() {
+        return overAdmissionBudget;
+    }
+
+    /**
+     * 当前本地剩余令牌
+     */
+    synchronized double available(long now, int nodes) {
+        refill(now, nodes);
+        return tokens;
+    }
+
+    private void refill(long now, int nodes) {
+        long elapsed = now - lastRefill;
+        if (elapsed <= 0) {
+            return;
+        }
+        double localCapacity = localCapacity(nodes);
+        if (tokens < localCapacity) {
+            tokens = Math.min(localCapacity, tokens + elapsed * refillPerMilli / Math.max(1, nodes));
+        }
+        lastRefill = now;
+    }
+
+    private double localCapacity(int nodes) {
+        return Math.max(1.0, (double) capacity / Math.max(1, nodes));
+    }
+}
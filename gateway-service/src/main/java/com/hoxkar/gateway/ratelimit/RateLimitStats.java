@@ -0,0 +1,29 @@
+package com.hoxkar.gateway.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 限流统计信息
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitStats {
+
+    /**
+     * 全局已消耗的令牌数（按Redis中的理论到达时间估算）
+     */
+    private long currentCount;
+
+    /**
+     * 全局状态的剩余过期时间（秒）
+     */
+    private long remainingTtl;
+
+    /**
+     * 本节点本地令牌桶的剩余令牌
+     */
+    private long localAvailable;
+}
@@ -0,0 +1,115 @@
+package com.hoxkar.gateway.ratelimit;
+
+import com.hoxkar.common.policy.RoutePolicyRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 请求成本模型
+ * 批量、上传、搜索等请求的处理量是普通请求的数十倍以上，按成本消耗令牌而不是一律计1。
+ * 成本取以下各项的最大值，并以 max-cost 封顶：
+ * 路由策略中限流类别对应的成本（否则取路由元数据 rate-limit-cost）、声明的批量大小头、按请求体大小折算的令牌数
+ */
+@Component
+public class RequestCostResolver {
+
+    /**
+     * 交换属性/Reactor Context键，保存本次请求的成本
+     */
+    public static final String COST_ATTRIBUTE = RequestCostResolver.class.getName() + ".cost";
+
+    /**
+     * 路由元数据键：路由的基础成本
+     */
+    public static final String ROUTE_COST_METADATA = "rate-limit-cost";
+
+    /**
+     * 请求头：客户端声明的批量大小
+     */
+    public static final String BATCH_SIZE_HEADER = "X-Batch-Size";
+
+    private final RoutePolicyRegistry routePolicyRegistry;
+    private final Map<String, Long> classCosts;
+    private final long bytesPerToken;
+    private final long maxCost;
+
+    public RequestCostResolver(RoutePolicyRegistry routePolicyRegistry,
+                               @Value("${gateway.rate-limit.cost.classes:}") String[] classCosts,
+                               @Value("${gateway.rate-limit.cost.bytes-per-token:1048576}") long bytesPerToken,
+                               @Value("${gateway.rate-limit.cost.max-cost:1000}") long maxCost) {
+        this.routePolicyRegistry = routePolicyRegistry;
+        this.classCosts = parseClassCosts(classCosts);
+        this.bytesPerToken = bytesPerToken;
+        this.maxCost = Math.max(1, maxCost);
+    }
+
+    /**
+     * 计算请求成本（至少为1）
+     */
+    public long resolve(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        long cost = Math.max(baseCost(exchange), batchSize(request));
+        long contentLength = request.getHeaders().getContentLength();
+        if (contentLength > 0 && bytesPerToken > 0) {
+            cost = Math.max(cost, (contentLength + bytesPerToken - 1) / bytesPerToken);
+        }
+        return Math.min(cost, maxCost);
+    }
+
+    private long baseCost(ServerWebExchange exchange) {
+        String rateLimitClass = routePolicyRegistry.match(exchange.getRequest().getPath().value()).getRateLimitClass();
+        if (rateLimitClass != null) {
+            Long classCost = classCosts.get(rateLimitClass);
+            if (classCost != null) {
+                return classCost;
+            }
+        }
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route != null) {
+            Object value = route.getMetadata().get(ROUTE_COST_METADATA);
+            if (value != null) {
+                return parsePositive(value.toString());
+            }
+        }
+        return 1;
+    }
+
+    private static long batchSize(ServerHttpRequest request) {
+        String value = request.getHeaders().getFirst(BATCH_SIZE_HEADER);
+        return value != null ? parsePositive(value) : 1;
+    }
+
+    private static long parsePositive(String value) {
+        try {
+            return Math.max(1, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    /**
+     * 解析限流类别成本，格式 class=cost
+     */
+    private static Map<String, Long> parseClassCosts(String[] entries) {
+        Map<String, Long> costs = new HashMap<>();
+        for (String entry : entries) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int index = entry.indexOf('=');
+            if (index < 0) {
+                throw new IllegalArgumentException("Invalid rate limit class cost: " + entry);
+            }
+            costs.put(entry.substring(0, index).trim(), parsePositive(entry.substring(index + 1)));
+        }
+        return Map.copyOf(costs);
+    }
+}
@@ -0,0 +1,106 @@
+package com.hoxkar.gateway.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 路由模板归一化
+ * 把请求路径中的ID类路径段替换为占位符，例如 /api/users/1 与 /api/users/2 都归一化为 /api/users/{id}，
+ * 避免每个资源ID都产生独立的限流键
+ */
+@Component
+public class RouteTemplateNormalizer {
+
+    private static final String ID_PLACEHOLDER = "{id}";
+
+    /**
+     * 显式配置的路由模板（如 /api/tenants/code/{code}），优先于默认规则
+     */
+    private final List<PathPattern> templates;
+
+    public RouteTemplateNormalizer(@Value("${gateway.rate-limit.path-templates:}") String[] templates) {
+        PathPatternParser parser = new PathPatternParser();
+        List<PathPattern> parsed = new ArrayList<>();
+        for (String template : templates) {
+            if (!template.isBlank()) {
+                parsed.add(parser.parse(template.trim()));
+            }
+        }
+        this.templates = List.copyOf(parsed);
+    }
+
+    /**
+     * 归一化请求路径
+     */
+    public String normalize(String path) {
+        if (!templates.isEmpty()) {
+            PathContainer container = PathContainer.parsePath(path);
+            for (PathPattern template : templates) {
+                if (template.matches(container)) {
+                    return template.getPatternString();
+                }
+            }
+        }
+        return replaceIdSegments(path);
+    }
+
+    /**
+     * 默认规则：纯数字、UUID、长十六进制串等路径段视为ID；
+     * 无需替换时直接返回原字符串，不产生额外分配
+     */
+    private static String replaceIdSegments(String path) {
+        StringBuilder normalized = null;
+        int length = path.length();
+        int segmentStart = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i < length && path.charAt(i) != '/') {
+                continue;
+            }
+            boolean idSegment = isIdSegment(path, segmentStart, i);
+            if (idSegment && normalized == null) {
+                normalized = new StringBuilder(length);
+                normalized.append(path, 0, segmentStart);
+            }
+            if (normalized != null) {
+                if (idSegment) {
+                    normalized.append(ID_PLACEHOLDER);
+                } else {
+                    normalized.append(path, segmentStart, i);
+                }
+                if (i < length) {
+                    normalized.append('/');
+                }
+            }
+            segmentStart = i + 1;
+        }
+        return normalized != null ? normalized.toString() : path;
+    }
+
+    private static boolean isIdSegment(String path, int start, int end) {
+        int length = end - start;
+        if (length <= 0) {
+            return false;
+        }
+        boolean allDigits = true;
+        boolean allHex = true;
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            char c = path.charAt(i);
+            boolean digit = c >= '0' && c <= '9';
+            boolean hex = digit || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F') || c == '-';
+            if (digit) {
+                digits++;
+            }
+            allDigits &= digit;
+            allHex &= hex;
+        }
+        // 纯数字ID；或UUID/摘要等长度≥16且含数字的十六进制串
+        return allDigits || (allHex && length >= 16 && digits > 0);
+    }
+}
@@ -0,0 +1,27 @@
+package com.hoxkar.gateway.ratelimit;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 租户限流配额（tenant-service 内部接口返回结构）
+ * 覆盖值为空时使用订阅计划的默认配额
+ */
+@Data
+@NoArgsConstructor
+public class TenantQuota {
+
+    private Long tenantId;
+    private String tenantCode;
+    private String subscriptionPlan;
+
+    /**
+     * 每秒补充令牌数覆盖值
+     */
+    private Integer replenishRate;
+
+    /**
+     * 突发容量覆盖值
+     */
+    private Integer burstCapacity;
+}
@@ -0,0 +1,182 @@
+package com.hoxkar.gateway.ratelimit;
+
+import com.hoxkar.common.config.InternalApiConfig;
+import com.hoxkar.common.pojo.vo.ApiResponse;
+import com.hoxkar.gateway.config.RateLimitQuotaProperties;
+import com.hoxkar.gateway.config.RateLimitQuotaProperties.Quota;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 租户限流配额解析器
+ * 定期从 tenant-service 拉取所有活跃租户的订阅计划及覆盖配置，解析为令牌桶配额缓存在本地；
+ * 准入路径只读本地快照。拉取失败时保留上一次的快照
+ */
+@Slf4j
+@Component
+public class TenantQuotaResolver {
+
+    /**
+     * 租户限流键前缀，键格式为 tenant:{tenantId}
+     */
+    public static final String TENANT_KEY_PREFIX = "tenant:";
+
+    private static final String QUOTA_PATH = "/internal/tenants/rate-limit-quotas";
+    private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(5);
+    private static final ParameterizedTypeReference<ApiResponse<List<TenantQuota>>> RESPONSE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+    private final RateLimitQuotaProperties properties;
+
+    /**
+     * 限流键 -> 配额；整体替换，读取无锁
+     */
+    private volatile Map<String, Quota> tenantQuotas = Map.of();
+    /**
+     * 限流键 -> 订阅计划；与配额一起整体替换
+     */
+    private volatile Map<String, String> tenantPlans = Map.of();
+    private Disposable refreshTask;
+
+    public TenantQuotaResolver(WebClient.Builder webClientBuilder,
+                               ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction,
+                               RateLimitQuotaProperties properties,
+                               InternalApiConfig internalApiConfig) {
+        this.webClient = webClientBuilder
+                .baseUrl(properties.getTenantServiceUrl())
+                .defaultHeaders(headers -> {
+                    if (StringUtils.hasText(internalApiConfig.getToken())) {
+                        headers.set(InternalApiConfig.TOKEN_HEADER, internalApiConfig.getToken());
+                    }
+                })
+                .filter(loadBalancerFunction)
+                .build();
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        refreshTask = Flux.interval(Duration.ZERO, Duration.ofMillis(properties.getRefreshInterval()))
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refreshTask != null) {
+            refreshTask.dispose();
+        }
+    }
+
+    /**
+     * 解析限流键对应的配额
+     *
+     * @param key 限流键，tenant:{tenantId} 或匿名请求的客户端标识
+     */
+    public Quota resolve(String key) {
+        if (key.startsWith(TENANT_KEY_PREFIX)) {
+            Quota quota = tenantQuotas.get(key);
+            return quota != null ? quota : planQuota(properties.getDefaultPlan());
+        }
+        return properties.getAnonymous();
+    }
+
+    /**
+     * 解析限流键对应租户的订阅计划，未知租户返回默认计划，匿名请求返回null
+     *
+     * @param key 限流键，tenant:{tenantId} 或匿名请求的客户端标识
+     */
+    public String resolvePlan(String key) {
+        if (key.startsWith(TENANT_KEY_PREFIX)) {
+            String plan = tenantPlans.get(key);
+            return plan != null ? plan : properties.getDefaultPlan();
+        }
+        return null;
+    }
+
+    /**
+     * 已缓存配额的租户数量
+     */
+    public int size() {
+        return tenantQuotas.size();
+    }
+
+    /**
+     * 拉取并替换配额快照
+     */
+    public Mono<Void> refresh() {
+        return webClient.get()
+                .uri(QUOTA_PATH)
+                .retrieve()
+                .bodyToMono(RESPONSE_TYPE)
+                .timeout(FETCH_TIMEOUT)
+                .doOnNext(response -> {
+                    if (response.getCode() == null || response.getCode() != 200 || response.getData() == null) {
+                        log.warn("Tenant rate limit quota refresh rejected: {}", response.getMessage());
+                        return;
+                    }
+                    tenantQuotas = toQuotas(response.getData());
+                    tenantPlans = toPlans(response.getData());
+                    log.debug("Refreshed rate limit quotas for {} tenants", tenantQuotas.size());
+                })
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Failed to refresh tenant rate limit quotas, keeping {} cached entries: {}",
+                            tenantQuotas.size(), e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    private Map<String, Quota> toQuotas(List<TenantQuota> tenants) {
+        Map<String, Quota> quotas = new HashMap<>(tenants.size() * 2);
+        for (TenantQuota tenant : tenants) {
+            if (tenant.getTenantId() == null) {
+                continue;
+            }
+            Quota plan = planQuota(tenant.getSubscriptionPlan());
+            int replenishRate = positiveOrDefault(tenant.getReplenishRate(), plan.getReplenishRate());
+            int burstCapacity = positiveOrDefault(tenant.getBurstCapacity(), plan.getBurstCapacity());
+            quotas.put(TENANT_KEY_PREFIX + tenant.getTenantId(),
+                    new Quota(replenishRate, Math.max(burstCapacity, replenishRate)));
+        }
+        return quotas;
+    }
+
+    private Map<String, String> toPlans(List<TenantQuota> tenants) {
+        Map<String, String> plans = new HashMap<>(tenants.size() * 2);
+        for (TenantQuota tenant : tenants) {
+            if (tenant.getTenantId() != null && tenant.getSubscriptionPlan() != null) {
+                plans.put(TENANT_KEY_PREFIX + tenant.getTenantId(), tenant.getSubscriptionPlan());
+            }
+        }
+        return plans;
+    }
+
+    private Quota planQuota(String plan) {
+        Quota quota = plan != null ? properties.getPlans().get(plan) : null;
+        if (quota == null) {
+            quota = properties.getPlans().get(properties.getDefaultPlan());
+        }
+        return quota != null ? quota : properties.getAnonymous();
+    }
+
+    private static int positiveOrDefault(Integer value, int defaultValue) {
+        return value != null && value > 0 ? value : defaultValue;
+    }
+}
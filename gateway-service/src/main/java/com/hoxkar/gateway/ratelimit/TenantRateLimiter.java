@@ -0,0 +1,111 @@
+package com.hoxkar.gateway.ratelimit;
+
+import com.hoxkar.gateway.config.RateLimitQuotaProperties.Quota;
+import com.hoxkar.gateway.metrics.GatewayLatencyMetrics;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 按租户配额限流的 RequestRateLimiter 实现
+ * 配额由 {@link TenantQuotaResolver} 按订阅计划和租户配置解析，令牌桶由 {@link HybridRateLimiter} 维护，
+ * 准入判断不访问Redis。同一租户在所有路由上共享一个令牌桶，每个请求按 {@link RequestCostResolver} 给出的成本消耗令牌
+ */
+@Primary
+@Component
+public class TenantRateLimiter extends AbstractRateLimiter<TenantRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "tenant-rate-limiter";
+
+    private static final String KEY_PREFIX = "rate_limit:";
+
+    private final HybridRateLimiter hybridRateLimiter;
+    private final TenantQuotaResolver quotaResolver;
+    private final GatewayLatencyMetrics latencyMetrics;
+    private final Config defaultConfig = new Config();
+
+    public TenantRateLimiter(HybridRateLimiter hybridRateLimiter,
+                             TenantQuotaResolver quotaResolver,
+                             ConfigurationService configurationService,
+                             GatewayLatencyMetrics latencyMetrics) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.hybridRateLimiter = hybridRateLimiter;
+        this.quotaResolver = quotaResolver;
+        this.latencyMetrics = latencyMetrics;
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        // 请求成本由 RequestCostFilter 写入 Reactor Context
+        return Mono.deferContextual(context -> {
+            long start = System.nanoTime();
+            Response response = isAllowed(routeId, id, context.getOrDefault(RequestCostResolver.COST_ATTRIBUTE, 1L));
+            latencyMetrics.record(GatewayLatencyMetrics.STAGE_RATE_LIMIT, routeId,
+                    response.isAllowed() ? GatewayLatencyMetrics.OUTCOME_PASSED : GatewayLatencyMetrics.OUTCOME_REJECTED,
+                    System.nanoTime() - start);
+            return Mono.just(response);
+        });
+    }
+
+    private Response isAllowed(String routeId, String id, long cost) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        Quota quota = quotaResolver.resolve(id);
+        String key = KEY_PREFIX + id;
+        boolean allowed = hybridRateLimiter.tryAcquireAtRate(
+                key, quota.getBurstCapacity(), quota.getReplenishRate(), cost);
+        if (!config.isIncludeHeaders()) {
+            return new Response(allowed, Map.of());
+        }
+        return new Response(allowed, Map.of(
+                "X-RateLimit-Remaining", String.valueOf((long) hybridRateLimiter.getLocalAvailable(key)),
+                "X-RateLimit-Replenish-Rate", String.valueOf(quota.getReplenishRate()),
+                "X-RateLimit-Burst-Capacity", String.valueOf(quota.getBurstCapacity()),
+                "X-RateLimit-Requested-Tokens", String.valueOf(cost)));
+    }
+
+    /**
+     * 限流统计（用于监控），非阻塞读取Redis中的全局状态
+     *
+     * @param id 限流键，tenant:{tenantId} 或 ip:{clientIp}
+     */
+    public Mono<RateLimitStats> getStats(String id) {
+        String key = KEY_PREFIX + id;
+        // GCRA中已消耗的令牌数 = (TAT - now) / 发射间隔
+        double interval = 1000.0 / quotaResolver.resolve(id).getReplenishRate();
+        Mono<Long> consumed = hybridRateLimiter.getTheoreticalArrival(key)
+                .map(tat -> Math.max(0L, (long) Math.ceil((tat - System.currentTimeMillis()) / interval)))
+                .defaultIfEmpty(0L);
+        Mono<Long> ttl = hybridRateLimiter.getExpire(key)
+                .map(Duration::getSeconds)
+                .defaultIfEmpty(0L);
+        return Mono.zip(consumed, ttl, (count, remaining) ->
+                new RateLimitStats(count, remaining, (long) hybridRateLimiter.getLocalAvailable(key)));
+    }
+
+    /**
+     * 重置限流计数（用于管理）
+     *
+     * @param id 限流键，tenant:{tenantId} 或 ip:{clientIp}
+     */
+    public Mono<Void> reset(String id) {
+        return hybridRateLimiter.reset(KEY_PREFIX + id);
+    }
+
+    /**
+     * 路由级配置
+     */
+    @Data
+    public static class Config {
+
+        /**
+         * 是否在响应中返回限流相关头
+         */
+        private boolean includeHeaders = true;
+    }
+}
@@ -0,0 +1,89 @@
+package com.hoxkar.gateway.resilience;
+
+import com.hoxkar.gateway.config.ResilienceProperties;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 连续失败熔断器
+ * 连续失败达到阈值后打开，打开期间直接拒绝；恢复时间过后进入半开状态，只放行一个探测请求，
+ * 探测成功则关闭，失败则重新打开
+ */
+class CircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final ResilienceProperties.CircuitBreaker config;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probing = new AtomicBoolean();
+
+    /**
+     * 打开状态的结束时间（毫秒），0表示关闭
+     */
+    private volatile long openUntil;
+
+    CircuitBreaker(ResilienceProperties.CircuitBreaker config) {
+        this.config = config;
+    }
+
+    /**
+     * 是否允许请求通过；半开状态下只有获得探测权的请求返回true
+     */
+    boolean tryAcquire(long now) {
+        long until = openUntil;
+        if (until == 0) {
+            return true;
+        }
+        return now >= until && probing.compareAndSet(false, true);
+    }
+
+    void onSuccess() {
+        consecutiveFailures.set(0);
+        if (openUntil != 0) {
+            openUntil = 0;
+            probing.set(false);
+        }
+    }
+
+    void onFailure(long now) {
+        if (openUntil != 0) {
+            // 探测失败，重新打开
+            openUntil = now + config.getRecoveryTimeout();
+            probing.set(false);
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= config.getFailureThreshold()) {
+            openUntil = now + config.getRecoveryTimeout();
+        }
+    }
+
+    /**
+     * 探测请求被取消等无法判断的情况：归还探测权
+     */
+    void onIgnore() {
+        if (openUntil != 0) {
+            probing.set(false);
+        }
+    }
+
+    /**
+     * 距离允许探测的剩余毫秒数
+     */
+    long remainingOpenMillis(long now) {
+        long until = openUntil;
+        return until == 0 ? 0 : Math.max(0, until - now);
+    }
+
+    State getState(long now) {
+        long until = openUntil;
+        if (until == 0) {
+            return State.CLOSED;
+        }
+        return now >= until ? State.HALF_OPEN : State.OPEN;
+    }
+}
@@ -0,0 +1,111 @@
+package com.hoxkar.gateway.resilience;
+
+import com.hoxkar.gateway.config.ResilienceProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 梯度自适应并发限制
+ * 比较短期RTT与长期RTT：延迟上升说明下游开始排队，按比例收缩并发上限；延迟平稳时在上限之上预留
+ * sqrt(limit) 的排队余量缓慢增长。准入只做一次CAS，超过上限立即拒绝
+ */
+class GradientConcurrencyLimiter {
+
+    private static final double SHORT_ALPHA = 0.5;
+
+    private final ResilienceProperties.Concurrency config;
+    private final double longAlpha;
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double shortRtt;
+    private double longRtt;
+
+    GradientConcurrencyLimiter(ResilienceProperties.Concurrency config) {
+        this.config = config;
+        this.longAlpha = 2.0 / (Math.max(1, config.getLongWindow()) + 1);
+        this.estimatedLimit = config.getInitialLimit();
+        this.limit = config.getInitialLimit();
+    }
+
+    /**
+     * 尝试占用一个并发槽位
+     *
+     * @return 占用时的并发数（含本次），超过上限时返回-1
+     */
+    int tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                return -1;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * 请求成功完成：释放槽位并用本次RTT更新上限
+     *
+     * @param inflightAtStart 请求开始时的并发数
+     */
+    void onSuccess(long rttNanos, int inflightAtStart) {
+        inflight.decrementAndGet();
+        update(rttNanos, inflightAtStart);
+    }
+
+    /**
+     * 下游过载（超时、5xx）：释放槽位并收缩上限
+     */
+    void onOverload() {
+        inflight.decrementAndGet();
+        synchronized (this) {
+            estimatedLimit = clamp(estimatedLimit * config.getBackoffRatio());
+            limit = (int) estimatedLimit;
+        }
+    }
+
+    /**
+     * 请求被取消等无法判断的情况：只释放槽位
+     */
+    void onIgnore() {
+        inflight.decrementAndGet();
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getInflight() {
+        return inflight.get();
+    }
+
+    private synchronized void update(long rttNanos, int inflightAtStart) {
+        double rtt = rttNanos;
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+            return;
+        }
+        shortRtt = shortRtt + SHORT_ALPHA * (rtt - shortRtt);
+        longRtt = longRtt + longAlpha * (rtt - longRtt);
+        // 长期RTT明显高于短期RTT时（如从一次长时间的拥塞恢复）加快回落
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        // 负载远低于上限时延迟不反映容量，不调整
+        if (inflightAtStart < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, config.getRttTolerance() * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = clamp(estimatedLimit * (1 - config.getSmoothing()) + newLimit * config.getSmoothing());
+        limit = (int) estimatedLimit;
+    }
+
+    private double clamp(double value) {
+        return Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), value));
+    }
+}
@@ -0,0 +1,53 @@
+package com.hoxkar.gateway.resilience;
+
+import com.hoxkar.gateway.config.ResilienceProperties;
+
+/**
+ * 重试预算
+ * 每个首次请求存入 ratio 个重试令牌，每次重试取出1个；另按时间补充，保证低流量时每秒至少可以重试 min-retries-per-second 次；
+ * 下游整体故障时重试量被限制在正常流量的一定比例内，不会成倍放大
+ */
+class RetryBudget {
+
+    private final ResilienceProperties.RetryBudget config;
+
+    private double tokens;
+    private long lastRefill;
+
+    RetryBudget(ResilienceProperties.RetryBudget config, long now) {
+        this.config = config;
+        this.tokens = config.getMinRetriesPerSecond();
+        this.lastRefill = now;
+    }
+
+    synchronized void onRequest(long now) {
+        refill(now);
+        tokens = Math.min(config.getMaxTokens(), tokens + config.getRatio());
+    }
+
+    synchronized boolean tryRetry(long now) {
+        refill(now);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    synchronized double available(long now) {
+        refill(now);
+        return tokens;
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefill;
+        if (elapsed > 0) {
+            // 时间补充只补到每秒最少重试数，空闲期间不会积攒出大量重试
+            double reserve = config.getMinRetriesPerSecond();
+            if (tokens < reserve) {
+                tokens = Math.min(reserve, tokens + elapsed * reserve / 1000.0);
+            }
+            lastRefill = now;
+        }
+    }
+}
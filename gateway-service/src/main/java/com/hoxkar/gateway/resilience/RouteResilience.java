@@ -0,0 +1,144 @@
+package com.hoxkar.gateway.resilience;
+
+import com.hoxkar.gateway.config.ResilienceProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个路由的韧性状态：重试预算、熔断器与自适应并发限制
+ * 每次转发（含重试）先检查重试预算，再检查熔断器，最后占用并发槽位；任一项不满足立即拒绝，不访问下游
+ */
+public class RouteResilience {
+
+    /**
+     * 拒绝原因
+     */
+    public enum Rejection {
+        RETRY_BUDGET,
+        CIRCUIT_OPEN,
+        CONCURRENCY_LIMIT
+    }
+
+    private final GradientConcurrencyLimiter limiter;
+    private final CircuitBreaker circuitBreaker;
+    private final RetryBudget retryBudget;
+    private final Map<Rejection, LongAdder> rejections = new LinkedHashMap<>();
+
+    RouteResilience(ResilienceProperties properties) {
+        this.limiter = new GradientConcurrencyLimiter(properties.getConcurrency());
+        this.circuitBreaker = new CircuitBreaker(properties.getCircuitBreaker());
+        this.retryBudget = new RetryBudget(properties.getRetryBudget(), System.currentTimeMillis());
+        for (Rejection rejection : Rejection.values()) {
+            rejections.put(rejection, new LongAdder());
+        }
+    }
+
+    /**
+     * 申请一次转发
+     *
+     * @param retry 是否为重试
+     */
+    public Permit acquire(boolean retry) {
+        long now = System.currentTimeMillis();
+        if (retry) {
+            if (!retryBudget.tryRetry(now)) {
+                return reject(Rejection.RETRY_BUDGET, 1);
+            }
+        } else {
+            retryBudget.onRequest(now);
+        }
+        if (!circuitBreaker.tryAcquire(now)) {
+            return reject(Rejection.CIRCUIT_OPEN, Math.max(1, (circuitBreaker.remainingOpenMillis(now) + 999) / 1000));
+        }
+        int inflight = limiter.tryAcquire();
+        if (inflight < 0) {
+            circuitBreaker.onIgnore();
+            return reject(Rejection.CONCURRENCY_LIMIT, 1);
+        }
+        return new Permit(inflight, System.nanoTime());
+    }
+
+    /**
+     * 路由状态统计
+     */
+    public Map<String, Object> getStats() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("limit", limiter.getLimit());
+        stats.put("inflight", limiter.getInflight());
+        stats.put("circuitState", circuitBreaker.getState(now).name());
+        stats.put("retryTokens", retryBudget.available(now));
+        Map<String, Long> rejected = new LinkedHashMap<>();
+        rejections.forEach((rejection, count) -> rejected.put(rejection.name(), count.sum()));
+        stats.put("rejected", rejected);
+        return stats;
+    }
+
+    private Permit reject(Rejection rejection, long retryAfterSeconds) {
+        rejections.get(rejection).increment();
+        return new Permit(rejection, retryAfterSeconds);
+    }
+
+    /**
+     * 一次转发的许可；获准的许可必须以 onSuccess / onFailure / onCancel 之一结束
+     */
+    public final class Permit {
+
+        private final Rejection rejection;
+        private final long retryAfterSeconds;
+        private final int inflightAtStart;
+        private final long startNanos;
+
+        private Permit(Rejection rejection, long retryAfterSeconds) {
+            this.rejection = rejection;
+            this.retryAfterSeconds = retryAfterSeconds;
+            this.inflightAtStart = 0;
+            this.startNanos = 0;
+        }
+
+        private Permit(int inflightAtStart, long startNanos) {
+            this.rejection = null;
+            this.retryAfterSeconds = 0;
+            this.inflightAtStart = inflightAtStart;
+            this.startNanos = startNanos;
+        }
+
+        public boolean isRejected() {
+            return rejection != null;
+        }
+
+        public Rejection getRejection() {
+            return rejection;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+
+        /**
+         * 下游正常响应（非5xx）
+         */
+        public void onSuccess() {
+            limiter.onSuccess(System.nanoTime() - startNanos, inflightAtStart);
+            circuitBreaker.onSuccess();
+        }
+
+        /**
+         * 下游失败：5xx、超时或连接错误
+         */
+        public void onFailure() {
+            limiter.onOverload();
+            circuitBreaker.onFailure(System.currentTimeMillis());
+        }
+
+        /**
+         * 客户端取消等无法判断结果的情况
+         */
+        public void onCancel() {
+            limiter.onIgnore();
+            circuitBreaker.onIgnore();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.hoxkar.gateway.resilience;
+
+import com.hoxkar.gateway.config.ResilienceProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 路由韧性状态注册表，按路由ID懒创建
+ */
+@Component
+public class RouteResilienceRegistry {
+
+    private final ResilienceProperties properties;
+    private final Map<String, RouteResilience> routes = new ConcurrentHashMap<>();
+
+    public RouteResilienceRegistry(ResilienceProperties properties) {
+        this.properties = properties;
+    }
+
+    public RouteResilience get(String routeId) {
+        return routes.computeIfAbsent(routeId, id -> new RouteResilience(properties));
+    }
+
+    /**
+     * 各路由的状态统计
+     */
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new TreeMap<>();
+        routes.forEach((routeId, resilience) -> stats.put(routeId, resilience.getStats()));
+        return stats;
+    }
+}
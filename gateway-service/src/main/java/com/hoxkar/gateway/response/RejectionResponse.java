@@ -0,0 +1,70 @@
+package com.hoxkar.gateway.response;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 网关拒绝响应
+ * 每种拒绝原因的JSON正文在类加载时编码一次，保存在共享的只读堆外缓冲区中；写出时只复制读写索引（duplicate），
+ * 不格式化字符串、不分配正文字节。拒绝时间放在 X-Rejected-At 响应头中，正文不含时间戳。
+ * 消息内容固定，不回显异常信息
+ */
+public enum RejectionResponse {
+
+    MISSING_TOKEN(HttpStatus.UNAUTHORIZED, "Missing or invalid Authorization header"),
+    INVALID_TOKEN(HttpStatus.UNAUTHORIZED, "Invalid JWT token"),
+    REVOKED_TOKEN(HttpStatus.UNAUTHORIZED, "Token is blacklisted"),
+    AUTHENTICATION_FAILED(HttpStatus.UNAUTHORIZED, "Authentication failed"),
+    PERMISSION_DENIED(HttpStatus.FORBIDDEN, "Insufficient permission"),
+    NOT_FOUND(HttpStatus.NOT_FOUND, "Not found"),
+    RATE_LIMITED(HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded. Please try again later."),
+    GATEWAY_OVERLOADED(HttpStatus.SERVICE_UNAVAILABLE, "Gateway is overloaded. Please try again later."),
+    RETRY_BUDGET_EXHAUSTED(HttpStatus.SERVICE_UNAVAILABLE, "Service temporarily overloaded (RETRY_BUDGET). Please try again later."),
+    CIRCUIT_OPEN(HttpStatus.SERVICE_UNAVAILABLE, "Service temporarily overloaded (CIRCUIT_OPEN). Please try again later."),
+    CONCURRENCY_LIMITED(HttpStatus.SERVICE_UNAVAILABLE, "Service temporarily overloaded (CONCURRENCY_LIMIT). Please try again later.");
+
+    /**
+     * 响应头：拒绝时间（毫秒时间戳）
+     */
+    public static final String REJECTED_AT_HEADER = "X-Rejected-At";
+
+    private final HttpStatus status;
+    private final byte[] body;
+    private final ByteBuf sharedBody;
+
+    RejectionResponse(HttpStatus status, String message) {
+        this.status = status;
+        this.body = ("{\"code\":" + status.value() + ",\"message\":\"" + message + "\",\"data\":null}")
+                .getBytes(StandardCharsets.UTF_8);
+        // 不可释放的只读缓冲区：写出后Netty的release对其无效，可被所有连接反复写出
+        this.sharedBody = Unpooled.unreleasableBuffer(
+                Unpooled.directBuffer(body.length).writeBytes(body).asReadOnly());
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * 写出拒绝响应
+     */
+    public Mono<Void> write(ServerHttpResponse response) {
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        response.getHeaders().set(REJECTED_AT_HEADER, Long.toString(System.currentTimeMillis()));
+        DataBufferFactory factory = response.bufferFactory();
+        if (factory instanceof NettyDataBufferFactory nettyFactory) {
+            return response.writeWith(Mono.just(nettyFactory.wrap(sharedBody.duplicate())));
+        }
+        return response.writeWith(Mono.just(factory.wrap(body)));
+    }
+}
@@ -0,0 +1,148 @@
+package com.hoxkar.gateway.accesslog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessLogRingBufferTest {
+
+    @Test
+    void capacityRoundsUpToPowerOfTwo() {
+        assertEquals(1024, new AccessLogRingBuffer(1000).capacity());
+        assertEquals(1024, new AccessLogRingBuffer(1024).capacity());
+        assertEquals(2048, new AccessLogRingBuffer(1025).capacity());
+    }
+
+    @Test
+    void drainsPublishedRecordsInOrderAndClearsSlots() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(8);
+        for (int i = 0; i < 3; i++) {
+            offer(buffer, "/api/" + i);
+        }
+        List<String> paths = new ArrayList<>();
+        assertEquals(3, buffer.drain(record -> paths.add(record.path), 10));
+        assertEquals(List.of("/api/0", "/api/1", "/api/2"), paths);
+        assertEquals(0, buffer.getPending());
+        assertNull(buffer.slot(0).path);
+    }
+
+    @Test
+    void drainStopsAtUnpublishedSlot() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(8);
+        offer(buffer, "/a");
+        long pending = buffer.claim();
+        offer(buffer, "/c");
+
+        List<String> paths = new ArrayList<>();
+        assertEquals(1, buffer.drain(record -> paths.add(record.path), 10));
+        assertEquals(2, buffer.getPending());
+
+        // 生产者写完后发布，消费者按序继续
+        AccessLogRecord record = buffer.slot(pending);
+        record.path = "/b";
+        buffer.publish(record, pending);
+        assertEquals(2, buffer.drain(r -> paths.add(r.path), 10));
+        assertEquals(List.of("/a", "/b", "/c"), paths);
+    }
+
+    @Test
+    void drainRespectsBatchLimit() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(8);
+        for (int i = 0; i < 5; i++) {
+            offer(buffer, "/api/" + i);
+        }
+        assertEquals(2, buffer.drain(record -> { }, 2));
+        assertEquals(3, buffer.getPending());
+    }
+
+    @Test
+    void dropsWhenFullWithoutBlocking() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(offer(buffer, "/api/" + i));
+        }
+        assertEquals(-1, buffer.claim());
+        assertEquals(-1, buffer.claim());
+        assertEquals(2, buffer.getDropped());
+
+        // 消费后槽位可复用
+        buffer.drain(record -> { }, 1);
+        assertTrue(offer(buffer, "/api/4"));
+        List<String> paths = new ArrayList<>();
+        buffer.drain(record -> paths.add(record.path), 10);
+        assertEquals(List.of("/api/1", "/api/2", "/api/3", "/api/4"), paths);
+    }
+
+    @Test
+    void failingHandlerStillAdvances() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(4);
+        offer(buffer, "/a");
+        try {
+            buffer.drain(record -> {
+                throw new IllegalStateException("appender failed");
+            }, 10);
+        } catch (IllegalStateException ignored) {
+            // 写出失败由调用方记录
+        }
+        assertEquals(0, buffer.getPending());
+        assertNull(buffer.slot(0).path);
+    }
+
+    @Test
+    void concurrentProducersLoseNothingWhileConsumerKeepsUp() throws InterruptedException {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(256);
+        int producers = 4;
+        int perProducer = 50_000;
+        Set<String> seen = new HashSet<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    // 满时自旋重试，以便校验每条记录都被消费且只消费一次
+                    while (!offer(buffer, producer + ":" + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (seen.size() < producers * perProducer && System.nanoTime() < deadline) {
+            buffer.drain(record -> assertTrue(seen.add(record.path)), 64);
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(producers * perProducer, seen.size());
+        assertEquals(0, buffer.getPending());
+    }
+
+    private static boolean offer(AccessLogRingBuffer buffer, String path) {
+        long sequence = buffer.claim();
+        if (sequence < 0) {
+            return false;
+        }
+        AccessLogRecord record = buffer.slot(sequence);
+        record.path = path;
+        buffer.publish(record, sequence);
+        return true;
+    }
+}
@@ -0,0 +1,137 @@
+package com.hoxkar.gateway.admission;
+
+import com.hoxkar.gateway.admission.TenantAdmissionController.Ticket;
+import com.hoxkar.gateway.config.AdmissionProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TenantAdmissionControllerTest {
+
+    private AdmissionProperties properties;
+    private TenantAdmissionController controller;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdmissionProperties();
+        properties.setMaxInflight(2);
+        properties.setMaxQueueSize(2);
+        properties.setMaxWait(10_000L);
+        properties.setPlanPriorities(Map.of("FREE", 1, "PRO", 10));
+        controller = new TenantAdmissionController(properties);
+    }
+
+    @Test
+    void admitsImmediatelyBelowMaxInflight() {
+        Ticket first = controller.acquire("t1", "FREE").block();
+        Ticket second = controller.acquire("t2", "FREE").block();
+        assertFalse(first.isRejected());
+        assertFalse(second.isRejected());
+
+        AtomicReference<Ticket> third = subscribe("t3", "FREE");
+        assertNull(third.get());
+        assertEquals(2, controller.getStats().get("inflight"));
+        assertEquals(1, controller.getStats().get("waiting"));
+    }
+
+    @Test
+    void releaseAdmitsHigherPlanFirst() {
+        Ticket first = controller.acquire("t1", "FREE").block();
+        Ticket second = controller.acquire("t1", "FREE").block();
+        AtomicReference<Ticket> free = subscribe("t2", "FREE");
+        AtomicReference<Ticket> pro = subscribe("t3", "PRO");
+
+        first.release();
+        assertNotNull(pro.get());
+        assertFalse(pro.get().isRejected());
+        assertNull(free.get());
+
+        second.release();
+        assertNotNull(free.get());
+        assertFalse(free.get().isRejected());
+    }
+
+    @Test
+    void tenantWithinFairShareBeatsHigherPlan() {
+        Ticket first = controller.acquire("t1", "PRO").block();
+        controller.acquire("t1", "PRO").block();
+        // t1 已占满全部并发，超过公平份额
+        AtomicReference<Ticket> greedy = subscribe("t1", "PRO");
+        AtomicReference<Ticket> modest = subscribe("t2", "FREE");
+
+        first.release();
+        assertNotNull(modest.get());
+        assertNull(greedy.get());
+    }
+
+    @Test
+    void fullQueueEvictsLowestPriorityWaiter() {
+        controller.acquire("t1", "FREE").block();
+        controller.acquire("t1", "FREE").block();
+        AtomicReference<Ticket> early = subscribe("t2", "FREE");
+        AtomicReference<Ticket> late = subscribe("t3", "FREE");
+
+        AtomicReference<Ticket> pro = subscribe("t4", "PRO");
+        assertNull(pro.get());
+        assertNull(early.get());
+        assertSame(Ticket.REJECTED, late.get());
+
+        // 新请求优先级不高于队尾时直接拒绝
+        AtomicReference<Ticket> anonymous = subscribe("anonymous", null);
+        assertSame(Ticket.REJECTED, anonymous.get());
+        assertEquals(2L, controller.getStats().get("shedQueueFull"));
+        assertEquals(2, controller.getStats().get("waiting"));
+    }
+
+    @Test
+    void waiterTimesOutWithRejection() {
+        properties.setMaxWait(50L);
+        controller.acquire("t1", "FREE").block();
+        controller.acquire("t1", "FREE").block();
+
+        Ticket ticket = controller.acquire("t2", "PRO").block(Duration.ofSeconds(5));
+        assertTrue(ticket.isRejected());
+        assertEquals(1L, controller.getStats().get("shedTimeout"));
+        assertEquals(0, controller.getStats().get("waiting"));
+    }
+
+    @Test
+    void cancelledWaiterLeavesQueue() {
+        Ticket first = controller.acquire("t1", "FREE").block();
+        controller.acquire("t1", "FREE").block();
+        Disposable subscription = controller.acquire("t2", "FREE").subscribe();
+
+        subscription.dispose();
+        assertEquals(0, controller.getStats().get("waiting"));
+
+        first.release();
+        assertEquals(1, controller.getStats().get("inflight"));
+    }
+
+    @Test
+    void releaseIsIdempotent() {
+        Ticket ticket = controller.acquire("t1", "FREE").block();
+        ticket.release();
+        ticket.release();
+        Ticket.REJECTED.release();
+        assertEquals(0, controller.getStats().get("inflight"));
+        assertEquals(0, controller.getStats().get("activeTenants"));
+    }
+
+    private AtomicReference<Ticket> subscribe(String tenantKey, String plan) {
+        AtomicReference<Ticket> result = new AtomicReference<>();
+        controller.acquire(tenantKey, plan).subscribe(result::set);
+        return result;
+    }
+}
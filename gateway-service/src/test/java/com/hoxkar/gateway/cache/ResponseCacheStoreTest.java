@@ -0,0 +1,82 @@
+package com.hoxkar.gateway.cache;
+
+import com.hoxkar.common.policy.PermissionSnapshot;
+import com.hoxkar.common.policy.ResponseCachePurge;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+class ResponseCacheStoreTest {
+
+    private static final long TTL = TimeUnit.MINUTES.toNanos(1);
+
+    private ReactiveStringRedisTemplate redisTemplate;
+    private ResponseCacheStore store;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        store = new ResponseCacheStore(redisTemplate, 1 << 20, 16);
+    }
+
+    @Test
+    void purgeMatchesRouteAndTenant() {
+        store.put(key("tenant-service", "1"), response());
+        store.put(key("tenant-service", "2"), response());
+        store.put(key("user-service", "1"), response());
+
+        assertEquals(1, store.purge("tenant-service", "1"));
+        assertNull(store.get(key("tenant-service", "1")));
+        assertNotNull(store.get(key("tenant-service", "2")));
+
+        assertEquals(1, store.purge(null, "1"));
+        assertNull(store.get(key("user-service", "1")));
+
+        assertEquals(1, store.purge("tenant-service", null));
+        assertEquals(3L, store.getStats().get("purged"));
+    }
+
+    @Test
+    void oversizedBodyIsNotStored() {
+        store.put(key("tenant-service", "1"), new CachedResponse(new byte[17], MediaType.APPLICATION_JSON, "\"1\"", TTL));
+        assertNull(store.get(key("tenant-service", "1")));
+    }
+
+    @Test
+    void purgeAndPermissionChangeMessagesClearEntries() {
+        store.put(key("tenant-service", "1"), response());
+        store.put(key("tenant-service", "2"), response());
+        store.put(key("user-service", "3"), response());
+        doReturn(Flux.just(
+                new ReactiveSubscription.ChannelMessage<>(ResponseCachePurge.CHANNEL,
+                        ResponseCachePurge.message("tenant-service", null)),
+                new ReactiveSubscription.ChannelMessage<>(PermissionSnapshot.CHANGE_CHANNEL, "3:42")))
+                .when(redisTemplate).listenToChannel(ResponseCacheStore.PURGE_CHANNEL, PermissionSnapshot.CHANGE_CHANNEL);
+
+        store.start();
+
+        assertNull(store.get(key("tenant-service", "1")));
+        assertNull(store.get(key("tenant-service", "2")));
+        assertNull(store.get(key("user-service", "3")));
+        store.stop();
+    }
+
+    private static ResponseCacheKey key(String routeId, String tenantId) {
+        return new ResponseCacheKey(routeId, tenantId, "", "/api/resource");
+    }
+
+    private static CachedResponse response() {
+        return new CachedResponse(new byte[8], MediaType.APPLICATION_JSON, "\"1\"", TTL);
+    }
+}
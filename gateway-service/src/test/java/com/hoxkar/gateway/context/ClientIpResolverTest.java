@@ -0,0 +1,72 @@
+package com.hoxkar.gateway.context;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.net.InetSocketAddress;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ClientIpResolverTest {
+
+    private final ClientIpResolver resolver = new ClientIpResolver(new String[] {"10.0.0.0/8", "::1"});
+
+    @Test
+    void ignoresForwardedHeadersFromUntrustedPeer() {
+        MockServerHttpRequest request = request("203.0.113.7")
+                .header("X-Forwarded-For", "198.51.100.1")
+                .header("X-Real-IP", "198.51.100.2")
+                .build();
+        assertEquals("203.0.113.7", resolver.resolve(request));
+    }
+
+    @Test
+    void takesFirstUntrustedHopFromTheRight() {
+        // 客户端伪造的最左侧地址被忽略，取可信代理追加的真实地址
+        MockServerHttpRequest request = request("10.0.0.2")
+                .header("X-Forwarded-For", "1.1.1.1, 198.51.100.9, 10.0.0.5")
+                .build();
+        assertEquals("198.51.100.9", resolver.resolve(request));
+    }
+
+    @Test
+    void fallsBackToLeftmostWhenEveryHopIsTrusted() {
+        MockServerHttpRequest request = request("10.0.0.2")
+                .header("X-Forwarded-For", "10.1.1.1, 10.0.0.5")
+                .build();
+        assertEquals("10.1.1.1", resolver.resolve(request));
+    }
+
+    @Test
+    void usesRealIpOnlyFromTrustedPeer() {
+        MockServerHttpRequest request = request("10.0.0.2")
+                .header("X-Real-IP", "198.51.100.3")
+                .build();
+        assertEquals("198.51.100.3", resolver.resolve(request));
+    }
+
+    @Test
+    void usesRemoteAddressWithoutForwardedHeaders() {
+        assertEquals("10.0.0.2", resolver.resolve(request("10.0.0.2").build()));
+    }
+
+    @Test
+    void trustsNothingByDefault() {
+        ClientIpResolver untrusting = new ClientIpResolver(new String[0]);
+        MockServerHttpRequest request = request("10.0.0.2")
+                .header("X-Forwarded-For", "198.51.100.1")
+                .build();
+        assertEquals("10.0.0.2", untrusting.resolve(request));
+    }
+
+    @Test
+    void neverTrustsNonLiteralAddresses() {
+        assertFalse(resolver.isTrusted("proxy.internal"));
+        assertFalse(resolver.isTrusted("10.0.0.1:8080"));
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> request(String remoteIp) {
+        return MockServerHttpRequest.get("/api/users").remoteAddress(new InetSocketAddress(remoteIp, 40000));
+    }
+}
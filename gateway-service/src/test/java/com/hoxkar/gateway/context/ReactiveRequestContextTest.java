@@ -0,0 +1,70 @@
+package com.hoxkar.gateway.context;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import reactor.util.context.Context;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReactiveRequestContextTest {
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void principalTenantWinsOverRequestTenant() {
+        Context context = ReactiveRequestContext.withPrincipal(Context.empty(), "1", "42");
+        context = ReactiveRequestContext.withTenantIfAbsent(context, "2");
+        assertEquals("1", context.get(ReactiveRequestContext.TENANT_ID));
+        assertEquals("42", context.get(ReactiveRequestContext.USER_ID));
+
+        assertEquals("2", ReactiveRequestContext.withTenantIfAbsent(Context.empty(), "2")
+                .get(ReactiveRequestContext.TENANT_ID));
+    }
+
+    @Test
+    void nullValuesAreNotWritten() {
+        Context context = ReactiveRequestContext.withRequestId(Context.empty(), null);
+        context = ReactiveRequestContext.withPrincipal(context, null, null);
+        context = ReactiveRequestContext.withTenantIfAbsent(context, null);
+        assertEquals(0, context.size());
+    }
+
+    @Test
+    void logStatementSeesRequestContextInMdc() {
+        Map<String, String> seen = new HashMap<>();
+        Context context = ReactiveRequestContext.withPrincipal(
+                ReactiveRequestContext.withRequestId(Context.empty(), "req-1"), "1", "42");
+
+        ReactiveRequestContext.log(true, () -> {
+            seen.put(ReactiveRequestContext.REQUEST_ID, MDC.get(ReactiveRequestContext.REQUEST_ID));
+            seen.put(ReactiveRequestContext.TENANT_ID, MDC.get(ReactiveRequestContext.TENANT_ID));
+            seen.put(ReactiveRequestContext.USER_ID, MDC.get(ReactiveRequestContext.USER_ID));
+        }).contextWrite(context).block();
+
+        assertEquals("req-1", seen.get(ReactiveRequestContext.REQUEST_ID));
+        assertEquals("1", seen.get(ReactiveRequestContext.TENANT_ID));
+        assertEquals("42", seen.get(ReactiveRequestContext.USER_ID));
+        // 日志语句执行结束后恢复，不在事件循环线程上残留
+        assertNull(MDC.get(ReactiveRequestContext.REQUEST_ID));
+        assertNull(MDC.get(ReactiveRequestContext.TENANT_ID));
+        assertNull(MDC.get(ReactiveRequestContext.USER_ID));
+    }
+
+    @Test
+    void disabledLevelSkipsStatement() {
+        boolean[] ran = {false};
+        ReactiveRequestContext.log(false, () -> ran[0] = true)
+                .contextWrite(ReactiveRequestContext.withRequestId(Context.empty(), "req-1"))
+                .block();
+        assertFalse(ran[0]);
+    }
+}
@@ -0,0 +1,97 @@
+package com.hoxkar.gateway.filter;
+
+import com.hoxkar.common.config.InternalApiConfig;
+import com.hoxkar.common.policy.PermissionClaim;
+import com.hoxkar.common.policy.PermissionSnapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EdgeGuardFilterTest {
+
+    private final EdgeGuardFilter filter = new EdgeGuardFilter();
+
+    @Test
+    void stripsHeadersOnlyTheGatewayMaySet() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/1")
+                .header(InternalApiConfig.TOKEN_HEADER, "forged")
+                .header(PermissionSnapshot.VERIFIED_PERMISSIONS_HEADER, "user:delete")
+                .header("X-User-ID", "1")
+                .header("X-Username", "admin")
+                .header(PermissionClaim.BITS_HEADER, "AQ")
+                .header(PermissionClaim.VERSION_HEADER, "7")
+                .header(PermissionClaim.REFERENCE_HEADER, "ref")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .header("X-Tenant-ID", "1"));
+        AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+        filter.filter(exchange, capture(forwarded)).block();
+
+        HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+        assertFalse(headers.containsKey(InternalApiConfig.TOKEN_HEADER));
+        assertFalse(headers.containsKey(PermissionSnapshot.VERIFIED_PERMISSIONS_HEADER));
+        assertFalse(headers.containsKey("X-User-ID"));
+        assertFalse(headers.containsKey("X-Username"));
+        assertFalse(headers.containsKey(PermissionClaim.BITS_HEADER));
+        assertFalse(headers.containsKey(PermissionClaim.VERSION_HEADER));
+        assertFalse(headers.containsKey(PermissionClaim.REFERENCE_HEADER));
+        // 客户端可以传入的请求头原样转发
+        assertEquals("Bearer token", headers.getFirst(HttpHeaders.AUTHORIZATION));
+        assertEquals("1", headers.getFirst("X-Tenant-ID"));
+    }
+
+    @Test
+    void forwardsExchangeUnchangedWhenNothingToStrip() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token"));
+        AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+        filter.filter(exchange, capture(forwarded)).block();
+
+        assertSame(exchange, forwarded.get());
+    }
+
+    @Test
+    void rejectsInternalPathWithoutForwarding() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/user-service/internal/users/1"));
+        AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+        filter.filter(exchange, capture(forwarded)).block();
+
+        assertNull(forwarded.get());
+        assertEquals(HttpStatus.NOT_FOUND, exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void detectsInternalPathAfterNormalization() {
+        assertTrue(EdgeGuardFilter.isInternalPath("/internal/tenants"));
+        assertTrue(EdgeGuardFilter.isInternalPath("/API/Internal/tenants"));
+        assertTrue(EdgeGuardFilter.isInternalPath("//api//internal/tenants"));
+        assertTrue(EdgeGuardFilter.isInternalPath("/api;a=b/internal;c=d/tenants"));
+        assertTrue(EdgeGuardFilter.isInternalPath("/api/users/../internal/tenants"));
+        assertFalse(EdgeGuardFilter.isInternalPath("/api/users/internal"));
+        assertFalse(EdgeGuardFilter.isInternalPath("/api/internal-notes"));
+        assertFalse(EdgeGuardFilter.isInternalPath(null));
+    }
+
+    private static GatewayFilterChain capture(AtomicReference<ServerWebExchange> forwarded) {
+        return exchange -> {
+            forwarded.set(exchange);
+            return Mono.empty();
+        };
+    }
+}
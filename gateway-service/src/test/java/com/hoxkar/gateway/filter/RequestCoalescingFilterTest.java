@@ -0,0 +1,133 @@
+package com.hoxkar.gateway.filter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestCoalescingFilterTest {
+
+    private static final String BODY = "{\"id\":1}";
+
+    private GatewayFilter filter;
+    private AtomicInteger upstreamCalls;
+    private Sinks.Empty<Void> leaderGate;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RequestCoalescingFilter(1024).apply(new RequestCoalescingFilter.Config());
+        upstreamCalls = new AtomicInteger();
+        leaderGate = Sinks.empty();
+    }
+
+    @Test
+    void followerReusesLeaderResponse() {
+        MockServerWebExchange leader = exchange();
+        MockServerWebExchange follower = exchange();
+        follower.getResponse().getHeaders().set("X-Request-ID", "follower");
+
+        CompletableFuture<Void> leaderDone = filter.filter(leader, gated(upstream(false))).toFuture();
+        CompletableFuture<Void> followerDone = filter.filter(follower, upstream(false)).toFuture();
+        assertFalse(followerDone.isDone());
+
+        leaderGate.tryEmitEmpty();
+        leaderDone.join();
+        followerDone.join();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(BODY, leader.getResponse().getBodyAsString().block());
+        assertEquals(BODY, follower.getResponse().getBodyAsString().block());
+        assertEquals(HttpStatus.OK, follower.getResponse().getStatusCode());
+        assertEquals("true", follower.getResponse().getHeaders().getFirst(RequestCoalescingFilter.COALESCED_HEADER));
+        // 等待者自身设置的响应头不被leader的值覆盖
+        assertEquals("follower", follower.getResponse().getHeaders().getFirst("X-Request-ID"));
+        assertEquals(MediaType.APPLICATION_JSON, follower.getResponse().getHeaders().getContentType());
+    }
+
+    @Test
+    void followerForwardsItselfWhenLeaderResponseIsNotShared() {
+        MockServerWebExchange leader = exchange();
+        MockServerWebExchange follower = exchange();
+
+        CompletableFuture<Void> leaderDone = filter.filter(leader, gated(upstream(true))).toFuture();
+        CompletableFuture<Void> followerDone = filter.filter(follower, upstream(false)).toFuture();
+
+        leaderGate.tryEmitEmpty();
+        leaderDone.join();
+        followerDone.join();
+
+        assertEquals(2, upstreamCalls.get());
+        assertNull(follower.getResponse().getHeaders().getFirst(RequestCoalescingFilter.COALESCED_HEADER));
+        assertEquals(BODY, follower.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void followerForwardsItselfWhenLeaderFails() {
+        MockServerWebExchange leader = exchange();
+        MockServerWebExchange follower = exchange();
+        GatewayFilterChain failing = exchange -> {
+            upstreamCalls.incrementAndGet();
+            return leaderGate.asMono().then(Mono.error(new IllegalStateException("upstream down")));
+        };
+
+        CompletableFuture<Void> leaderDone = filter.filter(leader, failing).toFuture();
+        CompletableFuture<Void> followerDone = filter.filter(follower, upstream(false)).toFuture();
+
+        leaderGate.tryEmitEmpty();
+        assertThrows(Exception.class, leaderDone::join);
+        followerDone.join();
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(BODY, follower.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void requestAfterLeaderCompletesStartsNewFlight() {
+        filter.filter(exchange(), upstream(false)).block();
+        MockServerWebExchange next = exchange();
+        filter.filter(next, upstream(false)).block();
+
+        assertEquals(2, upstreamCalls.get());
+        assertNull(next.getResponse().getHeaders().getFirst(RequestCoalescingFilter.COALESCED_HEADER));
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/permissions/tree"));
+    }
+
+    private GatewayFilterChain gated(GatewayFilterChain chain) {
+        return exchange -> leaderGate.asMono().then(Mono.defer(() -> chain.filter(exchange)));
+    }
+
+    private GatewayFilterChain upstream(boolean setCookie) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.getHeaders().set("X-Request-ID", "leader");
+            if (setCookie) {
+                response.getHeaders().add(HttpHeaders.SET_COOKIE, "session=1");
+            }
+            return response.writeWith(Mono.just(
+                    response.bufferFactory().wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package com.hoxkar.gateway.filter;
+
+import com.hoxkar.gateway.cache.ResponseCacheStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+
+class ResponseCacheFilterTest {
+
+    private static final String BODY = "{\"id\":1}";
+
+    private ResponseCacheStore store;
+    private GatewayFilter filter;
+    private AtomicInteger upstreamCalls;
+
+    @BeforeEach
+    void setUp() {
+        store = new ResponseCacheStore(mock(ReactiveStringRedisTemplate.class), 1 << 20, 1024);
+        filter = new ResponseCacheFilter(store).apply(new ResponseCacheFilter.Config());
+        upstreamCalls = new AtomicInteger();
+    }
+
+    @Test
+    void missStoresResponseAndHitIsServedByGateway() {
+        MockServerWebExchange miss = exchange(MockServerHttpRequest.get("/api/tenants/1").header("X-Tenant-ID", "1"));
+        filter.filter(miss, upstream(HttpStatus.OK)).block();
+
+        assertEquals("MISS", miss.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER));
+        assertNotNull(miss.getResponse().getHeaders().getETag());
+        assertEquals(BODY, miss.getResponse().getBodyAsString().block());
+
+        MockServerWebExchange hit = exchange(MockServerHttpRequest.get("/api/tenants/1").header("X-Tenant-ID", "1"));
+        filter.filter(hit, upstream(HttpStatus.OK)).block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("HIT", hit.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER));
+        assertEquals(HttpStatus.OK, hit.getResponse().getStatusCode());
+        assertEquals(miss.getResponse().getHeaders().getETag(), hit.getResponse().getHeaders().getETag());
+        assertEquals(BODY, hit.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnsweredWith304() {
+        MockServerWebExchange miss = exchange(MockServerHttpRequest.get("/api/tenants/1"));
+        filter.filter(miss, upstream(HttpStatus.OK)).block();
+        String etag = miss.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange revalidate = exchange(MockServerHttpRequest.get("/api/tenants/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/" + etag));
+        filter.filter(revalidate, upstream(HttpStatus.OK)).block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidate.getResponse().getStatusCode());
+        assertEquals(etag, revalidate.getResponse().getHeaders().getETag());
+        assertEquals(1L, store.getStats().get("notModified"));
+    }
+
+    @Test
+    void staleIfNoneMatchGetsFullBody() {
+        filter.filter(exchange(MockServerHttpRequest.get("/api/tenants/1")), upstream(HttpStatus.OK)).block();
+
+        MockServerWebExchange revalidate = exchange(MockServerHttpRequest.get("/api/tenants/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"stale\""));
+        filter.filter(revalidate, upstream(HttpStatus.OK)).block();
+
+        assertEquals(HttpStatus.OK, revalidate.getResponse().getStatusCode());
+        assertEquals(BODY, revalidate.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void purgedEntryIsFetchedAgain() {
+        filter.filter(exchange(MockServerHttpRequest.get("/api/tenants/1").header("X-Tenant-ID", "1")),
+                upstream(HttpStatus.OK)).block();
+
+        assertEquals(1, store.purge(null, "1"));
+        MockServerWebExchange refetch = exchange(MockServerHttpRequest.get("/api/tenants/1").header("X-Tenant-ID", "1"));
+        filter.filter(refetch, upstream(HttpStatus.OK)).block();
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals("MISS", refetch.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER));
+    }
+
+    @Test
+    void nonOkResponsesAreNotCached() {
+        filter.filter(exchange(MockServerHttpRequest.get("/api/tenants/1")), upstream(HttpStatus.NOT_FOUND)).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/api/tenants/1")), upstream(HttpStatus.NOT_FOUND)).block();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+
+    private GatewayFilterChain upstream(HttpStatus status) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(status);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return response.writeWith(Mono.just(
+                    response.bufferFactory().wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.hoxkar.gateway.hedge;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgeStateTest {
+
+    @Test
+    void eachRequestDepositsRatioOfAHedge() {
+        HedgeState state = new HedgeState(16, 95, 1, 0.25);
+        for (int i = 0; i < 3; i++) {
+            state.onRequest(10, 1000);
+            assertFalse(state.tryHedge());
+        }
+        state.onRequest(10, 1000);
+        assertTrue(state.tryHedge());
+        assertFalse(state.tryHedge());
+        assertEquals(1L, state.getStats().get("hedges"));
+        assertEquals(4L, state.getStats().get("requests"));
+    }
+
+    @Test
+    void budgetIsCappedAfterIdleBurst() {
+        HedgeState state = new HedgeState(16, 95, 1, 0.5);
+        for (int i = 0; i < 100; i++) {
+            state.onRequest(10, 1000);
+        }
+        int granted = 0;
+        while (state.tryHedge()) {
+            granted++;
+        }
+        // 预算上限为10个令牌，空闲后的突发对冲不超过该数量
+        assertEquals(10, granted);
+    }
+
+    @Test
+    void deniedHedgesAreNotCounted() {
+        HedgeState state = new HedgeState(16, 95, 1, 0.25);
+        assertFalse(state.tryHedge());
+        assertFalse(state.tryHedge());
+        assertEquals(0L, state.getStats().get("hedges"));
+    }
+
+    @Test
+    void noHedgeDelayUntilEnoughSamples() {
+        HedgeState state = new HedgeState(16, 50, 4, 0.25);
+        for (int i = 0; i < 3; i++) {
+            state.record(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        assertNull(state.onRequest(10, 1000));
+        assertNull(state.getStats().get("hedgeDelayMillis"));
+        state.record(TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(Duration.ofMillis(100), state.onRequest(10, 1000));
+    }
+
+    @Test
+    void hedgeDelayIsClampedToBounds() {
+        HedgeState fast = new HedgeState(16, 95, 1, 0.25);
+        fast.record(TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(Duration.ofMillis(10), fast.onRequest(10, 1000));
+
+        HedgeState slow = new HedgeState(16, 95, 1, 0.25);
+        slow.record(TimeUnit.SECONDS.toNanos(5));
+        assertEquals(Duration.ofMillis(1000), slow.onRequest(10, 1000));
+    }
+
+    @Test
+    void hedgeWinsAreCounted() {
+        HedgeState state = new HedgeState(16, 95, 1, 0.25);
+        state.onHedgeWin();
+        state.onHedgeWin();
+        assertEquals(2L, state.getStats().get("hedgeWins"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.hoxkar.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinTopKTest {
+
+    @Test
+    void heavyKeysSurfaceAboveLongTail() {
+        CountMinTopK sketch = new CountMinTopK(10, 2048, 4);
+        for (int round = 0; round < 100; round++) {
+            for (int heavy = 0; heavy < 5; heavy++) {
+                sketch.add("heavy-" + heavy, 10);
+            }
+            for (int light = 0; light < 100; light++) {
+                sketch.add("light-" + round + "-" + light, 1);
+            }
+        }
+        List<HeavyHitter> top = sketch.top(5);
+        Set<String> keys = top.stream().map(HeavyHitter::getKey).collect(Collectors.toSet());
+        assertEquals(Set.of("heavy-0", "heavy-1", "heavy-2", "heavy-3", "heavy-4"), keys);
+        // 计数只会高估
+        top.forEach(hitter -> assertTrue(hitter.getEstimatedCount() >= 1000));
+    }
+
+    @Test
+    void topIsSortedAndBoundedByCapacity() {
+        CountMinTopK sketch = new CountMinTopK(3, 1024, 4);
+        for (int i = 1; i <= 10; i++) {
+            sketch.add("key-" + i, i * 100L);
+        }
+        List<HeavyHitter> top = sketch.top(10);
+        assertEquals(3, top.size());
+        for (int i = 1; i < top.size(); i++) {
+            assertTrue(top.get(i - 1).getEstimatedCount() >= top.get(i).getEstimatedCount());
+        }
+        assertEquals("key-10", top.get(0).getKey());
+    }
+
+    @Test
+    void keysWithEqualHashCodeDoNotShareCounters() {
+        // "Aa"与"BB"的String.hashCode相同，由它们拼成的键hashCode全部相同
+        String heavy = "AaAaAaAa";
+        String light = "BBBBBBBB";
+        assertEquals(heavy.hashCode(), light.hashCode());
+
+        CountMinTopK sketch = new CountMinTopK(10, 2048, 4);
+        sketch.add(heavy, 10_000);
+        sketch.add(light, 1);
+        HeavyHitter lightHitter = sketch.top(10).stream()
+                .filter(hitter -> hitter.getKey().equals(light))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(lightHitter.getEstimatedCount() < 10_000);
+    }
+
+    @Test
+    void rowsUseIndependentSeeds() {
+        String key = "tenant:42";
+        assertNotEquals(CountMinTopK.murmur3(key, 1), CountMinTopK.murmur3(key, 2));
+        assertEquals(CountMinTopK.murmur3(key, 7), CountMinTopK.murmur3(key, 7));
+        assertNotEquals(CountMinTopK.murmur3("Aa", 7), CountMinTopK.murmur3("BB", 7));
+    }
+
+    @Test
+    void decayHalvesCountsAndDropsEmptyCandidates() {
+        CountMinTopK sketch = new CountMinTopK(10, 1024, 4);
+        sketch.add("steady", 100);
+        sketch.add("once", 1);
+        sketch.decay();
+        List<HeavyHitter> top = sketch.top(10);
+        assertEquals(1, top.size());
+        assertEquals("steady", top.get(0).getKey());
+        assertEquals(50, top.get(0).getEstimatedCount());
+    }
+}
@@ -0,0 +1,122 @@
+package com.hoxkar.gateway.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HybridRateLimiterTest {
+
+    private static final String KEY = "rate_limit:tenant:1";
+
+    private ReactiveStringRedisTemplate redisTemplate;
+    private HybridRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+        when(discoveryClient.getInstances(anyString())).thenReturn(List.of());
+        limiter = new HybridRateLimiter(redisTemplate, discoveryClient, "gateway-service",
+                100, 500, 2, 0.2, 1000);
+    }
+
+    @Test
+    void admitsBurstCapacityThenRejects() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquireAtRate(KEY, 10, 1.0, 1));
+        }
+        assertFalse(limiter.tryAcquireAtRate(KEY, 10, 1.0, 1));
+    }
+
+    @Test
+    void rebuildsBucketWhenQuotaChanges() {
+        assertTrue(limiter.tryAcquireAtRate(KEY, 1, 1.0, 1));
+        assertFalse(limiter.tryAcquireAtRate(KEY, 1, 1.0, 1));
+        // 订阅计划升级后按新配额重建本地桶
+        assertTrue(limiter.tryAcquireAtRate(KEY, 5, 1.0, 1));
+        assertEquals(1000.0, limiter.getEmissionInterval(KEY), 1e-9);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void syncReportsConsumptionWithGcraParameters() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList())).thenReturn(Flux.just(0L));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquireAtRate(KEY, 10, 1.0, 1));
+        }
+
+        limiter.stop();
+
+        // 发射间隔1000毫秒/令牌，容忍度为容量×间隔，消耗量为3
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(KEY)), eq(List.of("1000.0", "10000.0", "3")));
+        // 全局剩余为0时本地余量清零，且剩余不足以恢复超额准入预算
+        assertFalse(limiter.tryAcquireAtRate(KEY, 10, 1.0, 1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void syncSkipsBucketsWithoutConsumption() {
+        limiter.tryAcquireAtRate(KEY, 10, 1.0, 1);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList())).thenReturn(Flux.just(9L));
+        limiter.stop();
+        limiter.stop();
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedSyncReportsConsumptionAgain() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.error(new IllegalStateException("redis down")))
+                .thenReturn(Flux.just(5L));
+        limiter.tryAcquireAtRate(KEY, 10, 1.0, 2);
+
+        limiter.stop();
+        limiter.stop();
+
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), eq(List.of(KEY)),
+                eq(List.of("1000.0", "10000.0", "2")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void admissionNeverTouchesRedis() {
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquireAtRate(KEY, 10, 1.0, 1);
+        }
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), anyList());
+    }
+
+    @Test
+    void resetClearsLocalBucketAndGlobalState() {
+        when(redisTemplate.delete(KEY)).thenReturn(Mono.just(1L));
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquireAtRate(KEY, 10, 1.0, 1);
+        }
+        assertFalse(limiter.tryAcquireAtRate(KEY, 10, 1.0, 1));
+
+        limiter.reset(KEY).block();
+
+        verify(redisTemplate).delete(KEY);
+        assertTrue(limiter.tryAcquireAtRate(KEY, 10, 1.0, 1));
+    }
+}
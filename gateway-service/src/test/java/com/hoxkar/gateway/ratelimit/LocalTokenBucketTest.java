@@ -0,0 +1,98 @@
+package com.hoxkar.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalTokenBucketTest {
+
+    private static final long OVER_ADMISSION = 2;
+
+    @Test
+    void admitsUpToLocalShareThenRejects() {
+        LocalTokenBucket bucket = new LocalTokenBucket(20, 0, 2, 0);
+        int admitted = 0;
+        for (int i = 0; i < 20; i++) {
+            if (bucket.tryAcquire(1, 0, 2, 0.2)) {
+                admitted++;
+            }
+        }
+        assertEquals(10, admitted);
+        assertEquals(10, bucket.drainPending());
+    }
+
+    @Test
+    void overAdmissionIsNotRegrantedWhileGlobalBucketStaysExhausted() {
+        LocalTokenBucket bucket = new LocalTokenBucket(20, 0, 1, 0);
+        bucket.reconcile(20, 1, OVER_ADMISSION, 0);
+        int admitted = drain(bucket, 0);
+
+        // 全局桶耗尽：每次同步都没有剩余
+        for (int sync = 1; sync <= 50; sync++) {
+            bucket.reconcile(0, 1, OVER_ADMISSION, sync * 100L);
+            admitted += drain(bucket, sync * 100L);
+        }
+        assertEquals(20 + OVER_ADMISSION, admitted, "over-admission is a one-off budget");
+    }
+
+    @Test
+    void overAdmissionIsRestoredOnceGlobalBucketRefills() {
+        LocalTokenBucket bucket = new LocalTokenBucket(20, 0, 1, 0);
+        bucket.reconcile(0, 1, OVER_ADMISSION, 0);
+        assertEquals(0.0, bucket.overAdmissionBudget(), 0.0);
+
+        bucket.reconcile(20, 1, OVER_ADMISSION, 100);
+        assertEquals(2.0, bucket.overAdmissionBudget(), 0.0);
+        assertEquals(22, drain(bucket, 100));
+
+        bucket.reconcile(0, 1, OVER_ADMISSION, 200);
+        assertFalse(bucket.tryAcquire(1, 200, 1, 0.2));
+    }
+
+    @Test
+    void budgetIsOnlyRestoredWhenGlobalRemainingCoversEveryNode() {
+        LocalTokenBucket bucket = new LocalTokenBucket(20, 0, 4, 0);
+        bucket.reconcile(7, 4, OVER_ADMISSION, 0);
+        assertEquals(0.0, bucket.overAdmissionBudget(), 0.0);
+        bucket.reconcile(8, 4, OVER_ADMISSION, 100);
+        assertEquals(2.0, bucket.overAdmissionBudget(), 0.0);
+    }
+
+    @Test
+    void reconcileDeductsConsumptionNotYetReported() {
+        LocalTokenBucket bucket = new LocalTokenBucket(20, 0, 1, 0);
+        assertTrue(bucket.tryAcquire(5, 0, 1, 0.2));
+        bucket.drainPending();
+        assertTrue(bucket.tryAcquire(3, 0, 1, 0.2));
+        // Redis只看到前5个
+        bucket.reconcile(15, 1, 0, 0);
+        assertEquals(12.0, bucket.available(0, 1), 0.0);
+    }
+
+    @Test
+    void localRefillFollowsNodeShareOfGlobalRate() {
+        LocalTokenBucket bucket = new LocalTokenBucket(20, 0.01, 2, 0);
+        drain(bucket, 0);
+        // 全局每秒10个，2个节点各5个
+        assertEquals(5.0, bucket.available(1000, 2), 1e-9);
+    }
+
+    @Test
+    void expensiveRequestsKeepReserveForSingleTokenRequests() {
+        LocalTokenBucket bucket = new LocalTokenBucket(10, 0, 1, 0);
+        assertTrue(bucket.tryAcquire(8, 0, 1, 0.2));
+        assertFalse(bucket.tryAcquire(2, 0, 1, 0.2));
+        assertTrue(bucket.tryAcquire(1, 0, 1, 0.2));
+        assertTrue(bucket.tryAcquire(1, 0, 1, 0.2));
+    }
+
+    private static int drain(LocalTokenBucket bucket, long now) {
+        int admitted = 0;
+        while (bucket.tryAcquire(1, now, 1, 0.2)) {
+            admitted++;
+        }
+        return admitted;
+    }
+}
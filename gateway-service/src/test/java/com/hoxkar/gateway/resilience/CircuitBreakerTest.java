@@ -0,0 +1,91 @@
+package com.hoxkar.gateway.resilience;
+
+import com.hoxkar.gateway.config.ResilienceProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        ResilienceProperties.CircuitBreaker config = new ResilienceProperties.CircuitBreaker();
+        config.setFailureThreshold(3);
+        config.setRecoveryTimeout(1000L);
+        breaker = new CircuitBreaker(config);
+    }
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        breaker.onFailure(0);
+        breaker.onFailure(0);
+        assertTrue(breaker.tryAcquire(0));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(0));
+
+        breaker.onFailure(100);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(100));
+        assertFalse(breaker.tryAcquire(100));
+        assertEquals(900, breaker.remainingOpenMillis(200));
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        breaker.onFailure(0);
+        breaker.onFailure(0);
+        breaker.onSuccess();
+        breaker.onFailure(0);
+        breaker.onFailure(0);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(0));
+    }
+
+    @Test
+    void halfOpenAdmitsSingleProbe() {
+        open(0);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(1000));
+        assertEquals(0, breaker.remainingOpenMillis(1000));
+        assertTrue(breaker.tryAcquire(1000));
+        assertFalse(breaker.tryAcquire(1000));
+        assertFalse(breaker.tryAcquire(1500));
+    }
+
+    @Test
+    void successfulProbeCloses() {
+        open(0);
+        assertTrue(breaker.tryAcquire(1000));
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(1000));
+        assertTrue(breaker.tryAcquire(1000));
+        assertTrue(breaker.tryAcquire(1000));
+    }
+
+    @Test
+    void failedProbeReopens() {
+        open(0);
+        assertTrue(breaker.tryAcquire(1000));
+        breaker.onFailure(1200);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(1200));
+        assertFalse(breaker.tryAcquire(2100));
+        // 重新打开后经过完整的恢复时间才允许下一次探测
+        assertTrue(breaker.tryAcquire(2200));
+    }
+
+    @Test
+    void ignoredProbeReturnsProbePermit() {
+        open(0);
+        assertTrue(breaker.tryAcquire(1000));
+        breaker.onIgnore();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(1000));
+        assertTrue(breaker.tryAcquire(1000));
+    }
+
+    private void open(long now) {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure(now);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.hoxkar.gateway.resilience;
+
+import com.hoxkar.gateway.config.ResilienceProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryBudgetTest {
+
+    private ResilienceProperties.RetryBudget config;
+
+    @BeforeEach
+    void setUp() {
+        config = new ResilienceProperties.RetryBudget();
+        config.setRatio(0.25);
+        config.setMinRetriesPerSecond(2);
+        config.setMaxTokens(10);
+    }
+
+    @Test
+    void startsWithMinimumRetryReserve() {
+        RetryBudget budget = new RetryBudget(config, 0);
+        assertTrue(budget.tryRetry(0));
+        assertTrue(budget.tryRetry(0));
+        assertFalse(budget.tryRetry(0));
+    }
+
+    @Test
+    void firstAttemptsDepositRatioTokens() {
+        RetryBudget budget = drained();
+        for (int i = 0; i < 3; i++) {
+            budget.onRequest(0);
+        }
+        assertFalse(budget.tryRetry(0));
+        budget.onRequest(0);
+        assertTrue(budget.tryRetry(0));
+        assertFalse(budget.tryRetry(0));
+    }
+
+    @Test
+    void depositsAreCappedAtMaxTokens() {
+        RetryBudget budget = new RetryBudget(config, 0);
+        for (int i = 0; i < 1000; i++) {
+            budget.onRequest(0);
+        }
+        assertEquals(10.0, budget.available(0), 1e-9);
+    }
+
+    @Test
+    void timeRefillsUpToReserveOnly() {
+        RetryBudget budget = drained();
+        // 每秒补充2个，500毫秒补充1个
+        assertEquals(1.0, budget.available(500), 1e-9);
+        assertTrue(budget.tryRetry(500));
+        assertFalse(budget.tryRetry(500));
+        // 长时间空闲也只补到每秒最少重试数
+        assertEquals(2.0, budget.available(60_000), 1e-9);
+    }
+
+    @Test
+    void timeRefillDoesNotTrimDepositsAboveReserve() {
+        RetryBudget budget = new RetryBudget(config, 0);
+        for (int i = 0; i < 20; i++) {
+            budget.onRequest(0);
+        }
+        assertEquals(7.0, budget.available(10_000), 1e-9);
+    }
+
+    @Test
+    void clockGoingBackwardsAddsNothing() {
+        RetryBudget budget = drained();
+        assertEquals(0.0, budget.available(-1000), 1e-9);
+        assertFalse(budget.tryRetry(-1000));
+    }
+
+    private RetryBudget drained() {
+        RetryBudget budget = new RetryBudget(config, 0);
+        while (budget.tryRetry(0)) {
+            // 耗尽初始预留
+        }
+        return budget;
+    }
+}
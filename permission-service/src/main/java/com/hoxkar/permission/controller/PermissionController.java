@@ -4,6 +4,11 @@ import com.hoxkar.permission.pojo.dto.*;
 import com.hoxkar.permission.pojo.vo.*;
 import com.hoxkar.permission.service.PermissionService;
 import com.hoxkar.common.pojo.vo.ApiResponse;
+import com.hoxkar.common.policy.AuthorizationCheckRequest;
+import com.hoxkar.common.policy.AuthorizationCheckResult;
+import com.hoxkar.common.policy.PermissionClaim;
+import com.hoxkar.common.policy.PermissionDictionary;
+import com.hoxkar.common.policy.UserAuthorities;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -255,6 +260,34 @@ public class PermissionController {
         return permissionService.checkUserRole(userId, roleCode);
     }
     
+    @GetMapping("/users/{userId}/authorities")
+    @Operation(summary = "获取用户的有效权限集合", description = "获取指定用户启用的权限代码与角色代码，供各服务的授权缓存使用")
+    public ApiResponse<UserAuthorities> getUserAuthorities(@PathVariable Long userId) {
+        log.debug("获取用户的有效权限集合请求: {}", userId);
+        return permissionService.getUserAuthorities(userId);
+    }
+    
+    @PostMapping("/users/{userId}/check-authorities")
+    @Operation(summary = "批量检查用户权限与角色", description = "一次检查多个权限代码与角色代码，按AND/OR逻辑返回总体判定与逐项结果")
+    public ApiResponse<AuthorizationCheckResult> checkUserAuthorities(@PathVariable Long userId, @RequestBody AuthorizationCheckRequest request) {
+        log.debug("批量检查用户权限请求: userId={}, permissions={}, roles={}, logic={}",
+                userId, request.getPermissions(), request.getRoles(), request.getLogic());
+        return permissionService.checkUserAuthorities(userId, request);
+    }
+    
+    @GetMapping("/dictionary")
+    @Operation(summary = "获取权限字典", description = "获取当前租户的权限字典（权限代码 -> 稠密ID），版本号变化前可缓存")
+    public ApiResponse<PermissionDictionary> getPermissionDictionary() {
+        return permissionService.getPermissionDictionary();
+    }
+    
+    @GetMapping("/users/{userId}/permission-claim")
+    @Operation(summary = "获取用户的令牌权限声明", description = "获取指定用户的有效权限位图与字典版本号，供认证服务写入访问令牌")
+    public ApiResponse<PermissionClaim> getUserPermissionClaim(@PathVariable Long userId) {
+        log.debug("获取用户的令牌权限声明请求: {}", userId);
+        return permissionService.getUserPermissionClaim(userId);
+    }
+    
     @GetMapping("/health")
     @Operation(summary = "健康检查", description = "权限服务健康检查")
     public ApiResponse<String> health() {
@@ -0,0 +1,30 @@
+package com.hoxkar.permission.controller;
+
+import com.hoxkar.permission.service.PermissionService;
+import com.hoxkar.common.pojo.vo.ApiResponse;
+import com.hoxkar.common.policy.PermissionSnapshot;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 权限内部接口控制器
+ * 仅供服务间调用（如网关拉取权限快照）：须携带服务凭证（InternalApiInterceptor校验），网关拒绝转发 /internal 路径
+ */
+@Slf4j
+@RestController
+@RequestMapping("/internal/permissions")
+@RequiredArgsConstructor
+@Tag(name = "权限内部接口", description = "服务间调用的权限接口")
+public class PermissionInternalController {
+    
+    private final PermissionService permissionService;
+    
+    @GetMapping("/snapshots/{tenantId}")
+    @Operation(summary = "获取租户权限快照", description = "获取租户的角色权限映射与用户角色映射，仅包含启用的角色与权限")
+    public ApiResponse<PermissionSnapshot> getPermissionSnapshot(@PathVariable Long tenantId) {
+        return permissionService.getPermissionSnapshot(tenantId);
+    }
+}
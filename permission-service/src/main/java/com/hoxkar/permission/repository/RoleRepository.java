@@ -56,6 +56,12 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
      */
     @Query("SELECT r FROM Role r JOIN UserRole ur ON r.id = ur.roleId WHERE ur.tenantId = :tenantId AND ur.userId = :userId")
     List<Role> findByUserId(@Param("tenantId") Long tenantId, @Param("userId") Long userId);
+    
+    /**
+     * 根据租户ID和状态查找角色，并在同一查询中加载角色的权限
+     */
+    @Query("SELECT DISTINCT r FROM Role r LEFT JOIN FETCH r.permissions WHERE r.tenantId = :tenantId AND r.status = :status")
+    List<Role> findByTenantIdAndStatusWithPermissions(@Param("tenantId") Long tenantId, @Param("status") String status);
 
     // 分页查询
     Page<Role> findByTenantIdAndRoleNameContaining(Long tenantId, String roleName, Pageable pageable);
@@ -20,6 +20,12 @@ public interface UserRoleRepository extends JpaRepository<UserRole, Long> {
     @Query("SELECT ur FROM UserRole ur WHERE ur.tenantId = :tenantId AND ur.userId = :userId")
     List<UserRole> findByTenantIdAndUserId(@Param("tenantId") Long tenantId, @Param("userId") Long userId);
     
+    /**
+     * 根据租户ID查找所有用户角色关联
+     */
+    @Query("SELECT ur FROM UserRole ur WHERE ur.tenantId = :tenantId")
+    List<UserRole> findAllByTenantId(@Param("tenantId") Long tenantId);
+    
     /**
      * 根据租户ID和角色ID查找用户角色关联
      */
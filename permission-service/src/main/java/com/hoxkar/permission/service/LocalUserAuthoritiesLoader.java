@@ -0,0 +1,28 @@
+package com.hoxkar.permission.service;
+
+import com.hoxkar.common.authz.UserAuthoritiesLoader;
+import com.hoxkar.common.policy.PermissionDictionary;
+import com.hoxkar.common.policy.UserAuthorities;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 本地用户权限加载器
+ * 权限服务自身的接口授权直接查询本地数据，不经Feign调用自己
+ */
+@Component
+@RequiredArgsConstructor
+public class LocalUserAuthoritiesLoader implements UserAuthoritiesLoader {
+
+    private final PermissionService permissionService;
+
+    @Override
+    public UserAuthorities load(Long userId) {
+        return permissionService.getUserAuthorities(userId).getData();
+    }
+
+    @Override
+    public PermissionDictionary loadDictionary() {
+        return permissionService.getPermissionDictionary().getData();
+    }
+}
@@ -0,0 +1,95 @@
+package com.hoxkar.permission.service;
+
+import com.hoxkar.common.policy.PermissionSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * 权限变更事件发布器
+ * 角色、权限或用户角色关联变更后递增租户快照版本号，并通过Redis pub/sub通知网关重新拉取该租户的权限快照；
+ * 处于事务中时在提交后发布，避免网关读到未提交的数据。
+ * 版本号计数器缺失（首次使用或Redis丢失数据）时以Redis当前时间的微秒数为起点，
+ * 保证版本号单调递增且不会与丢失前发放的版本号重复，令牌中的旧版本号不会被解释到新的字典上
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionChangePublisher {
+
+    /**
+     * 版本号计数器缺失时以Redis当前时间（微秒）为起点
+     */
+    private static final String SEED_SCRIPT =
+        "if redis.call('EXISTS', KEYS[1]) == 0 then\n" +
+        "    local time = redis.call('TIME')\n" +
+        "    redis.call('SET', KEYS[1], time[1] .. string.format('%06d', tonumber(time[2])))\n" +
+        "end\n";
+
+    /**
+     * 读取版本号，缺失时初始化
+     */
+    private static final RedisScript<Long> CURRENT_SCRIPT =
+            new DefaultRedisScript<>(SEED_SCRIPT + "return tonumber(redis.call('GET', KEYS[1]))", Long.class);
+
+    /**
+     * 递增版本号，缺失时先初始化
+     */
+    private static final RedisScript<Long> INCREMENT_SCRIPT =
+            new DefaultRedisScript<>(SEED_SCRIPT + "return redis.call('INCR', KEYS[1])", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 发布租户权限变更事件
+     */
+    public void publish(Long tenantId) {
+        if (tenantId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doPublish(tenantId);
+                }
+            });
+        } else {
+            doPublish(tenantId);
+        }
+    }
+
+    /**
+     * 当前租户快照版本号，计数器缺失时先初始化
+     */
+    public long currentVersion(Long tenantId) {
+        String key = PermissionSnapshot.VERSION_KEY_PREFIX + tenantId;
+        String value = stringRedisTemplate.opsForValue().get(key);
+        if (value != null) {
+            return Long.parseLong(value);
+        }
+        Long version = stringRedisTemplate.execute(CURRENT_SCRIPT, List.of(key));
+        if (version == null) {
+            throw new IllegalStateException("Permission version unavailable for tenant " + tenantId);
+        }
+        return version;
+    }
+
+    private void doPublish(Long tenantId) {
+        try {
+            Long version = stringRedisTemplate.execute(INCREMENT_SCRIPT, List.of(PermissionSnapshot.VERSION_KEY_PREFIX + tenantId));
+            stringRedisTemplate.convertAndSend(PermissionSnapshot.CHANGE_CHANNEL, tenantId + ":" + version);
+            log.debug("Permission change published for tenant: {}, version: {}", tenantId, version);
+        } catch (Exception e) {
+            // 网关按最大存活时间定期重新拉取快照，发布失败只会推迟生效
+            log.error("Failed to publish permission change for tenant {}: {}", tenantId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.hoxkar.permission.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hoxkar.common.policy.PermissionBitSet;
+import com.hoxkar.common.policy.PermissionDictionary;
+import com.hoxkar.permission.entity.Permission;
+import com.hoxkar.permission.entity.Role;
+import com.hoxkar.permission.entity.UserRole;
+import com.hoxkar.permission.repository.PermissionRepository;
+import com.hoxkar.permission.repository.RoleRepository;
+import com.hoxkar.permission.repository.UserRoleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 租户权限索引存储
+ * 按租户缓存编译后的权限索引，以租户快照版本号判断是否过期：版本号变化（任何角色、权限或用户角色变更）后重新编译，
+ * 同一租户的并发编译合并为一次，编译在缓存锁外执行。版本号递增失败时变更不会反映到版本号上，
+ * 因此索引另有最长存活时间，到期后按数据库重新编译。权限字典按权限ID升序分配稠密ID，新增权限追加在末尾
+ */
+@Slf4j
+@Component
+public class PermissionIndexStore {
+
+    private static final String ACTIVE = "ACTIVE";
+
+    private final PermissionRepository permissionRepository;
+    private final RoleRepository roleRepository;
+    private final UserRoleRepository userRoleRepository;
+    private final PermissionChangePublisher changePublisher;
+    private final Cache<Long, TenantPermissionIndex> indexes;
+
+    /**
+     * 租户ID -> 进行中的编译，同一租户的并发请求等待同一次编译
+     */
+    private final Map<Long, CompletableFuture<TenantPermissionIndex>> compiling = new ConcurrentHashMap<>();
+
+    public PermissionIndexStore(PermissionRepository permissionRepository,
+                                RoleRepository roleRepository,
+                                UserRoleRepository userRoleRepository,
+                                PermissionChangePublisher changePublisher,
+                                @Value("${permission.index.max-tenants:1000}") long maxTenants,
+                                @Value("${permission.index.ttl:60}") long ttlSeconds) {
+        this.permissionRepository = permissionRepository;
+        this.roleRepository = roleRepository;
+        this.userRoleRepository = userRoleRepository;
+        this.changePublisher = changePublisher;
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(maxTenants)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * 获取租户当前版本的权限索引
+     */
+    public TenantPermissionIndex get(Long tenantId) {
+        long version;
+        try {
+            version = changePublisher.currentVersion(tenantId);
+        } catch (Exception e) {
+            // 无法确认版本时不使用缓存，直接按数据库编译
+            log.warn("Failed to read permission version of tenant {}, compiling uncached: {}", tenantId, e.getMessage());
+            return compile(tenantId, -1L);
+        }
+        TenantPermissionIndex current = indexes.getIfPresent(tenantId);
+        if (current != null && current.getVersion() == version) {
+            return current;
+        }
+        CompletableFuture<TenantPermissionIndex> compilation = new CompletableFuture<>();
+        CompletableFuture<TenantPermissionIndex> running = compiling.putIfAbsent(tenantId, compilation);
+        if (running != null) {
+            try {
+                TenantPermissionIndex index = running.join();
+                if (index.getVersion() >= version) {
+                    return index;
+                }
+            } catch (CompletionException e) {
+                log.debug("Concurrent compilation of tenant {} failed, compiling again", tenantId);
+            }
+            return compile(tenantId, version);
+        }
+        try {
+            TenantPermissionIndex index = compile(tenantId, version);
+            // 只以更新的版本替换，锁内不访问数据库
+            indexes.asMap().merge(tenantId, index, (old, fresh) -> old.getVersion() > fresh.getVersion() ? old : fresh);
+            compilation.complete(index);
+            return index;
+        } catch (RuntimeException e) {
+            compilation.completeExceptionally(e);
+            throw e;
+        } finally {
+            compiling.remove(tenantId, compilation);
+        }
+    }
+
+    /**
+     * 编译租户权限索引；版本号需在读取数据之前获取，期间提交的变更只会使索引比其版本号更新
+     */
+    private TenantPermissionIndex compile(Long tenantId, long version) {
+        List<Permission> permissions = new ArrayList<>(permissionRepository.findByTenantIdAndStatus(tenantId, ACTIVE));
+        permissions.sort(Comparator.comparing(Permission::getId));
+        PermissionDictionary dictionary = new PermissionDictionary(tenantId, version,
+                permissions.stream().map(Permission::getPermissionCode).distinct().toList());
+
+        Map<String, PermissionBitSet> rolePermissions = new HashMap<>();
+        Map<Long, String> roleCodes = new HashMap<>();
+        for (Role role : roleRepository.findByTenantIdAndStatusWithPermissions(tenantId, ACTIVE)) {
+            List<String> codes = role.getPermissions() == null ? List.of() : role.getPermissions().stream()
+                    .filter(p -> ACTIVE.equals(p.getStatus()))
+                    .map(Permission::getPermissionCode)
+                    .toList();
+            rolePermissions.put(role.getRoleCode(), dictionary.encode(codes));
+            roleCodes.put(role.getId(), role.getRoleCode());
+        }
+
+        Map<Long, List<String>> userRoles = new HashMap<>();
+        for (UserRole userRole : userRoleRepository.findAllByTenantId(tenantId)) {
+            String roleCode = roleCodes.get(userRole.getRoleId());
+            if (roleCode != null) {
+                userRoles.computeIfAbsent(userRole.getUserId(), k -> new ArrayList<>()).add(roleCode);
+            }
+        }
+
+        log.debug("Compiled permission index for tenant {}, version: {}, permissions: {}, roles: {}, users: {}",
+                tenantId, version, dictionary.getCodes().size(), rolePermissions.size(), userRoles.size());
+        return new TenantPermissionIndex(dictionary, rolePermissions, userRoles);
+    }
+}
@@ -3,6 +3,12 @@ package com.hoxkar.permission.service;
 import com.hoxkar.permission.pojo.dto.*;
 import com.hoxkar.permission.pojo.vo.*;
 import com.hoxkar.common.pojo.vo.ApiResponse;
+import com.hoxkar.common.policy.AuthorizationCheckRequest;
+import com.hoxkar.common.policy.AuthorizationCheckResult;
+import com.hoxkar.common.policy.PermissionClaim;
+import com.hoxkar.common.policy.PermissionDictionary;
+import com.hoxkar.common.policy.PermissionSnapshot;
+import com.hoxkar.common.policy.UserAuthorities;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -221,8 +227,33 @@ public interface PermissionService {
      */
     ApiResponse<Boolean> checkUserRole(Long userId, String roleCode);
     
+    /**
+     * 获取用户的有效权限集合（启用的权限代码与角色代码），供各服务的方法级授权缓存使用
+     */
+    ApiResponse<UserAuthorities> getUserAuthorities(Long userId);
+    
+    /**
+     * 批量检查用户的权限与角色，按AND/OR逻辑给出总体判定与逐项结果
+     */
+    ApiResponse<AuthorizationCheckResult> checkUserAuthorities(Long userId, AuthorizationCheckRequest request);
+    
+    /**
+     * 获取当前租户的权限字典（权限代码 -> 稠密ID），版本号与权限快照相同，可与权限位图一起缓存
+     */
+    ApiResponse<PermissionDictionary> getPermissionDictionary();
+    
+    /**
+     * 获取用户的访问令牌权限声明（有效权限位图与字典版本号），供认证服务签发令牌使用
+     */
+    ApiResponse<PermissionClaim> getUserPermissionClaim(Long userId);
+    
     /**
      * 获取权限统计信息
      */
     ApiResponse<PermissionStatisticsVO> getPermissionStatistics();
+    
+    /**
+     * 获取租户权限快照（角色->权限、用户->角色），供网关路由级授权使用
+     */
+    ApiResponse<PermissionSnapshot> getPermissionSnapshot(Long tenantId);
 } 
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.hoxkar.permission.service;
+
+import com.hoxkar.common.policy.PermissionBitSet;
+import com.hoxkar.common.policy.PermissionDictionary;
+import com.hoxkar.common.policy.PermissionSnapshot;
+import com.hoxkar.common.policy.UserAuthorities;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 编译后的租户权限索引
+ * 租户启用的权限代码按字典编码为稠密ID，角色权限与用户有效权限（所属角色位图的按位或）保存为位图，
+ * 权限检查为一次字典查找加一次位测试；不可变，按快照版本号整体替换
+ */
+public class TenantPermissionIndex {
+
+    private final PermissionDictionary dictionary;
+
+    /**
+     * 启用的角色代码 -> 权限位图
+     */
+    private final Map<String, PermissionBitSet> rolePermissions;
+
+    /**
+     * 用户ID -> 启用的角色代码
+     */
+    private final Map<Long, List<String>> userRoles;
+
+    /**
+     * 用户ID -> 有效权限位图
+     */
+    private final Map<Long, PermissionBitSet> userPermissions;
+
+    public TenantPermissionIndex(PermissionDictionary dictionary,
+                                 Map<String, PermissionBitSet> rolePermissions,
+                                 Map<Long, List<String>> userRoles) {
+        this.dictionary = dictionary;
+        this.rolePermissions = Map.copyOf(rolePermissions);
+        Map<Long, List<String>> roles = new HashMap<>();
+        Map<Long, PermissionBitSet> permissions = new HashMap<>();
+        userRoles.forEach((userId, roleCodes) -> {
+            PermissionBitSet bits = PermissionBitSet.EMPTY;
+            for (String roleCode : roleCodes) {
+                bits = bits.or(this.rolePermissions.getOrDefault(roleCode, PermissionBitSet.EMPTY));
+            }
+            roles.put(userId, List.copyOf(roleCodes));
+            permissions.put(userId, bits);
+        });
+        this.userRoles = Map.copyOf(roles);
+        this.userPermissions = Map.copyOf(permissions);
+    }
+
+    public long getVersion() {
+        return dictionary.getVersion();
+    }
+
+    public PermissionDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * 用户的有效权限位图
+     */
+    public PermissionBitSet permissionsOf(Long userId) {
+        return userPermissions.getOrDefault(userId, PermissionBitSet.EMPTY);
+    }
+
+    /**
+     * 用户是否拥有指定权限
+     */
+    public boolean hasPermission(Long userId, String permissionCode) {
+        return dictionary.contains(permissionsOf(userId), permissionCode);
+    }
+
+    /**
+     * 用户是否拥有指定的启用角色
+     */
+    public boolean hasRole(Long userId, String roleCode) {
+        return userRoles.getOrDefault(userId, List.of()).contains(roleCode);
+    }
+
+    /**
+     * 用户的有效权限集合
+     */
+    public UserAuthorities authoritiesOf(Long userId) {
+        Set<String> roles = new HashSet<>(userRoles.getOrDefault(userId, List.of()));
+        return new UserAuthorities(dictionary.getTenantId(), userId, getVersion(),
+                dictionary.decode(permissionsOf(userId)), roles);
+    }
+
+    /**
+     * 转换为供网关使用的权限快照
+     */
+    public PermissionSnapshot toSnapshot() {
+        return new PermissionSnapshot(dictionary.getTenantId(), getVersion(), dictionary, rolePermissions, userRoles);
+    }
+}
@@ -10,9 +10,18 @@ import org.springframework.util.StringUtils;
 import com.hoxkar.permission.repository.PermissionRepository;
 import com.hoxkar.permission.repository.RoleRepository;
 import com.hoxkar.permission.repository.UserRoleRepository;
+import com.hoxkar.permission.service.PermissionChangePublisher;
+import com.hoxkar.permission.service.PermissionIndexStore;
 import com.hoxkar.permission.service.PermissionService;
+import com.hoxkar.permission.service.TenantPermissionIndex;
 import com.hoxkar.common.exception.BusinessException;
 import com.hoxkar.common.pojo.vo.ApiResponse;
+import com.hoxkar.common.policy.AuthorizationCheckRequest;
+import com.hoxkar.common.policy.AuthorizationCheckResult;
+import com.hoxkar.common.policy.PermissionClaim;
+import com.hoxkar.common.policy.PermissionDictionary;
+import com.hoxkar.common.policy.PermissionSnapshot;
+import com.hoxkar.common.policy.UserAuthorities;
 import com.hoxkar.common.util.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,7 +30,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -38,6 +46,8 @@ public class PermissionServiceImpl implements PermissionService {
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
     private final UserRoleRepository userRoleRepository;
+    private final PermissionChangePublisher changePublisher;
+    private final PermissionIndexStore permissionIndexStore;
     
     // Role Management
     @Override
@@ -64,9 +74,11 @@ public class PermissionServiceImpl implements PermissionService {
             // Save role
             Role savedRole = roleRepository.save(role);
             
-            // Assign permissions
+            // Assign permissions, which publishes the change itself
             if (request.getPermissionIds() != null && !request.getPermissionIds().isEmpty()) {
                 assignPermissionsToRole(savedRole.getId(), request.getPermissionIds());
+            } else {
+                changePublisher.publish(savedRole.getTenantId());
             }
             
             log.info("Role created successfully: {}", savedRole.getRoleName());
@@ -125,6 +137,7 @@ public class PermissionServiceImpl implements PermissionService {
                 assignPermissionsToRole(roleId, request.getPermissionIds());
             }
             
+            changePublisher.publish(Long.valueOf(tenantId));
             log.info("Role updated successfully: {}", updatedRole.getRoleName());
             return ApiResponse.success("Role updated successfully", convertToRoleVO(updatedRole));
             
@@ -160,6 +173,7 @@ public class PermissionServiceImpl implements PermissionService {
             // Delete role
             roleRepository.delete(role);
             
+            changePublisher.publish(Long.valueOf(tenantId));
             log.info("Role {} deleted successfully", role.getRoleName());
             return ApiResponse.success(null);
             
@@ -314,6 +328,7 @@ public class PermissionServiceImpl implements PermissionService {
             role.setStatus("ACTIVE");
             roleRepository.save(role);
             
+            changePublisher.publish(Long.valueOf(tenantId));
             log.info("Role {} enabled successfully", role.getRoleName());
             return ApiResponse.success(null);
             
@@ -345,6 +360,7 @@ public class PermissionServiceImpl implements PermissionService {
             role.setStatus("INACTIVE");
             roleRepository.save(role);
             
+            changePublisher.publish(Long.valueOf(tenantId));
             log.info("Role {} disabled successfully", role.getRoleName());
             return ApiResponse.success(null);
             
@@ -387,6 +403,7 @@ public class PermissionServiceImpl implements PermissionService {
             // Save permission
             Permission savedPermission = permissionRepository.save(permission);
             
+            changePublisher.publish(savedPermission.getTenantId());
             log.info("Permission created successfully: {}", savedPermission.getPermissionName());
             return ApiResponse.success("Permission created successfully", convertToPermissionVO(savedPermission));
             
@@ -456,6 +473,7 @@ public class PermissionServiceImpl implements PermissionService {
             // Save permission
             Permission updatedPermission = permissionRepository.save(permission);
             
+            changePublisher.publish(Long.valueOf(tenantId));
             log.info("Permission updated successfully: {}", updatedPermission.getPermissionName());
             return ApiResponse.success("Permission updated successfully", convertToPermissionVO(updatedPermission));
             
@@ -497,6 +515,7 @@ public class PermissionServiceImpl implements PermissionService {
             // Delete permission
             permissionRepository.delete(permission);
             
+            changePublisher.publish(Long.valueOf(tenantId));
             log.info("Permission {} deleted successfully", permission.getPermissionName());
             return ApiResponse.success(null);
             
@@ -691,6 +710,7 @@ public class PermissionServiceImpl implements PermissionService {
             permission.setStatus("ACTIVE");
             permissionRepository.save(permission);
             
+            changePublisher.publish(Long.valueOf(tenantId));
             log.info("Permission {} enabled successfully", permission.getPermissionName());
             return ApiResponse.success(null);
             
@@ -722,6 +742,7 @@ public class PermissionServiceImpl implements PermissionService {
             permission.setStatus("INACTIVE");
             permissionRepository.save(permission);
             
+            changePublisher.publish(Long.valueOf(tenantId));
             log.info("Permission {} disabled successfully", permission.getPermissionName());
             return ApiResponse.success(null);
             
@@ -764,6 +785,7 @@ public class PermissionServiceImpl implements PermissionService {
             role.setPermissions(permissions);
             roleRepository.save(role);
             
+            changePublisher.publish(Long.valueOf(tenantId));
             log.info("Permissions assigned to role {} successfully", role.getRoleName());
             return ApiResponse.success(null);
             
@@ -832,6 +854,7 @@ public class PermissionServiceImpl implements PermissionService {
                 }
             }
             
+            changePublisher.publish(Long.valueOf(tenantId));
             log.info("User {} roles assigned successfully", request.getUserId());
             return ApiResponse.success(null);
             
@@ -887,16 +910,10 @@ public class PermissionServiceImpl implements PermissionService {
     public ApiResponse<Boolean> checkUserPermission(Long userId, String permissionCode) {
         try {
             // Get current tenant ID
-            String tenantId = TenantContext.getRequiredTenantId();
-            
-            // Get user permissions
-            List<Permission> permissions = permissionRepository.findByUserId(Long.valueOf(tenantId), userId);
+            Long tenantId = Long.valueOf(TenantContext.getRequiredTenantId());
             
-            // Check if user has the specified permission
-            boolean hasPermission = permissions.stream()
-                    .anyMatch(p -> p.getPermissionCode().equals(permissionCode) && "ACTIVE".equals(p.getStatus()));
-            
-            return ApiResponse.success(hasPermission);
+            // Bit test against the user's effective permission bitmap
+            return ApiResponse.success(permissionIndexStore.get(tenantId).hasPermission(userId, permissionCode));
             
         } catch (Exception e) {
             log.error("Failed to check user permission: ", e);
@@ -908,16 +925,9 @@ public class PermissionServiceImpl implements PermissionService {
     public ApiResponse<Boolean> checkUserRole(Long userId, String roleCode) {
         try {
             // Get current tenant ID
-            String tenantId = TenantContext.getRequiredTenantId();
+            Long tenantId = Long.valueOf(TenantContext.getRequiredTenantId());
             
-            // Get user roles
-            List<Role> roles = roleRepository.findByUserId(Long.valueOf(tenantId), userId);
-            
-            // Check if user has the specified role
-            boolean hasRole = roles.stream()
-                    .anyMatch(r -> r.getRoleCode().equals(roleCode) && "ACTIVE".equals(r.getStatus()));
-            
-            return ApiResponse.success(hasRole);
+            return ApiResponse.success(permissionIndexStore.get(tenantId).hasRole(userId, roleCode));
             
         } catch (Exception e) {
             log.error("Failed to check user role: ", e);
@@ -925,6 +935,72 @@ public class PermissionServiceImpl implements PermissionService {
         }
     }
     
+    @Override
+    public ApiResponse<UserAuthorities> getUserAuthorities(Long userId) {
+        try {
+            // Get current tenant ID
+            Long tenantId = Long.valueOf(TenantContext.getRequiredTenantId());
+            
+            return ApiResponse.success(permissionIndexStore.get(tenantId).authoritiesOf(userId));
+            
+        } catch (Exception e) {
+            log.error("Failed to get user authorities: ", e);
+            throw BusinessException.of("Failed to get user authorities");
+        }
+    }
+    
+    @Override
+    public ApiResponse<AuthorizationCheckResult> checkUserAuthorities(Long userId, AuthorizationCheckRequest request) {
+        try {
+            // Get current tenant ID
+            Long tenantId = Long.valueOf(TenantContext.getRequiredTenantId());
+            
+            // An empty request has nothing to grant
+            if (request == null || AuthorizationCheckResult.isEmpty(request)) {
+                throw BusinessException.of("Permission or role codes are required");
+            }
+            
+            TenantPermissionIndex index = permissionIndexStore.get(tenantId);
+            return ApiResponse.success(AuthorizationCheckResult.evaluate(request,
+                    code -> index.hasPermission(userId, code), code -> index.hasRole(userId, code)));
+            
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to check user authorities: ", e);
+            throw BusinessException.of("Failed to check user authorities");
+        }
+    }
+    
+    @Override
+    public ApiResponse<PermissionDictionary> getPermissionDictionary() {
+        try {
+            // Get current tenant ID
+            Long tenantId = Long.valueOf(TenantContext.getRequiredTenantId());
+            
+            return ApiResponse.success(permissionIndexStore.get(tenantId).getDictionary());
+            
+        } catch (Exception e) {
+            log.error("Failed to get permission dictionary: ", e);
+            throw BusinessException.of("Failed to get permission dictionary");
+        }
+    }
+    
+    @Override
+    public ApiResponse<PermissionClaim> getUserPermissionClaim(Long userId) {
+        try {
+            // Get current tenant ID
+            Long tenantId = Long.valueOf(TenantContext.getRequiredTenantId());
+            
+            TenantPermissionIndex index = permissionIndexStore.get(tenantId);
+            return ApiResponse.success(new PermissionClaim(index.getVersion(), index.permissionsOf(userId)));
+            
+        } catch (Exception e) {
+            log.error("Failed to get user permission claim: ", e);
+            throw BusinessException.of("Failed to get user permission claim");
+        }
+    }
+    
     /**
      * Convert Role entity to RoleVO
      */
@@ -1062,6 +1138,7 @@ public class PermissionServiceImpl implements PermissionService {
                 roleRepository.save(role);
             }
             
+            changePublisher.publish(Long.valueOf(tenantId));
             log.info("Batch enable roles successful: {}", roleIds);
             return ApiResponse.success(null);
             
@@ -1094,6 +1171,7 @@ public class PermissionServiceImpl implements PermissionService {
                 roleRepository.save(role);
             }
             
+            changePublisher.publish(Long.valueOf(tenantId));
             log.info("Batch disable roles successful: {}", roleIds);
             return ApiResponse.success(null);
             
@@ -1130,6 +1208,7 @@ public class PermissionServiceImpl implements PermissionService {
                 roleRepository.delete(role);
             }
             
+            changePublisher.publish(Long.valueOf(tenantId));
             log.info("Batch delete roles successful: {}", roleIds);
             return ApiResponse.success(null);
             
@@ -1217,6 +1296,7 @@ public class PermissionServiceImpl implements PermissionService {
                 permissionRepository.save(permission);
             }
             
+            changePublisher.publish(Long.valueOf(tenantId));
             log.info("Batch enable permissions successful: {}", permissionIds);
             return ApiResponse.success(null);
             
@@ -1249,6 +1329,7 @@ public class PermissionServiceImpl implements PermissionService {
                 permissionRepository.save(permission);
             }
             
+            changePublisher.publish(Long.valueOf(tenantId));
             log.info("Batch disable permissions successful: {}", permissionIds);
             return ApiResponse.success(null);
             
@@ -1291,6 +1372,7 @@ public class PermissionServiceImpl implements PermissionService {
                 permissionRepository.delete(permission);
             }
             
+            changePublisher.publish(Long.valueOf(tenantId));
             log.info("Batch delete permissions successful: {}", permissionIds);
             return ApiResponse.success(null);
             
@@ -1363,4 +1445,15 @@ public class PermissionServiceImpl implements PermissionService {
             throw BusinessException.of("Failed to get permission statistics");
         }
     }
+    
+    @Override
+    public ApiResponse<PermissionSnapshot> getPermissionSnapshot(Long tenantId) {
+        try {
+            return ApiResponse.success(permissionIndexStore.get(tenantId).toSnapshot());
+            
+        } catch (Exception e) {
+            log.error("Failed to build permission snapshot: ", e);
+            throw BusinessException.of("Failed to build permission snapshot");
+        }
+    }
 } 
\ No newline at end of file
@@ -40,6 +40,8 @@ public class SecurityConfig {
                 .requestMatchers("/swagger-ui/**").permitAll()
                 .requestMatchers("/v3/api-docs/**").permitAll()
                 .requestMatchers("/swagger-ui.html").permitAll()
+                // 服务间内部接口：不要求用户认证，由InternalApiInterceptor校验服务凭证
+                .requestMatchers("/internal/**").permitAll()
                 // 需要认证的端点
                 .anyRequest().authenticated()
             );
@@ -0,0 +1,32 @@
+package com.hoxkar.tenant.controller;
+
+import com.hoxkar.tenant.pojo.vo.RateLimitQuotaVO;
+import com.hoxkar.tenant.service.TenantService;
+import com.hoxkar.common.pojo.vo.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 租户内部接口控制器
+ * 仅供服务间调用（如网关拉取限流配额）：须携带服务凭证（InternalApiInterceptor校验），网关拒绝转发 /internal 路径
+ */
+@Slf4j
+@RestController
+@RequestMapping("/internal/tenants")
+@RequiredArgsConstructor
+@Tag(name = "租户内部接口", description = "服务间调用的租户接口")
+public class TenantInternalController {
+    
+    private final TenantService tenantService;
+    
+    @GetMapping("/rate-limit-quotas")
+    @Operation(summary = "获取租户限流配额", description = "获取所有活跃租户的订阅计划及限流覆盖配置")
+    public ApiResponse<List<RateLimitQuotaVO>> getRateLimitQuotas() {
+        return tenantService.getRateLimitQuotas();
+    }
+}
@@ -0,0 +1,40 @@
+package com.hoxkar.tenant.pojo.vo;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * 租户限流配额视图对象
+ * 供网关按租户解析限流参数；覆盖值为空时使用订阅计划的默认配额
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitQuotaVO {
+    
+    /**
+     * 租户ID
+     */
+    private Long tenantId;
+    
+    /**
+     * 租户代码
+     */
+    private String tenantCode;
+    
+    /**
+     * 订阅计划
+     */
+    private String subscriptionPlan;
+    
+    /**
+     * 令牌补充速率覆盖值（每秒），来自租户配置 rate_limit_replenish_rate
+     */
+    private Integer replenishRate;
+    
+    /**
+     * 突发容量覆盖值，来自租户配置 rate_limit_burst_capacity
+     */
+    private Integer burstCapacity;
+}
@@ -0,0 +1,54 @@
+package com.hoxkar.tenant.service;
+
+import com.hoxkar.common.policy.ResponseCachePurge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 租户变更事件发布器
+ * 租户信息变更后通知网关清除租户服务路由上缓存的响应（如按租户代码查询的租户信息），
+ * 缓存键中的租户为请求方租户，因此清除该路由上全部租户的条目；处于事务中时在提交后发布
+ */
+@Slf4j
+@Component
+public class TenantChangePublisher {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String routeId;
+
+    public TenantChangePublisher(StringRedisTemplate stringRedisTemplate,
+                                 @Value("${tenant.response-cache.route-id:tenant-service}") String routeId) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.routeId = routeId;
+    }
+
+    /**
+     * 发布租户变更事件
+     */
+    public void publish() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doPublish();
+                }
+            });
+        } else {
+            doPublish();
+        }
+    }
+
+    private void doPublish() {
+        try {
+            stringRedisTemplate.convertAndSend(ResponseCachePurge.CHANNEL, ResponseCachePurge.message(routeId, null));
+            log.debug("Tenant change published, response cache route: {}", routeId);
+        } catch (Exception e) {
+            // 网关缓存条目按路由TTL过期，发布失败只会推迟生效
+            log.error("Failed to publish tenant change: {}", e.getMessage());
+        }
+    }
+}
@@ -205,4 +205,9 @@ public interface TenantService {
      * 检查配置键是否存在
      */
     ApiResponse<Boolean> checkConfigKeyExists(String tenantId, String configKey);
+    
+    /**
+     * 获取所有活跃租户的限流配额（供网关使用）
+     */
+    ApiResponse<List<RateLimitQuotaVO>> getRateLimitQuotas();
 } 
\ No newline at end of file
@@ -8,6 +8,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.util.StringUtils;
 import com.hoxkar.tenant.repository.TenantRepository;
 import com.hoxkar.tenant.repository.TenantConfigRepository;
+import com.hoxkar.tenant.service.TenantChangePublisher;
 import com.hoxkar.tenant.service.TenantService;
 import com.hoxkar.common.exception.BusinessException;
 import com.hoxkar.common.pojo.vo.ApiResponse;
@@ -34,6 +35,13 @@ public class TenantServiceImpl implements TenantService {
     
     private final TenantRepository tenantRepository;
     private final TenantConfigRepository tenantConfigRepository;
+    private final TenantChangePublisher tenantChangePublisher;
+    
+    /**
+     * 租户级限流覆盖配置键
+     */
+    private static final String RATE_LIMIT_REPLENISH_RATE_KEY = "rate_limit_replenish_rate";
+    private static final String RATE_LIMIT_BURST_CAPACITY_KEY = "rate_limit_burst_capacity";
     
     // 租户管理
     @Override
@@ -148,6 +156,7 @@ public class TenantServiceImpl implements TenantService {
             
             // 保存租户
             Tenant updatedTenant = tenantRepository.save(tenant);
+            tenantChangePublisher.publish();
             
             log.info("更新租户成功: {}", updatedTenant.getTenantName());
             return ApiResponse.success("租户更新成功", convertToTenantVO(updatedTenant));
@@ -178,6 +187,7 @@ public class TenantServiceImpl implements TenantService {
             
             // 删除租户的所有配置
             tenantConfigRepository.deleteByTenantId(tenant.getId());
+            tenantChangePublisher.publish();
             
             log.info("租户 {} 删除成功", tenant.getTenantName());
             return ApiResponse.success(null);
@@ -335,6 +345,7 @@ public class TenantServiceImpl implements TenantService {
             // 启用租户
             tenant.setStatus("ACTIVE");
             tenantRepository.save(tenant);
+            tenantChangePublisher.publish();
             
             log.info("租户 {} 启用成功", tenant.getTenantName());
             return ApiResponse.success(null);
@@ -358,6 +369,7 @@ public class TenantServiceImpl implements TenantService {
             // 禁用租户
             tenant.setStatus("INACTIVE");
             tenantRepository.save(tenant);
+            tenantChangePublisher.publish();
             
             log.info("租户 {} 禁用成功", tenant.getTenantName());
             return ApiResponse.success(null);
@@ -386,6 +398,7 @@ public class TenantServiceImpl implements TenantService {
             // 更新用户数
             tenant.setCurrentUsers(userCount);
             tenantRepository.save(tenant);
+            tenantChangePublisher.publish();
             
             log.info("租户 {} 用户数更新成功", tenant.getTenantName());
             return ApiResponse.success(null);
@@ -804,6 +817,7 @@ public class TenantServiceImpl implements TenantService {
                 tenantRepository.save(tenant);
             }
             
+            tenantChangePublisher.publish();
             log.info("批量启用租户成功: {}", tenantIds);
             return ApiResponse.success(null);
             
@@ -828,6 +842,7 @@ public class TenantServiceImpl implements TenantService {
                 tenantRepository.save(tenant);
             }
             
+            tenantChangePublisher.publish();
             log.info("批量禁用租户成功: {}", tenantIds);
             return ApiResponse.success(null);
             
@@ -859,6 +874,7 @@ public class TenantServiceImpl implements TenantService {
                 tenantConfigRepository.deleteByTenantId(tenant.getId());
             }
             
+            tenantChangePublisher.publish();
             log.info("批量删除租户成功: {}", tenantIds);
             return ApiResponse.success(null);
             
@@ -999,4 +1015,44 @@ public class TenantServiceImpl implements TenantService {
             throw BusinessException.of("检查配置键是否存在失败");
         }
     }
+    
+    // 限流配额
+    @Override
+    public ApiResponse<List<RateLimitQuotaVO>> getRateLimitQuotas() {
+        try {
+            // 按配置键一次性查出所有租户的覆盖值，避免逐个租户查询
+            Map<Long, Integer> replenishRates = collectIntConfigs(RATE_LIMIT_REPLENISH_RATE_KEY);
+            Map<Long, Integer> burstCapacities = collectIntConfigs(RATE_LIMIT_BURST_CAPACITY_KEY);
+            
+            List<RateLimitQuotaVO> quotas = tenantRepository.findByStatus("ACTIVE").stream()
+                    .map(tenant -> new RateLimitQuotaVO(
+                            tenant.getId(),
+                            tenant.getTenantCode(),
+                            tenant.getSubscriptionPlan(),
+                            replenishRates.get(tenant.getId()),
+                            burstCapacities.get(tenant.getId())))
+                    .collect(Collectors.toList());
+            
+            return ApiResponse.success(quotas);
+            
+        } catch (Exception e) {
+            log.error("获取租户限流配额失败: ", e);
+            throw BusinessException.of("获取租户限流配额失败");
+        }
+    }
+    
+    /**
+     * 读取指定配置键的整数值，按租户ID分组；无法解析的值忽略
+     */
+    private Map<Long, Integer> collectIntConfigs(String configKey) {
+        Map<Long, Integer> values = new HashMap<>();
+        for (TenantConfig config : tenantConfigRepository.findByConfigKey(configKey)) {
+            try {
+                values.put(config.getTenantId(), Integer.valueOf(config.getConfigValue().trim()));
+            } catch (RuntimeException e) {
+                log.warn("租户 {} 的配置 {} 不是有效整数: {}", config.getTenantId(), configKey, config.getConfigValue());
+            }
+        }
+        return values;
+    }
 } 
\ No newline at end of file
@@ -5,16 +5,13 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.ComponentScan;
-import org.springframework.context.annotation.FilterType;
 /**
  * 用户管理服务启动类
  */
 @SpringBootApplication
 @EnableDiscoveryClient
-@EnableFeignClients
-@ComponentScan(basePackages = {"com.hoxkar"}, 
-               excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, 
-                                                    classes = {com.hoxkar.common.aspect.PermissionAspect.class}))
+@EnableFeignClients(basePackages = {"com.hoxkar.user", "com.hoxkar.common.client"})
+@ComponentScan(basePackages = {"com.hoxkar"})
 public class UserServiceApplication {
     
     public static void main(String[] args) {